@@ -0,0 +1,70 @@
+package org.dwcj;
+
+import com.basis.bbj.proxies.BBjAPI;
+import com.basis.startup.type.BBjException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures getInstance() with 64 concurrent sessions, compared with the thread name keyed
+ * map it replaced. The sessions run against a BBjAPI stub, as only openSysGui() is called
+ * when a session is initialized.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(64)
+public class EnvironmentBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ByThreadName {
+        final Map<String, Environment> sessions = new HashMap<>();
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+
+        @Setup
+        public void setUp(ByThreadName byThreadName) throws BBjException {
+            BBjAPI api = (BBjAPI) Proxy.newProxyInstance(BBjAPI.class.getClassLoader(), new Class<?>[]{BBjAPI.class},
+                    (proxy, method, args) -> null);
+            Environment.init(api, null);
+            synchronized (byThreadName.sessions) {
+                byThreadName.sessions.put(Thread.currentThread().getName(), Environment.getInstance());
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            Environment.cleanup();
+        }
+    }
+
+    // the lookup as done by getInstance() before
+    @Benchmark
+    public Environment byThreadName(ByThreadName byThreadName, Session session) {
+        return byThreadName.sessions.get(Thread.currentThread().getName());
+    }
+
+    @Benchmark
+    public Environment threadBound(Session session) {
+        return Environment.getInstance();
+    }
+}
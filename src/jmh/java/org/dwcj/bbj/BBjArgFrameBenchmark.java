@@ -0,0 +1,77 @@
+package org.dwcj.bbj;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares passing the arguments of one call as ArrayList of BBjVar with filling a reused
+ * BBjArgFrame, and writing a numeric back after the call through its string form with
+ * handing it over as it is.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BBjArgFrameBenchmark {
+
+    private final BigDecimal amount = new BigDecimal("1234.56");
+    private final BBjArgFrame frame = new BBjArgFrame();
+    private int calls;
+
+    // the list path: a BBjVar per argument and the signature built from the list,
+    // as DwcjHelper.call(pgm, args) does for every call
+    @Benchmark
+    public String argumentList() {
+        List<BBjVar> args = new ArrayList<>();
+        args.add(new BBjVar(amount));
+        args.add(new BBjVar(Integer.valueOf(calls++)));
+        args.add(new BBjVar("customer"));
+        args.add(new BBjVar((Object) args));
+        StringBuilder signature = new StringBuilder();
+        for (BBjVar arg : args) {
+            signature.append(arg.getType().name().charAt(0));
+        }
+        return signature.toString();
+    }
+
+    @Benchmark
+    public String argumentFrame() {
+        frame.clear().addNumeric(amount).addInt(calls++).addString("customer").addObject(frame);
+        return frame.getSignature();
+    }
+
+    @Benchmark
+    public String argumentFrameUnscaled() {
+        frame.clear().addNumeric(123456, 2).addInt(calls++).addString("customer").addObject(frame);
+        return frame.getSignature();
+    }
+
+    // the write back of the frame stub before: new java.math.BigDecimal(str(A0))
+    @Benchmark
+    public BBjArgFrame writeBackFormatted() {
+        frame.clear().addNumeric(amount);
+        frame.setNumeric(0, new BigDecimal(amount.toPlainString()));
+        return frame;
+    }
+
+    @Benchmark
+    public BBjArgFrame writeBack() {
+        frame.clear().addNumeric(amount);
+        frame.setNumeric(0, amount);
+        return frame;
+    }
+}
@@ -0,0 +1,192 @@
+package org.dwcj.bbjplugins.gridexwidget;
+
+import com.basis.bbj.proxies.BBjAPI;
+import com.basis.startup.type.BBjException;
+import com.basis.startup.type.BBjVector;
+import com.basiscomponents.db.DataRow;
+import com.basiscomponents.db.ResultSet;
+import org.dwcj.Environment;
+import org.dwcj.Stubs;
+import org.dwcj.bridge.IDwcjBBjBridge;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a grid call through the typed bridge with the same call through
+ * IDwcjBBjBridge.invokeMethod. The widget is a plain Java object: the typed bridge calls it
+ * directly, like BBjGridExWidgetBridge does with its typed field, while the helper stub
+ * builds the call string and resolves the method by name for every call, like
+ * DwcjHelper.invokeMethod does before its eval. The eval itself runs in the BBj interpreter
+ * and cannot be measured here, so the invokeMethod numbers are a lower bound.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GridExWidgetBridgeBenchmark {
+
+    public static final class Widget {
+        DataRow last;
+
+        public void updateRow(DataRow row) {
+            last = row;
+        }
+    }
+
+    private final Widget widget = new Widget();
+    private DataRow row;
+    private GridExWidgetBridge typed;
+    private GridExWidgetBridge invokeMethod;
+    private String command;
+
+    @Setup
+    public void setUp() throws BBjException {
+        IDwcjBBjBridge helper = (IDwcjBBjBridge) Proxy.newProxyInstance(IDwcjBBjBridge.class.getClassLoader(),
+                new Class<?>[]{IDwcjBBjBridge.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("invokeMethod")) {
+                        return evaluate(args[0], (String) args[1], (ArrayList<?>) args[2]);
+                    }
+                    return null;
+                });
+        Environment.init(Stubs.of(BBjAPI.class), helper);
+        row = new DataRow();
+        row.setFieldValue("ID", 1);
+        typed = new TypedBridge();
+        typed.bind(widget);
+        invokeMethod = new InvokeMethodGridExWidgetBridge();
+        invokeMethod.bind(widget);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Environment.cleanup();
+    }
+
+    @Benchmark
+    public DataRow typedBridge() {
+        typed.updateRow(row);
+        return widget.last;
+    }
+
+    @Benchmark
+    public DataRow invokeMethod() {
+        invokeMethod.updateRow(row);
+        return widget.last;
+    }
+
+    // what DwcjHelper.invokeMethod does up to its eval: build the call, resolve it by name
+    private Object evaluate(Object target, String name, ArrayList<?> args) throws Exception {
+        StringBuilder cmd = new StringBuilder("e!.").append(name).append('(');
+        int count = args == null ? 0 : args.size();
+        for (int i = 0; i < count; i++) {
+            cmd.append(i == 0 ? "" : ",").append("args!.get(").append(i).append(')');
+        }
+        command = cmd.append(')').toString();
+        for (Method m : target.getClass().getMethods()) {
+            if (m.getName().equals(name) && m.getParameterCount() == count) {
+                return m.invoke(target, count == 0 ? null : args.toArray());
+            }
+        }
+        throw new NoSuchMethodException(command);
+    }
+
+    /**
+     * The Java equivalent of BBjGridExWidgetBridge for the calls measured here
+     */
+    @SuppressWarnings("java:S3740")
+    private static final class TypedBridge implements GridExWidgetBridge {
+
+        private Widget widget;
+
+        @Override
+        public void bind(Object widget) {
+            this.widget = (Widget) widget;
+        }
+
+        @Override
+        public void updateRow(DataRow row) {
+            widget.updateRow(row);
+        }
+
+        @Override
+        public void setData(ResultSet rs) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setData(ResultSet rs, int render, Boolean addAll) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void addRows(ResultSet rs) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public BBjVector getSelectedRows() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public DataRow asDataRow(Object row) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deselectAll() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object addColumn(String field, String label, int type) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object addColumnGroup(String id, String label, BBjVector columns, Boolean marryChildren, String cssClass) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void addRow(DataRow row) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void removeRow(DataRow row) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void applyTransaction(ResultSet added, ResultSet updated, ResultSet removed) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setFitToGrid() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void autoSizeColumns() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
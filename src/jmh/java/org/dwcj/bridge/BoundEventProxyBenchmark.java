@@ -0,0 +1,73 @@
+package org.dwcj.bridge;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the event dispatch of BoundEventProxy with the per-event method scan the BBj
+ * event proxy did before.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoundEventProxyBenchmark {
+
+    private static class Sink {
+        int events;
+        Object last;
+
+        @SuppressWarnings("unused")
+        private void onEvent(Object ev) {
+            events++;
+            last = ev;
+        }
+    }
+
+    private final Object payload = new Object();
+    private Sink sink;
+    private BoundEventProxy proxy;
+
+    @Setup
+    public void setUp() {
+        sink = new Sink();
+        proxy = new BoundEventProxy(sink, "onEvent");
+    }
+
+    @Benchmark
+    public Object methodScan() throws Exception {
+        scanAndInvoke(sink, "onEvent", payload);
+        return sink.last;
+    }
+
+    @Benchmark
+    public Object boundProxy() {
+        proxy.dispatch(payload);
+        return sink.last;
+    }
+
+    // the dispatch as done by BBjEventProxy.onEvent before, for every event
+    @SuppressWarnings("java:S3011")
+    private static void scanAndInvoke(Object target, String name, Object ev) throws Exception {
+        for (Method m : target.getClass().getDeclaredMethods()) {
+            if (m.getName().equals(name)) {
+                m.setAccessible(true);
+                m.invoke(target, ev);
+                return;
+            }
+        }
+    }
+}
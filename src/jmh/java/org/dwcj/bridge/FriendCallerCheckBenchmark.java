@@ -0,0 +1,57 @@
+package org.dwcj.bridge;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the caller check of the accessors with the getStackTrace() based check they
+ * used before, called at the given stack depth.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FriendCallerCheckBenchmark {
+
+    @Param({"0", "150"})
+    int depth;
+
+    @Benchmark
+    public boolean getStackTrace() {
+        return atDepth(depth, true);
+    }
+
+    @Benchmark
+    public boolean stackWalker() {
+        return atDepth(depth, false);
+    }
+
+    private static boolean atDepth(int depth, boolean old) {
+        if (depth > 0) {
+            return atDepth(depth - 1, old);
+        }
+        return old ? oldCheck() : newCheck();
+    }
+
+    // the check as done by the accessors before: capture the full trace, look at the caller
+    private static boolean oldCheck() {
+        StackTraceElement[] stack = Thread.currentThread().getStackTrace();
+        return stack[2].getClassName().startsWith("org.dwcj.");
+    }
+
+    private static boolean newCheck() {
+        return FriendCallerCheck.isFriend(FriendCallerCheck.WALKER.getCallerClass());
+    }
+}
@@ -0,0 +1,99 @@
+package org.dwcj.controls;
+
+import org.dwcj.bridge.ControlAccessor;
+import org.dwcj.controls.panels.AbstractDwcjPanel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost per control of adding a grid of controls through the accessor with the
+ * reflective hierarchy walk the accessor did before. The panel is not needed by the
+ * benchmark controls, so none is created.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CtrlAccessorBenchmark {
+
+    private static final int ROWS = 500;
+
+    private static class Cell extends AbstractControl {
+        int created;
+
+        @Override
+        protected void create(AbstractDwcjPanel p) {
+            created++;
+        }
+    }
+
+    private static final class Caption extends Cell {
+    }
+
+    private static final class Action extends Cell {
+        @Override
+        protected void create(AbstractDwcjPanel p) {
+            created += 2;
+        }
+    }
+
+    private Cell[] grid;
+
+    @Setup
+    public void setUp() {
+        grid = new Cell[ROWS * 2];
+        for (int i = 0; i < ROWS; i++) {
+            grid[2 * i] = new Caption();
+            grid[2 * i + 1] = new Action();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS * 2)
+    public Cell[] reflectiveWalk() throws Exception {
+        for (Cell cell : grid) {
+            reflectiveCreate(cell, null);
+        }
+        return grid;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS * 2)
+    public Cell[] accessor() throws IllegalAccessException {
+        for (Cell cell : grid) {
+            ControlAccessor.getDefault().create(cell, null);
+        }
+        return grid;
+    }
+
+    // the dispatch as done by CtrlAccessorImpl.create before, without the caller check
+    @SuppressWarnings("java:S3011")
+    private static void reflectiveCreate(AbstractControl ctrl, AbstractDwcjPanel panel) throws Exception {
+        Class<?> clazz = ctrl.getClass();
+        while (clazz != null) {
+            for (Method method : clazz.getDeclaredMethods()) {
+                if (method.getName().equals("create") && method.getParameterCount() == 1
+                        && method.getParameterTypes()[0].equals(Class.forName("org.dwcj.controls.panels.AbstractDwcjPanel"))) {
+                    method.setAccessible(true);
+                    method.invoke(ctrl, panel);
+                    return;
+                }
+            }
+            clazz = clazz.getSuperclass();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.dwcj.environment.namespace;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares updates of a few contended variables by 64 sessions, each a benchmark thread,
+ * through the atomic operations with the lock, get, put and unlock sequence they replace.
+ * The namespace is InMemoryNamespace, so the numbers show the locking and the number of
+ * calls, not the cost of a call into BBj.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class NamespaceContentionBenchmark {
+
+    private static final int KEYS = 4;
+
+    private final InMemoryNamespace namespace = new InMemoryNamespace();
+
+    @State(Scope.Thread)
+    public static class Session {
+        int operations;
+
+        String nextKey() {
+            return "seq" + (operations++ % KEYS);
+        }
+    }
+
+    @Setup
+    public void setUp() throws NamespaceVarableLockedException {
+        // wait for the lock instead of failing under 64 threads
+        namespace.setAtomicLocking(1000, 8);
+        for (int key = 0; key < KEYS; key++) {
+            namespace.put("seq" + key, 0L);
+        }
+        namespace.put("seat", "taken");
+    }
+
+    // the sequence the atomic operations replace: setLock, get, put and removeLock
+    @Benchmark
+    public Object manualLock(Session session) throws NamespaceVarableLockedException {
+        String key = session.nextKey();
+        namespace.setLock(key, 1000);
+        try {
+            Object current = namespace.get(key);
+            namespace.put(key, (Long) current + 1);
+            return current;
+        } finally {
+            namespace.removeLock(key);
+        }
+    }
+
+    @Benchmark
+    public long incrementAndGet(Session session) throws NamespaceVarableLockedException {
+        return namespace.incrementAndGet(session.nextKey());
+    }
+
+    // compareAndSet only locks while the variable looks like it can be set
+    @Benchmark
+    public boolean compareAndSetTaken() throws NamespaceVarableLockedException {
+        return namespace.compareAndSet("seat", null, "mine");
+    }
+}
@@ -5,6 +5,7 @@ import com.basis.startup.type.BBjException;
 import java.util.Map;
 
 import org.dwcj.annotations.AnnotationProcessor;
+import org.dwcj.controls.PropertyWriteQueue;
 import org.dwcj.environment.namespace.*;
 import org.dwcj.exceptions.DwcAppInitializeException;
 import org.dwcj.exceptions.DwcException;
@@ -43,6 +44,8 @@ public abstract class App {
 
   protected App() {
     preRun();
+    PropertyWriteQueue writeQueue = Environment.getInstance().getPropertyWriteQueue();
+    writeQueue.begin();
     try {
       AnnotationProcessor processor = new AnnotationProcessor();
       processor.processAppAnnotations(this, AnnotationProcessor.RunningPhase.PRE_RUN);
@@ -50,9 +53,20 @@ public abstract class App {
       processor.processAppAnnotations(this, AnnotationProcessor.RunningPhase.POST_RUN);
     } catch (DwcException e) {
       Environment.logError(e);
+    } finally {
+      writeQueue.end();
     }
   }
 
+  /**
+   * Send all control property changes that have been collected during the
+   * current event dispatch or run() to the client right away.
+   * Normally this happens automatically when the dispatch ends.
+   */
+  public static void flush() {
+    Environment.getInstance().getPropertyWriteQueue().flush();
+  }
+
   /**
    * Set the application title
    *
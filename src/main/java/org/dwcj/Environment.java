@@ -3,16 +3,44 @@ package org.dwcj;
 import com.basis.bbj.proxies.BBjAPI;
 import com.basis.bbj.proxies.BBjSysGui;
 import com.basis.startup.type.BBjException;
+import org.dwcj.bbj.database.JDBCConnectionPool;
 import org.dwcj.bridge.IDwcjBBjBridge;
-
-import java.util.HashMap;
-
+import org.dwcj.controls.PropertyWriteQueue;
+import org.dwcj.environment.Cache;
+import org.dwcj.environment.StringTableCache;
+import org.dwcj.environment.namespace.sinks.NamespaceListenerRegistry;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * The per-session environment of a DWCJ app.
+ *
+ * Sessions are registered under a generated session ID. The session is bound to the
+ * thread that initialized it, so getInstance() is a thread-local read on the hot path.
+ * Code that runs on other threads (executors, helper or virtual threads) has to carry
+ * the session over explicitly, see {@link #wrap(Runnable)}, {@link #wrap(Callable)} and
+ * {@link #wrap(Executor)}.
+ */
 public final class Environment {
 
-    private static final HashMap<Object, Environment> instanceMap = new HashMap<>();
+    private static final Map<String, Environment> instanceMap = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Environment> currentInstance = new ThreadLocal<>();
+
+    private final String sessionId = UUID.randomUUID().toString();
     private final BBjAPI api;
     private final BBjSysGui sysgui;
     private final IDwcjBBjBridge helper;
+    private final PropertyWriteQueue propertyWriteQueue = new PropertyWriteQueue();
+    private final NamespaceListenerRegistry namespaceListeners = new NamespaceListenerRegistry();
+    private final Map<String, JDBCConnectionPool> connectionPools = new ConcurrentHashMap<>();
+    private final StringTableCache stringTableCache = new StringTableCache();
 
     private Environment(BBjAPI api, IDwcjBBjBridge helper) throws BBjException {
         this.api = api;
@@ -22,15 +50,136 @@ public final class Environment {
 
     public static void init(BBjAPI api, IDwcjBBjBridge helper) throws BBjException {
         Environment env = new Environment(api, helper);
-        Environment.instanceMap.put(Thread.currentThread().getName(), env);
+        Environment.instanceMap.put(env.sessionId, env);
+        Environment.currentInstance.set(env);
     }
 
+    /**
+     * Unregister the session bound to the current thread. When it was the last session of
+     * the application, the shared caches are removed from the namespaces.
+     */
     public static void cleanup() {
-        Environment.instanceMap.remove(Thread.currentThread().getName());
+        Environment env = Environment.currentInstance.get();
+        if (env != null) {
+            Environment.instanceMap.remove(env.sessionId);
+            env.namespaceListeners.clear();
+            env.connectionPools.values().forEach(JDBCConnectionPool::close);
+            env.connectionPools.clear();
+            env.stringTableCache.clear();
+            if (Environment.instanceMap.isEmpty()) {
+                Cache.releaseShared();
+            }
+        }
+        Environment.currentInstance.remove();
     }
 
+    /**
+     * @return the session bound to the current thread, or null if there is none
+     */
     public static Environment getInstance() {
-        return Environment.instanceMap.get(Thread.currentThread().getName());
+        return Environment.currentInstance.get();
+    }
+
+    /**
+     * @param sessionId the ID of the session, see {@link #getSessionId()}
+     * @return the session registered under the ID, or null if there is none
+     */
+    public static Environment getInstance(String sessionId) {
+        return Environment.instanceMap.get(sessionId);
+    }
+
+    /**
+     * @return a read-only view of all sessions registered in this JVM
+     */
+    public static Collection<Environment> getInstances() {
+        return Collections.unmodifiableCollection(Environment.instanceMap.values());
+    }
+
+    /**
+     * @return the ID this session is registered under
+     */
+    public String getSessionId() {
+        return this.sessionId;
+    }
+
+    /**
+     * Wrap a task so that it runs with the session of the calling thread bound,
+     * e.g. when it is submitted to an executor or started on a virtual thread.
+     *
+     * @param task the task to wrap
+     * @return the wrapped task
+     */
+    public static Runnable wrap(Runnable task) {
+        Environment env = getInstance();
+        if (env == null) {
+            return task;
+        }
+        return () -> {
+            Environment previous = env.bind();
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /**
+     * Wrap a task so that it runs with the session of the calling thread bound,
+     * e.g. when it is submitted to an executor or started on a virtual thread.
+     *
+     * @param task the task to wrap
+     * @param <V> the result type of the task
+     * @return the wrapped task
+     */
+    public static <V> Callable<V> wrap(Callable<V> task) {
+        Environment env = getInstance();
+        if (env == null) {
+            return task;
+        }
+        return () -> {
+            Environment previous = env.bind();
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /**
+     * Wrap an executor so that every task it runs gets the session of the thread
+     * that submitted it.
+     *
+     * @param executor the executor to wrap
+     * @return the wrapped executor
+     */
+    public static Executor wrap(Executor executor) {
+        return task -> executor.execute(wrap(task));
+    }
+
+    /**
+     * Bind this session to the current thread
+     *
+     * @return the session that was bound before, to be passed to {@link #restore(Environment)}
+     */
+    public Environment bind() {
+        Environment previous = Environment.currentInstance.get();
+        Environment.currentInstance.set(this);
+        return previous;
+    }
+
+    /**
+     * Restore the session binding of the current thread after {@link #bind()}
+     *
+     * @param previous the session returned by bind(), may be null
+     */
+    public static void restore(Environment previous) {
+        if (previous == null) {
+            Environment.currentInstance.remove();
+        } else {
+            Environment.currentInstance.set(previous);
+        }
     }
 
     public BBjAPI getBBjAPI() {
@@ -45,6 +194,38 @@ public final class Environment {
         return helper;
     }
 
+    /**
+     * @return the queue that collects the control property writes of this session
+     */
+    public PropertyWriteQueue getPropertyWriteQueue() {
+        return propertyWriteQueue;
+    }
+
+    /**
+     * @return the namespace listeners of this session, they are removed by cleanup()
+     */
+    public NamespaceListenerRegistry getNamespaceListenerRegistry() {
+        return namespaceListeners;
+    }
+
+    /**
+     * Returns the connection pool of this session for a database, the pools are closed by cleanup()
+     *
+     * @param databasename the name of the database
+     * @param factory creates the pool on first use
+     * @return the connection pool
+     */
+    public JDBCConnectionPool getConnectionPool(String databasename, Function<String, JDBCConnectionPool> factory) {
+        return connectionPools.computeIfAbsent(databasename, factory);
+    }
+
+    /**
+     * @return the STBL lookups of this session cached by StringTable, they are removed by cleanup()
+     */
+    public StringTableCache getStringTableCache() {
+        return stringTableCache;
+    }
+
 
     /*
     LOGGING: for now we rely on BBj's redirection of err and out into its own logging.
@@ -0,0 +1,223 @@
+package org.dwcj.bbj;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Reusable argument frame for calls into BBj programs. Each slot is typed as numeric,
+ * integer, string or object and held in a primitive or reference array, so arguments are
+ * passed and read back without a wrapper object per value. A numeric is held as unscaled
+ * long and scale, so it keeps the exact decimal value of a BBj numeric without a BigDecimal
+ * per value. A BigDecimal set on a slot, as done by the BBj side which hands its numerics
+ * to Java as BigDecimal, is kept as it is instead of being taken apart.
+ *
+ * The BBj side writes the values of the arguments after the call back into the same
+ * slots. A frame can be cleared and filled again for the next call.
+ */
+public final class BBjArgFrame {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private BBjVar.BBjGenericType[] types = new BBjVar.BBjGenericType[INITIAL_CAPACITY];
+    // the int value of an integer slot, the scale of a numeric slot
+    private int[] ints = new int[INITIAL_CAPACITY];
+    // the unscaled value of a numeric slot that has no BigDecimal in refs
+    private long[] longs = new long[INITIAL_CAPACITY];
+    private Object[] refs = new Object[INITIAL_CAPACITY];
+    private char[] signatureChars = new char[INITIAL_CAPACITY];
+    private int size = 0;
+
+    // the last computed signature, kept while a cleared frame is filled with the same types
+    private String signature = "";
+
+    /**
+     * Removes all slots, the frame keeps its capacity
+     *
+     * @return the frame itself
+     */
+    public BBjArgFrame clear() {
+        Arrays.fill(refs, 0, size, null);
+        size = 0;
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param value the value, null is passed as 0
+     * @return the frame itself
+     */
+    public BBjArgFrame addNumeric(BigDecimal value) {
+        int slot = addSlot(BBjVar.BBjGenericType.NUMERIC);
+        putNumeric(slot, value);
+        return this;
+    }
+
+    /**
+     * @param unscaled the unscaled value
+     * @param scale the scale, the value is unscaled * 10^-scale
+     * @return the frame itself
+     */
+    public BBjArgFrame addNumeric(long unscaled, int scale) {
+        int slot = addSlot(BBjVar.BBjGenericType.NUMERIC);
+        putNumeric(slot, unscaled, scale);
+        return this;
+    }
+
+    public BBjArgFrame addInt(int value) {
+        int slot = addSlot(BBjVar.BBjGenericType.INTEGER);
+        ints[slot] = value;
+        return this;
+    }
+
+    public BBjArgFrame addString(String value) {
+        int slot = addSlot(BBjVar.BBjGenericType.STRING);
+        refs[slot] = value;
+        return this;
+    }
+
+    public BBjArgFrame addObject(Object value) {
+        int slot = addSlot(BBjVar.BBjGenericType.OBJECT);
+        refs[slot] = value;
+        return this;
+    }
+
+    public BBjVar.BBjGenericType getType(int slot) {
+        checkSlot(slot);
+        return types[slot];
+    }
+
+    public BigDecimal getNumeric(int slot) {
+        checkSlot(slot, BBjVar.BBjGenericType.NUMERIC);
+        BigDecimal value = (BigDecimal) refs[slot];
+        return value != null ? value : BigDecimal.valueOf(longs[slot], ints[slot]);
+    }
+
+    /**
+     * @param slot a numeric slot
+     * @return the unscaled value of the numeric
+     * @throws ArithmeticException if the unscaled value does not fit a long
+     */
+    public long getUnscaledNumeric(int slot) {
+        checkSlot(slot, BBjVar.BBjGenericType.NUMERIC);
+        BigDecimal value = (BigDecimal) refs[slot];
+        return value != null ? value.unscaledValue().longValueExact() : longs[slot];
+    }
+
+    /**
+     * @param slot a numeric slot
+     * @return the scale of the numeric
+     */
+    public int getNumericScale(int slot) {
+        checkSlot(slot, BBjVar.BBjGenericType.NUMERIC);
+        BigDecimal value = (BigDecimal) refs[slot];
+        return value != null ? value.scale() : ints[slot];
+    }
+
+    public int getInt(int slot) {
+        checkSlot(slot, BBjVar.BBjGenericType.INTEGER);
+        return ints[slot];
+    }
+
+    public String getString(int slot) {
+        checkSlot(slot, BBjVar.BBjGenericType.STRING);
+        return (String) refs[slot];
+    }
+
+    public Object getObject(int slot) {
+        checkSlot(slot, BBjVar.BBjGenericType.OBJECT);
+        return refs[slot];
+    }
+
+    /**
+     * @param slot a numeric slot
+     * @param value the value, null is passed as 0
+     */
+    public void setNumeric(int slot, BigDecimal value) {
+        checkSlot(slot, BBjVar.BBjGenericType.NUMERIC);
+        putNumeric(slot, value);
+    }
+
+    public void setNumeric(int slot, long unscaled, int scale) {
+        checkSlot(slot, BBjVar.BBjGenericType.NUMERIC);
+        putNumeric(slot, unscaled, scale);
+    }
+
+    public void setInt(int slot, int value) {
+        checkSlot(slot, BBjVar.BBjGenericType.INTEGER);
+        ints[slot] = value;
+    }
+
+    public void setString(int slot, String value) {
+        checkSlot(slot, BBjVar.BBjGenericType.STRING);
+        refs[slot] = value;
+    }
+
+    public void setObject(int slot, Object value) {
+        checkSlot(slot, BBjVar.BBjGenericType.OBJECT);
+        refs[slot] = value;
+    }
+
+    /**
+     * @return the argument types as one letter per slot (N, I, S or O), used by the BBj side
+     * to pick the call stub for the frame
+     */
+    public String getSignature() {
+        if (signature.length() != size || !signatureMatches()) {
+            signature = new String(signatureChars, 0, size);
+        }
+        return signature;
+    }
+
+    private boolean signatureMatches() {
+        for (int i = 0; i < size; i++) {
+            if (signature.charAt(i) != signatureChars[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void putNumeric(int slot, BigDecimal value) {
+        if (value == null) {
+            putNumeric(slot, 0L, 0);
+        } else {
+            refs[slot] = value;
+        }
+    }
+
+    private void putNumeric(int slot, long unscaled, int scale) {
+        refs[slot] = null;
+        longs[slot] = unscaled;
+        ints[slot] = scale;
+    }
+
+    private int addSlot(BBjVar.BBjGenericType type) {
+        if (size == types.length) {
+            int capacity = size * 2;
+            types = Arrays.copyOf(types, capacity);
+            ints = Arrays.copyOf(ints, capacity);
+            longs = Arrays.copyOf(longs, capacity);
+            refs = Arrays.copyOf(refs, capacity);
+            signatureChars = Arrays.copyOf(signatureChars, capacity);
+        }
+        types[size] = type;
+        signatureChars[size] = type.name().charAt(0);
+        return size++;
+    }
+
+    private void checkSlot(int slot) {
+        if (slot < 0 || slot >= size) {
+            throw new IndexOutOfBoundsException("Slot " + slot + " is not in the frame of size " + size);
+        }
+    }
+
+    private void checkSlot(int slot, BBjVar.BBjGenericType type) {
+        checkSlot(slot);
+        if (types[slot] != type) {
+            throw new IllegalStateException("Slot " + slot + " holds " + types[slot] + ", not " + type);
+        }
+    }
+}
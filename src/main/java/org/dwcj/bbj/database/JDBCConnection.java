@@ -1,14 +1,94 @@
 package org.dwcj.bbj.database;
 
+import com.basis.bbj.proxies.BBjAPI;
 import org.dwcj.Environment;
 
 import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Access to the JDBC connections of the BBj databases.
+ *
+ * A connection opened with BBjAPI.getJDBCConnection belongs to the session whose BBjAPI
+ * opened it and must not outlive it. So unless a pool was set with setPool, each session
+ * gets pools of its own, they open connections through the BBjAPI of that session and are
+ * closed with their connections when the session ends, see Environment.cleanup. A pool set
+ * with setPool is shared by all sessions in the JVM and stays open until it is replaced,
+ * its factory must not depend on a session.
+ */
 public class JDBCConnection {
 
+    private static final int DEFAULT_MIN_POOL_SIZE = 0;
+    private static final int DEFAULT_MAX_POOL_SIZE = 10;
+
+    private static final Map<String, JDBCConnectionPool> pools = new ConcurrentHashMap<>();
+
     private JDBCConnection() {}
 
     public static Connection getJDBCConnection(String databasename) throws Exception {
         return Environment.getInstance().getBBjAPI().getJDBCConnection(databasename);
     }
+
+    /**
+     * Borrows a connection from the pool of the database, close() returns it to the pool
+     *
+     * @param databasename the name of the database
+     * @return a pooled connection
+     * @throws SQLException if no connection can be borrowed
+     */
+    public static Connection getPooledConnection(String databasename) throws SQLException {
+        try {
+            return getPool(databasename).borrow();
+        } catch (IllegalStateException e) {
+            throw new SQLException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the pool set for the database with setPool, or else the pool of the session
+     * bound to the current thread. A session pool is created with the default sizes on first
+     * use and opens its connections through BBjAPI.getJDBCConnection of that session.
+     *
+     * @param databasename the name of the database
+     * @return the connection pool
+     * @throws IllegalStateException if no pool was set and no session is bound to the thread
+     */
+    public static JDBCConnectionPool getPool(String databasename) {
+        JDBCConnectionPool shared = pools.get(databasename);
+        if (shared != null) {
+            return shared;
+        }
+        Environment env = Environment.getInstance();
+        if (env == null) {
+            throw new IllegalStateException("No DWCJ session on this thread and no pool set for " + databasename);
+        }
+        BBjAPI api = env.getBBjAPI();
+        return env.getConnectionPool(databasename, name -> new JDBCConnectionPool(name,
+                () -> openBBjConnection(api, name), DEFAULT_MIN_POOL_SIZE, DEFAULT_MAX_POOL_SIZE));
+    }
+
+    /**
+     * Sets the pool of a database for all sessions in the JVM, for example one that opens its
+     * connections with another driver. Its factory must not depend on a session. The previous
+     * pool is closed, sessions use pools of their own again after the pool was set to null.
+     *
+     * @param databasename the name of the database
+     * @param pool the pool, or null to remove it
+     */
+    public static void setPool(String databasename, JDBCConnectionPool pool) {
+        JDBCConnectionPool previous = pool == null ? pools.remove(databasename) : pools.put(databasename, pool);
+        if (previous != null && previous != pool) {
+            previous.close();
+        }
+    }
+
+    private static Connection openBBjConnection(BBjAPI api, String databasename) throws SQLException {
+        try {
+            return api.getJDBCConnection(databasename);
+        } catch (Exception e) {
+            throw new SQLException("Failed to open a connection to " + databasename, e);
+        }
+    }
 }
@@ -0,0 +1,16 @@
+package org.dwcj.bbj.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Opens the physical connections of a JDBCConnectionPool. The pools JDBCConnection creates
+ * for a session open them through BBjAPI.getJDBCConnection of that session. A pool that is
+ * shared by all sessions needs a factory that does not depend on a session, for example
+ * one that opens its connections with DriverManager or a DataSource.
+ */
+@FunctionalInterface
+public interface JDBCConnectionFactory {
+
+    Connection open() throws SQLException;
+}
@@ -0,0 +1,495 @@
+package org.dwcj.bbj.database;
+
+import org.dwcj.Environment;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pool of JDBC connections to one database. JDBCConnection keeps a pool per session, or one
+ * for all sessions when it was set with JDBCConnection.setPool.
+ *
+ * borrow() hands out a connection whose close() returns it to the pool. Idle connections
+ * are validated before they are handed out, and the ones idle for longer than the idle
+ * timeout are closed as long as more than the minimum number of connections is open.
+ * When a leak threshold is set, connections held for longer are reported once with the stack
+ * trace of the borrower. Leak detection is off by default, as it captures a stack trace on
+ * every borrow. Eviction and leak checks run on borrow and return, the pool
+ * does not start threads of its own.
+ */
+public final class JDBCConnectionPool implements AutoCloseable {
+
+    private final String name;
+    private final JDBCConnectionFactory factory;
+    private final int minSize;
+    private final int maxSize;
+
+    private volatile long borrowTimeoutMillis = 30_000;
+    private volatile int validationTimeoutSeconds = 5;
+    private volatile long maxIdleMillis = 600_000;
+    private volatile long leakThresholdMillis = 0;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    // most recently returned first, eviction takes from the tail
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> active = new LinkedHashSet<>();
+    private int opening = 0;
+    private boolean closed = false;
+
+    private long created = 0;
+    private long destroyed = 0;
+    private long borrowed = 0;
+    private long timeouts = 0;
+    private long validationFailures = 0;
+    private long leaks = 0;
+    private long totalWaitNanos = 0;
+    private long maxWaitNanos = 0;
+
+    private static final class PooledConnection {
+        private final Connection connection;
+        private long lastReturned = System.nanoTime();
+        private long borrowedAt;
+        private Exception borrower;
+        private boolean leakReported;
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+    }
+
+    /**
+     * @param name the name used in log messages, usually the database name
+     * @param factory opens the physical connections
+     * @param minSize the number of connections kept open even when idle
+     * @param maxSize the maximum number of open connections
+     */
+    public JDBCConnectionPool(String name, JDBCConnectionFactory factory, int minSize, int maxSize) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("0 <= minSize <= maxSize and maxSize >= 1 required");
+        }
+        this.name = name;
+        this.factory = factory;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @param millis how long borrow() waits for a free connection before it fails
+     * @return the pool itself
+     */
+    public JDBCConnectionPool setBorrowTimeout(long millis) {
+        this.borrowTimeoutMillis = millis;
+        return this;
+    }
+
+    /**
+     * @param seconds the timeout passed to Connection.isValid when a connection is borrowed,
+     *                0 disables the validation
+     * @return the pool itself
+     */
+    public JDBCConnectionPool setValidationTimeout(int seconds) {
+        this.validationTimeoutSeconds = seconds;
+        return this;
+    }
+
+    /**
+     * @param millis how long a connection may stay idle before it is closed
+     * @return the pool itself
+     */
+    public JDBCConnectionPool setMaxIdleTime(long millis) {
+        this.maxIdleMillis = millis;
+        return this;
+    }
+
+    /**
+     * @param millis how long a connection may be held before it is reported as leaked,
+     *               0, the default, disables leak detection and the capture of the borrower stack trace
+     * @return the pool itself
+     */
+    public JDBCConnectionPool setLeakThreshold(long millis) {
+        this.leakThresholdMillis = millis;
+        return this;
+    }
+
+    /**
+     * Opens connections until the minimum size is reached
+     *
+     * @throws SQLException if a connection cannot be opened
+     */
+    public void prestart() throws SQLException {
+        while (true) {
+            lock.lock();
+            try {
+                if (closed || idle.size() + active.size() + opening >= minSize) {
+                    return;
+                }
+                opening++;
+            } finally {
+                lock.unlock();
+            }
+            open(false);
+        }
+    }
+
+    /**
+     * Borrows a connection, close() on the returned connection hands it back to the pool
+     *
+     * @return a connection, validated if it was idle
+     * @throws SQLTimeoutException if no connection becomes free within the borrow timeout
+     * @throws SQLException if the pool is closed or a connection cannot be opened
+     */
+    public Connection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+        List<PooledConnection> evicted = new ArrayList<>();
+        try {
+            while (true) {
+                PooledConnection candidate = takeIdleOrReserve(deadline, evicted);
+                if (candidate == null) {
+                    candidate = open(true);
+                } else if (!isValid(candidate)) {
+                    lock.lock();
+                    try {
+                        validationFailures++;
+                        active.remove(candidate);
+                        released.signal();
+                    } finally {
+                        lock.unlock();
+                    }
+                    evicted.add(candidate);
+                    continue;
+                }
+                return lease(candidate, System.nanoTime() - start);
+            }
+        } finally {
+            destroy(evicted);
+        }
+    }
+
+    /*
+     * Takes an idle connection and marks it active, or reserves a slot for a new connection
+     * and returns null. Waits while the pool is exhausted.
+     */
+    private PooledConnection takeIdleOrReserve(long deadline, List<PooledConnection> evicted) throws SQLException {
+        lock.lock();
+        try {
+            checkLeaks();
+            collectIdle(evicted);
+            while (true) {
+                if (closed) {
+                    throw new SQLException("Connection pool " + name + " is closed");
+                }
+                PooledConnection candidate = idle.pollFirst();
+                if (candidate != null) {
+                    active.add(candidate);
+                    return candidate;
+                }
+                if (idle.size() + active.size() + opening < maxSize) {
+                    opening++;
+                    return null;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    timeouts++;
+                    throw new SQLTimeoutException("No connection of pool " + name + " became free within "
+                            + borrowTimeoutMillis + " ms, " + active.size() + " are in use");
+                }
+                released.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection of pool " + name, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Opens a connection for a slot reserved with opening++ and adds it to the active
+     * or the idle connections
+     */
+    private PooledConnection open(boolean activate) throws SQLException {
+        Connection connection = null;
+        PooledConnection pooled = null;
+        try {
+            connection = factory.open();
+        } finally {
+            lock.lock();
+            try {
+                opening--;
+                if (connection == null) {
+                    released.signal();
+                } else {
+                    created++;
+                    pooled = new PooledConnection(connection);
+                    if (activate) {
+                        active.add(pooled);
+                    } else {
+                        idle.addFirst(pooled);
+                        released.signal();
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return pooled;
+    }
+
+    private boolean isValid(PooledConnection candidate) {
+        int timeout = validationTimeoutSeconds;
+        if (timeout <= 0) {
+            return true;
+        }
+        try {
+            return candidate.connection.isValid(timeout);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection lease(PooledConnection pooled, long waitNanos) {
+        lock.lock();
+        try {
+            borrowed++;
+            totalWaitNanos += waitNanos;
+            maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+            pooled.borrowedAt = System.nanoTime();
+            pooled.leakReported = false;
+            pooled.borrower = leakThresholdMillis > 0
+                    ? new Exception("Connection of pool " + name + " borrowed by thread " + Thread.currentThread().getName())
+                    : null;
+        } finally {
+            lock.unlock();
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new Lease(pooled));
+    }
+
+    private void release(PooledConnection pooled) {
+        boolean reusable = resetForReuse(pooled.connection);
+        List<PooledConnection> evicted = new ArrayList<>();
+        lock.lock();
+        try {
+            if (!active.remove(pooled)) {
+                return;
+            }
+            pooled.borrower = null;
+            if (reusable && !closed) {
+                pooled.lastReturned = System.nanoTime();
+                idle.addFirst(pooled);
+            } else {
+                evicted.add(pooled);
+            }
+            collectIdle(evicted);
+            released.signal();
+        } finally {
+            lock.unlock();
+            destroy(evicted);
+        }
+    }
+
+    private static boolean resetForReuse(Connection connection) {
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            connection.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /*
+     * Moves connections idle for longer than the idle timeout to the given list,
+     * oldest first, as long as more than minSize connections are open. Called with the lock held.
+     */
+    private void collectIdle(List<PooledConnection> evicted) {
+        long limit = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(maxIdleMillis);
+        Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+        while (oldestFirst.hasNext() && idle.size() + active.size() + opening > minSize) {
+            PooledConnection candidate = oldestFirst.next();
+            if (candidate.lastReturned - limit > 0) {
+                break;
+            }
+            oldestFirst.remove();
+            evicted.add(candidate);
+        }
+    }
+
+    /**
+     * Reports connections held for longer than the leak threshold, each one once,
+     * with the stack trace of the code that borrowed it
+     */
+    public void checkLeaks() {
+        long threshold = leakThresholdMillis;
+        if (threshold <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            for (PooledConnection pooled : active) {
+                long heldMillis = TimeUnit.NANOSECONDS.toMillis(now - pooled.borrowedAt);
+                if (!pooled.leakReported && pooled.borrower != null && heldMillis > threshold) {
+                    pooled.leakReported = true;
+                    leaks++;
+                    Environment.logError("Possible connection leak: connection of pool " + name
+                            + " held for " + heldMillis + " ms", pooled.borrower);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the idle connections that exceeded the idle timeout
+     */
+    public void evictIdle() {
+        List<PooledConnection> evicted = new ArrayList<>();
+        lock.lock();
+        try {
+            collectIdle(evicted);
+        } finally {
+            lock.unlock();
+        }
+        destroy(evicted);
+    }
+
+    private void destroy(List<PooledConnection> connections) {
+        if (connections.isEmpty()) {
+            return;
+        }
+        for (PooledConnection pooled : connections) {
+            try {
+                pooled.connection.close();
+            } catch (SQLException e) {
+                Environment.logError(e);
+            }
+        }
+        lock.lock();
+        try {
+            destroyed += connections.size();
+        } finally {
+            lock.unlock();
+        }
+        connections.clear();
+    }
+
+    /**
+     * @return a snapshot of the pool counters
+     */
+    public JDBCPoolMetrics getMetrics() {
+        lock.lock();
+        try {
+            return new JDBCPoolMetrics(active.size(), idle.size(), created, destroyed, borrowed, timeouts,
+                    validationFailures, leaks, totalWaitNanos, maxWaitNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the idle connections and rejects further borrows. Borrowed connections are
+     * closed when they are returned.
+     */
+    @Override
+    public void close() {
+        List<PooledConnection> evicted;
+        lock.lock();
+        try {
+            closed = true;
+            evicted = new ArrayList<>(idle);
+            idle.clear();
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        destroy(evicted);
+    }
+
+    /**
+     * The connection handed to a borrower. After close() the handle is detached,
+     * so a stale reference cannot use a connection that was lent to someone else.
+     */
+    private final class Lease implements InvocationHandler {
+        private volatile PooledConnection pooled;
+
+        private Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            PooledConnection current = pooled;
+            switch (method.getName()) {
+                case "close":
+                    PooledConnection returned;
+                    synchronized (this) {
+                        returned = pooled;
+                        pooled = null;
+                    }
+                    if (returned != null) {
+                        release(returned);
+                    }
+                    return null;
+                case "isClosed":
+                    if (current == null) {
+                        return true;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled connection of " + name + (current == null ? " (returned)" : "");
+                default:
+                    break;
+            }
+            if (current == null) {
+                throw new SQLException("Connection has already been returned to pool " + name);
+            }
+            try {
+                return method.invoke(current.connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
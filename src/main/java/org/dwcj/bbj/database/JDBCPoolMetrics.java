@@ -0,0 +1,101 @@
+package org.dwcj.bbj.database;
+
+/**
+ * Snapshot of the counters of a JDBCConnectionPool
+ */
+public final class JDBCPoolMetrics {
+
+    private final int active;
+    private final int idle;
+    private final long created;
+    private final long destroyed;
+    private final long borrowed;
+    private final long timeouts;
+    private final long validationFailures;
+    private final long leaks;
+    private final long totalWaitNanos;
+    private final long maxWaitNanos;
+
+    JDBCPoolMetrics(int active, int idle, long created, long destroyed, long borrowed, long timeouts,
+                    long validationFailures, long leaks, long totalWaitNanos, long maxWaitNanos) {
+        this.active = active;
+        this.idle = idle;
+        this.created = created;
+        this.destroyed = destroyed;
+        this.borrowed = borrowed;
+        this.timeouts = timeouts;
+        this.validationFailures = validationFailures;
+        this.leaks = leaks;
+        this.totalWaitNanos = totalWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+    }
+
+    /**
+     * @return the number of connections currently borrowed
+     */
+    public int getActive() {
+        return active;
+    }
+
+    /**
+     * @return the number of open connections waiting in the pool
+     */
+    public int getIdle() {
+        return idle;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public long getDestroyed() {
+        return destroyed;
+    }
+
+    /**
+     * @return the number of successful borrows
+     */
+    public long getBorrowed() {
+        return borrowed;
+    }
+
+    /**
+     * @return the number of borrows that gave up waiting for a free connection
+     */
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    public long getValidationFailures() {
+        return validationFailures;
+    }
+
+    /**
+     * @return the number of connections reported as held longer than the leak threshold
+     */
+    public long getLeaks() {
+        return leaks;
+    }
+
+    /**
+     * @return the average time a successful borrow waited, in milliseconds
+     */
+    public double getAverageWaitMillis() {
+        return borrowed == 0 ? 0 : totalWaitNanos / 1_000_000.0 / borrowed;
+    }
+
+    /**
+     * @return the longest time a successful borrow waited, in milliseconds
+     */
+    public double getMaxWaitMillis() {
+        return maxWaitNanos / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return "JDBCPoolMetrics{active=" + active + ", idle=" + idle + ", created=" + created
+                + ", destroyed=" + destroyed + ", borrowed=" + borrowed + ", timeouts=" + timeouts
+                + ", validationFailures=" + validationFailures + ", leaks=" + leaks
+                + ", averageWaitMillis=" + getAverageWaitMillis() + ", maxWaitMillis=" + getMaxWaitMillis() + "}";
+    }
+}
@@ -0,0 +1,293 @@
+package org.dwcj.bbj.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of query results, keyed by database, SQL text and bound parameters and shared by
+ * all sessions in the JVM. Entries expire after a fixed time to live, and the least recently
+ * used entry is dropped once the cache is full. Each entry carries the names of the tables
+ * it was read from, invalidate(table) drops all entries that depend on a table.
+ *
+ * A query runs outside the lock of the cache. If one of its tables is invalidated while it
+ * runs, its result may predate the change, it is returned to the caller but not cached.
+ *
+ * Queries are executed on a connection borrowed from the pool of the database,
+ * see JDBCConnection.getPooledConnection.
+ */
+public final class QueryCache {
+
+    private static final int DEFAULT_MAX_ENTRIES = 1000;
+    private static final long DEFAULT_TTL_MILLIS = 300_000;
+
+    private static final QueryCache defaultCache = new QueryCache(DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MILLIS);
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<Key, Entry> entries;
+    private final Map<String, Set<Key>> keysByTable = new HashMap<>();
+    // counts the invalidations of each table, only tables that were invalidated are present
+    private final Map<String, Long> tableGenerations = new HashMap<>();
+    // counts the calls of invalidateDatabase and clear
+    private long generation = 0;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private static final class Key {
+        private final String database;
+        private final String sql;
+        private final List<Object> params;
+        private final int hash;
+
+        private Key(String database, String sql, Object[] params) {
+            this.database = database;
+            this.sql = sql;
+            this.params = params == null ? Collections.emptyList() : Arrays.asList(params.clone());
+            this.hash = Objects.hash(database, sql, this.params);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && database.equals(other.database) && sql.equals(other.sql)
+                    && params.equals(other.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        private final QueryResult result;
+        private final long expiresAt;
+        private final String[] tables;
+
+        private Entry(QueryResult result, long expiresAt, String[] tables) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+            this.tables = tables;
+        }
+    }
+
+    /**
+     * @param maxEntries the maximum number of cached results
+     * @param ttlMillis how long a result is served from the cache
+     */
+    public QueryCache(int maxEntries, long ttlMillis) {
+        if (maxEntries < 1 || ttlMillis < 1) {
+            throw new IllegalArgumentException("maxEntries and ttlMillis must be at least 1");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * @return the cache shared by all sessions in the JVM
+     */
+    public static QueryCache getDefault() {
+        return defaultCache;
+    }
+
+    /**
+     * Returns the result of a query from the cache, or executes it and caches the result
+     *
+     * @param database the name of the database
+     * @param sql the SQL text, with ? placeholders for the parameters
+     * @param params the parameters, bound in order
+     * @param tables the tables the result depends on, used by invalidate(table)
+     * @return the result
+     * @throws SQLException if the query fails
+     */
+    public QueryResult query(String database, String sql, Object[] params, String... tables) throws SQLException {
+        Key key = new Key(database, sql, params);
+        QueryResult cached = lookup(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        String[] normalized = new String[tables.length];
+        for (int i = 0; i < tables.length; i++) {
+            normalized[i] = normalize(tables[i]);
+        }
+        long before = generation(normalized);
+        QueryResult result = execute(database, sql, params);
+        store(key, result, normalized, before);
+        return result;
+    }
+
+    /**
+     * @param database the name of the database
+     * @param sql the SQL text
+     * @param tables the tables the result depends on, used by invalidate(table)
+     * @return the result
+     * @throws SQLException if the query fails
+     */
+    public QueryResult query(String database, String sql, String... tables) throws SQLException {
+        return query(database, sql, null, tables);
+    }
+
+    private static QueryResult execute(String database, String sql, Object[] params) throws SQLException {
+        try (Connection connection = JDBCConnection.getPooledConnection(database);
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            if (params != null) {
+                for (int i = 0; i < params.length; i++) {
+                    statement.setObject(i + 1, params[i]);
+                }
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                return QueryResult.of(rs);
+            }
+        }
+    }
+
+    private synchronized QueryResult lookup(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAt >= 0) {
+            remove(key);
+            return null;
+        }
+        return entry.result;
+    }
+
+    /*
+     * The sum of the invalidation counters that concern the tables. The counters only grow,
+     * so the sum changes whenever one of the tables, or the whole cache, was invalidated.
+     */
+    private synchronized long generation(String[] tables) {
+        long sum = generation;
+        for (String table : tables) {
+            sum += tableGenerations.getOrDefault(table, 0L);
+        }
+        return sum;
+    }
+
+    /*
+     * Caches the result, unless one of its tables was invalidated since the query started
+     */
+    private synchronized void store(Key key, QueryResult result, String[] tables, long before) {
+        if (generation(tables) != before) {
+            return;
+        }
+        remove(key);
+        entries.put(key, new Entry(result, System.nanoTime() + ttlNanos, tables));
+        for (String table : tables) {
+            keysByTable.computeIfAbsent(table, t -> new HashSet<>()).add(key);
+        }
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            Map.Entry<Key, Entry> next = eldest.next();
+            eldest.remove();
+            untag(next.getKey(), next.getValue());
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void remove(Key key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            untag(key, entry);
+        }
+    }
+
+    private void untag(Key key, Entry entry) {
+        for (String table : entry.tables) {
+            Set<Key> keys = keysByTable.get(table);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    keysByTable.remove(table);
+                }
+            }
+        }
+    }
+
+    private static String normalize(String table) {
+        return table.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Drops all cached results that depend on the table, call it after the table was modified
+     *
+     * @param table the name of the table, not case sensitive
+     */
+    public synchronized void invalidate(String table) {
+        String normalized = normalize(table);
+        tableGenerations.merge(normalized, 1L, Long::sum);
+        Set<Key> keys = keysByTable.remove(normalized);
+        if (keys != null) {
+            for (Key key : new ArrayList<>(keys)) {
+                remove(key);
+            }
+        }
+    }
+
+    /**
+     * Drops all cached results of a database
+     *
+     * @param database the name of the database
+     */
+    public synchronized void invalidateDatabase(String database) {
+        generation++;
+        for (Key key : new ArrayList<>(entries.keySet())) {
+            if (key.database.equals(database)) {
+                remove(key);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+        keysByTable.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of results dropped because the cache was full
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+}
@@ -0,0 +1,186 @@
+package org.dwcj.bbj.database;
+
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.Struct;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of a query result. The values are held in one array per row,
+ * the column labels once for the whole result, so a snapshot can be cached and shared
+ * by all sessions.
+ *
+ * Values that are mutable or tied to the connection are converted when the rows are read:
+ * dates and times become java.time values (DATE to LocalDate, TIME to LocalTime, TIMESTAMP
+ * to LocalDateTime, other java.util.Date values to Instant), BLOBs are read into byte arrays
+ * and CLOBs into strings. Byte arrays are copied in and out. ARRAY, REF, STRUCT and ROWID
+ * values are rejected.
+ */
+public final class QueryResult {
+
+    private final String[] labels;
+    private final Map<String, Integer> columns;
+    private final Object[][] rows;
+
+    private QueryResult(String[] labels, Object[][] rows) {
+        this.labels = labels;
+        this.rows = rows;
+        Map<String, Integer> byLabel = new HashMap<>();
+        for (int i = labels.length - 1; i >= 0; i--) {
+            byLabel.put(labels[i], i);
+        }
+        this.columns = byLabel;
+    }
+
+    /**
+     * Reads the remaining rows of a JDBC result set
+     *
+     * @param rs the result set, it is not closed
+     * @return the snapshot
+     * @throws SQLException if the result set cannot be read
+     */
+    public static QueryResult of(ResultSet rs) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int count = meta.getColumnCount();
+        String[] labels = new String[count];
+        for (int i = 0; i < count; i++) {
+            labels[i] = meta.getColumnLabel(i + 1);
+        }
+        Object[][] rows = new Object[16][];
+        int size = 0;
+        while (rs.next()) {
+            Object[] row = new Object[count];
+            for (int i = 0; i < count; i++) {
+                row[i] = toValue(rs.getObject(i + 1), labels[i]);
+            }
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+        return new QueryResult(labels, Arrays.copyOf(rows, size));
+    }
+
+    private static Object toValue(Object value, String label) throws SQLException {
+        if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean) {
+            return value;
+        }
+        if (value instanceof byte[]) {
+            return ((byte[]) value).clone();
+        }
+        if (value instanceof java.sql.Timestamp) {
+            return ((java.sql.Timestamp) value).toLocalDateTime();
+        }
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate();
+        }
+        if (value instanceof java.sql.Time) {
+            return ((java.sql.Time) value).toLocalTime();
+        }
+        if (value instanceof java.util.Date) {
+            return ((java.util.Date) value).toInstant();
+        }
+        if (value instanceof Blob) {
+            Blob blob = (Blob) value;
+            try {
+                return blob.getBytes(1, toLength(blob.length(), label));
+            } finally {
+                blob.free();
+            }
+        }
+        if (value instanceof Clob) {
+            Clob clob = (Clob) value;
+            try {
+                return clob.getSubString(1, toLength(clob.length(), label));
+            } finally {
+                clob.free();
+            }
+        }
+        if (value instanceof java.sql.Array || value instanceof Ref || value instanceof Struct || value instanceof RowId) {
+            throw new SQLException("Column " + label + " holds a " + value.getClass().getName()
+                    + ", which cannot be kept in a query result");
+        }
+        return value;
+    }
+
+    private static int toLength(long length, String label) throws SQLException {
+        if (length > Integer.MAX_VALUE) {
+            throw new SQLException("Column " + label + " holds a LOB of " + length + " bytes, too large for a query result");
+        }
+        return (int) length;
+    }
+
+    public int getColumnCount() {
+        return labels.length;
+    }
+
+    public String getColumnLabel(int column) {
+        return labels[column];
+    }
+
+    /**
+     * @param label the label of a column
+     * @return the position of the column, or -1 if there is no such column
+     */
+    public int getColumnIndex(String label) {
+        Integer index = columns.get(label);
+        return index == null ? -1 : index;
+    }
+
+    public int getRowCount() {
+        return rows.length;
+    }
+
+    /**
+     * @param row the position of the row
+     * @param column the position of the column
+     * @return the value, a byte array is returned as a copy
+     */
+    public Object getValue(int row, int column) {
+        Object value = rows[row][column];
+        return value instanceof byte[] ? ((byte[]) value).clone() : value;
+    }
+
+    /**
+     * @param row the position of the row
+     * @param label the label of the column
+     * @return the value, a byte array is returned as a copy
+     */
+    public Object getValue(int row, String label) {
+        return getValue(row, requireColumn(label));
+    }
+
+    /**
+     * Maps two columns to list items, as used to fill a ListBox or ComboBox
+     *
+     * @param keyColumn the label of the column holding the item keys
+     * @param textColumn the label of the column holding the item texts
+     * @return the items in row order
+     */
+    public Map<Object, String> toItemMap(String keyColumn, String textColumn) {
+        int key = requireColumn(keyColumn);
+        int text = requireColumn(textColumn);
+        Map<Object, String> items = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            items.put(row[key], row[text] == null ? "" : row[text].toString());
+        }
+        return Collections.unmodifiableMap(items);
+    }
+
+    private int requireColumn(String label) {
+        int index = getColumnIndex(label);
+        if (index < 0) {
+            throw new IllegalArgumentException("No column " + label + " in the query result");
+        }
+        return index;
+    }
+}
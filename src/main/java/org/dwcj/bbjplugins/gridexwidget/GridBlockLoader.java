@@ -0,0 +1,72 @@
+package org.dwcj.bbjplugins.gridexwidget;
+
+import com.basiscomponents.db.DataRow;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads a GridRowSource in blocks of a fixed size. The blocks are handed to the grid and not
+ * kept, once appended the rows only live on the client.
+ */
+final class GridBlockLoader {
+
+    private final GridRowSource source;
+    private final int blockSize;
+    private int blockCount = 0;
+    private int rowCount = 0;
+    private boolean exhausted = false;
+
+    GridBlockLoader(GridRowSource source, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be at least 1");
+        }
+        this.source = source;
+        this.blockSize = blockSize;
+    }
+
+    boolean hasMore() {
+        return !exhausted;
+    }
+
+    /**
+     * @return the number of blocks read so far
+     */
+    int getBlockCount() {
+        return blockCount;
+    }
+
+    /**
+     * @return the number of rows read so far
+     */
+    int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Reads the next block from the source, the source is closed once it runs dry
+     *
+     * @return the rows of the block, empty if the source is exhausted
+     */
+    List<DataRow> next() {
+        if (exhausted) {
+            return Collections.emptyList();
+        }
+        List<DataRow> rows = source.nextRows(blockSize);
+        if (rows.size() < blockSize) {
+            close();
+        }
+        if (!rows.isEmpty()) {
+            blockCount++;
+            rowCount += rows.size();
+        }
+        return rows;
+    }
+
+    void close() {
+        if (!exhausted) {
+            exhausted = true;
+            source.close();
+        }
+    }
+}
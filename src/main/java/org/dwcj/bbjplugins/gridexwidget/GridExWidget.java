@@ -7,6 +7,7 @@ import com.basiscomponents.db.DataRow;
 import com.basiscomponents.db.ResultSet;
 import org.dwcj.App;
 import org.dwcj.Environment;
+import org.dwcj.bbj.database.QueryResult;
 import org.dwcj.bbjplugins.gridexwidget.events.GridExWidgetSelectEvent;
 import org.dwcj.bbjplugins.gridexwidget.sinks.GridExWidgetSelectEventSink;
 import org.dwcj.bridge.PanelAccessor;
@@ -14,12 +15,41 @@ import org.dwcj.controls.AbstractDwcControl;
 import org.dwcj.controls.panels.AbstractDwcjPanel;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
 
 @SuppressWarnings("java:S3740")
 public final class GridExWidget extends AbstractDwcControl {
 
+    private static final String BRIDGE_CLASS = "::BBjGridExWidgetBridge.bbj::BBjGridExWidgetBridge";
+
+    private static final String PROP_ROWS = "rows";
+    private static final int DEFAULT_BLOCK_SIZE = 500;
+
+    // the kinds of row changes, in the order a transaction applies them
+    private static final int REMOVE = 0;
+    private static final int UPDATE = 1;
+    private static final int ADD = 2;
+
+    private GridExWidgetBridge bridge;
+    // calls made before the widget was created, replayed by catchUp()
+    private final ArrayList<Consumer<GridExWidgetBridge>> bridgeCalls = new ArrayList<>();
+    private GridBlockLoader blockLoader;
+    /*
+     * row changes not sent yet, in the order they were made. A change joins the last
+     * transaction unless that one holds a change which it applies later, then a new
+     * transaction is started, so the client sees the changes in call order
+     */
+    private final ArrayList<GridTransaction> pendingRows = new ArrayList<>();
+    // the pending additions by row instance, with the transaction that adds the row
+    private final Map<DataRow, GridTransaction> pendingAdds = new IdentityHashMap<>();
+    // rows with pending changes besides a single addition, removeRow looks for them in all transactions
+    private final Set<DataRow> pendingUpdates = Collections.newSetFromMap(new IdentityHashMap<>());
+
     @Override
     protected void create(AbstractDwcjPanel p) {
 
@@ -30,42 +60,168 @@ public final class GridExWidget extends AbstractDwcControl {
             //todo: honor visibility flag, if set before adding the control to the form, so it's created invisibly right away
             BBjChildWindow cw = w.addChildWindow(w.getAvailableControlID(), BASISNUMBER_1, BASISNUMBER_1, BASISNUMBER_1, BASISNUMBER_1, "", flags, Environment.getInstance().getSysGui().getAvailableContext());
             super.ctrl = Environment.getInstance().getDwcjHelper().createWidget("::BBjGridExWidget/BBjGridExWidget.bbj::BBjGridExWidget", cw);
+            this.bridge = createBridge();
             catchUp();
+            if (blockLoader != null) {
+                sendFirstBlock();
+            }
+            sendRowChanges();
         } catch (Exception e) {
             Environment.logError(e);
             App.consoleLog(e.getMessage());
         }
     }
 
+    /**
+     * Creates the typed call path into the widget. The BBj side class is instantiated once
+     * per grid, installations that do not ship it fall back to IDwcjBBjBridge.invokeMethod.
+     */
+    private GridExWidgetBridge createBridge() {
+        GridExWidgetBridge result = null;
+        try {
+            Object instance = Environment.getInstance().getDwcjHelper().createInstance(BRIDGE_CLASS);
+            if (instance instanceof GridExWidgetBridge) {
+                result = (GridExWidgetBridge) instance;
+            }
+        } catch (Exception e) {
+            App.consoleLog("GridExWidget: " + BRIDGE_CLASS + " not available, using invokeMethod");
+        }
+        if (result == null) {
+            result = new InvokeMethodGridExWidgetBridge();
+        }
+        result.bind(ctrl);
+        return result;
+    }
+
     /**
      * @param rs - a com.basiscomponents.db.ResultSet holding the data to display in the grid
      * @return the widget itself
      */
     public GridExWidget setData(ResultSet rs) {
-        ArrayList args = new ArrayList();
-        args.add(rs);
-        Environment.getInstance().getDwcjHelper().invokeMethod(ctrl, "setData", args);
+        closeRowSource();
+        callBridge(b -> b.setData(rs));
         return this;
     }
 
+    /**
+     * @param result a query result, for example one served by the QueryCache. If it cannot
+     *               be converted, the error is logged and the grid keeps its data
+     * @return the widget itself
+     */
+    public GridExWidget setData(QueryResult result) {
+        ResultSet rs;
+        try {
+            List<DataRow> rows = new ArrayList<>(result.getRowCount());
+            for (int row = 0; row < result.getRowCount(); row++) {
+                DataRow dr = new DataRow();
+                for (int column = 0; column < result.getColumnCount(); column++) {
+                    dr.setFieldValue(result.getColumnLabel(column), result.getValue(row, column));
+                }
+                rows.add(dr);
+            }
+            rs = toResultSet(rows);
+        } catch (Exception e) {
+            Environment.logError("The query result could not be converted, the grid data was not changed", e);
+            return this;
+        }
+        return setData(rs);
+    }
+
     public GridExWidget setData(ResultSet rs, int render, Boolean addAll) {
-        ArrayList args = new ArrayList();
-        args.add(rs);
-        args.add(render);
-        args.add(addAll);
+        closeRowSource();
+        callBridge(b -> b.setData(rs, render, addAll));
+        return this;
+    }
 
-        Environment.getInstance().getDwcjHelper().invokeMethod(ctrl, "setData", args);
+    /**
+     * Loads the grid from a row source in blocks instead of handing over the complete result.
+     * The first block is sent right away, further blocks are appended with loadNextBlock().
+     *
+     * @param source the rows to display
+     * @return the widget itself
+     */
+    public GridExWidget setRowSource(GridRowSource source) {
+        return setRowSource(source, DEFAULT_BLOCK_SIZE);
+    }
 
+    /**
+     * @param source the rows to display
+     * @param blockSize the number of rows read from the source and sent to the client at a time
+     * @return the widget itself
+     */
+    public GridExWidget setRowSource(GridRowSource source, int blockSize) {
+        closeRowSource();
+        blockLoader = new GridBlockLoader(source, blockSize);
+        if (bridge != null) {
+            sendFirstBlock();
+        }
         return this;
     }
 
-    public BBjVector getSelectedRows() {
-        BBjVector rows = null;
+    /**
+     * Appends the next block of the row source to the grid. The plug-in does not report
+     * scrolling to the Java side, so blocks are not fetched on scroll: the application
+     * decides when to load more, for example from a button or when a row near
+     * getLoadedRowCount() is selected. The grid keeps every row appended to it, no rows are
+     * held on the Java side.
+     *
+     * @return the number of rows appended, 0 once the source is exhausted
+     */
+    public int loadNextBlock() {
+        if (blockLoader == null || bridge == null || !blockLoader.hasMore()) {
+            return 0;
+        }
+        sendRowChanges();
+        List<DataRow> rows = blockLoader.next();
+        if (!rows.isEmpty()) {
+            bridge.addRows(toResultSet(rows));
+        }
+        return rows.size();
+    }
+
+    /**
+     * @return true if the row source has rows that were not loaded into the grid yet
+     */
+    public boolean hasMoreRows() {
+        return blockLoader != null && blockLoader.hasMore();
+    }
+
+    /**
+     * @return the number of rows loaded from the row source so far, 0 without a row source
+     */
+    public int getLoadedRowCount() {
+        return blockLoader == null ? 0 : blockLoader.getRowCount();
+    }
+
+    private void closeRowSource() {
+        clearPendingRows();
+        if (blockLoader != null) {
+            blockLoader.close();
+            blockLoader = null;
+        }
+    }
+
+    private void sendFirstBlock() {
+        bridge.setData(toResultSet(blockLoader.next()));
+    }
 
-        Object object = Environment.getInstance().getDwcjHelper().invokeMethod(ctrl, "getSelectedRows", null);
-        if (object != null) rows = (BBjVector) object;
+    private static ResultSet toResultSet(List<DataRow> rows) {
+        ResultSet rs = new ResultSet();
+        for (DataRow row : rows) {
+            rs.add(row);
+        }
+        return rs;
+    }
 
-        return rows;
+    /**
+     * @return the selected rows, an empty vector before the widget is created
+     */
+    public BBjVector getSelectedRows() {
+        if (bridge == null) {
+            return new BBjVector();
+        }
+        sendRowChanges();
+        return bridge.getSelectedRows();
     }
 
     public DataRow getSelectedRow() {
@@ -73,26 +229,31 @@ public final class GridExWidget extends AbstractDwcControl {
 
         BBjVector rows = getSelectedRows();
         if (rows != null && rows.size() > 0) {
-            Object row = rows.get(0);
-
-            Object rowAsDataRow = Environment.getInstance().getDwcjHelper().invokeMethod(row, "asDataRow", null);
-            if (rowAsDataRow != null) dr = (DataRow) rowAsDataRow;
+            dr = bridge.asDataRow(rows.get(0));
         }
 
         return dr;
     }
 
     public void deselectAll() {
-        Environment.getInstance().getDwcjHelper().invokeMethod(ctrl, "deselectAll", null);
+        if (bridge != null) {
+            bridge.deselectAll();
+        }
     }
 
+    /**
+     * @param field the field of the rows shown in the column
+     * @param label the column header
+     * @param type the column type
+     * @return the column definition of the plug-in, null if the widget is not created yet,
+     * the column is then added when it is
+     */
     public Object addColumn(String field, String label, int type) {
-        ArrayList args = new ArrayList();
-        args.add(field);
-        args.add(label);
-        args.add(type);
-
-        return Environment.getInstance().getDwcjHelper().invokeMethod(ctrl, "addColumn", args);
+        if (bridge == null) {
+            bridgeCalls.add(b -> b.addColumn(field, label, type));
+            return null;
+        }
+        return bridge.addColumn(field, label, type);
     }
 
     public Object addColumnGroup(String id, String label, List<String> columns, Boolean marryChildren, String cssClass) {
@@ -101,43 +262,198 @@ public final class GridExWidget extends AbstractDwcControl {
             vector.addItem(column);
         }
 
-        ArrayList args = new ArrayList();
-        args.add(id);
-        args.add(label);
-        args.add(vector);
-        args.add(marryChildren);
-        args.add(cssClass);
-
-        return Environment.getInstance().getDwcjHelper().invokeMethod(ctrl, "addColumnGroup", args);
+        if (bridge == null) {
+            bridgeCalls.add(b -> b.addColumnGroup(id, label, vector, marryChildren, cssClass));
+            return null;
+        }
+        return bridge.addColumnGroup(id, label, vector, marryChildren, cssClass);
     }
 
+    /**
+     * Adds a row. Row changes made while an event is being handled are collected and
+     * sent to the client when the dispatch ends, changes made before the widget is
+     * created are sent when it is.
+     *
+     * @param row the row to add
+     * @return null, the row methods of the plug-in do not return a value
+     */
     public Object addRow(DataRow row) {
-        ArrayList args = new ArrayList();
-        args.add(row);
-
-        return Environment.getInstance().getDwcjHelper().invokeMethod(ctrl, "addRow", args);
+        GridTransaction transaction = pendingTransaction(ADD);
+        transaction.add(row);
+        trackAdd(row, transaction);
+        writeProperty(PROP_ROWS, c -> sendRowChanges());
+        return null;
     }
 
+    /**
+     * @param row the row to update, identified by its row key
+     * @return null, the row methods of the plug-in do not return a value
+     */
     public Object updateRow(DataRow row) {
-        ArrayList args = new ArrayList();
-        args.add(row);
-
-        return Environment.getInstance().getDwcjHelper().invokeMethod(ctrl, "updateRow", args);
+        // a row that is still to be added is sent with its current values anyway
+        if (!pendingAdds.containsKey(row)) {
+            pendingTransaction(UPDATE).update(row);
+            pendingUpdates.add(row);
+            writeProperty(PROP_ROWS, c -> sendRowChanges());
+        }
+        return null;
     }
 
+    /**
+     * @param row the row to remove, identified by its row key
+     * @return null, the row methods of the plug-in do not return a value
+     */
     public Object removeRow(DataRow row) {
-        ArrayList args = new ArrayList();
-        args.add(row);
+        GridTransaction adding = pendingAdds.remove(row);
+        if (adding != null) {
+            adding.discard(row);
+        }
+        if (pendingUpdates.remove(row)) {
+            for (GridTransaction transaction : pendingRows) {
+                transaction.discard(row);
+            }
+        }
+        if (adding == null) {
+            pendingTransaction(REMOVE).remove(row);
+            writeProperty(PROP_ROWS, c -> sendRowChanges());
+        }
+        // else the row never reached the client
+        return null;
+    }
+
+    /**
+     * Adds rows to the grid with a single call to the client
+     *
+     * @param rows the rows to add
+     * @return the widget itself
+     */
+    public GridExWidget addRows(List<DataRow> rows) {
+        return applyTransaction(new GridTransaction().add(rows));
+    }
+
+    /**
+     * Updates rows of the grid with a single call to the client
+     *
+     * @param rows the rows to update
+     * @return the widget itself
+     */
+    public GridExWidget updateRows(List<DataRow> rows) {
+        return applyTransaction(new GridTransaction().update(rows));
+    }
+
+    /**
+     * Removes rows from the grid with a single call to the client
+     *
+     * @param rows the rows to remove
+     * @return the widget itself
+     */
+    public GridExWidget removeRows(List<DataRow> rows) {
+        return applyTransaction(new GridTransaction().remove(rows));
+    }
+
+    /**
+     * Applies removals, updates and additions with a single call into BBj. The plug-in
+     * applies each of the three kinds as a client transaction of its own. Row changes
+     * made before are sent first.
+     *
+     * @param transaction the row changes
+     * @return the widget itself
+     */
+    public GridExWidget applyTransaction(GridTransaction transaction) {
+        GridTransaction copy = new GridTransaction()
+                .add(transaction.getAdded())
+                .update(transaction.getUpdated())
+                .remove(transaction.getRemoved());
+        if (bridge == null) {
+            pendingRows.add(copy);
+            for (DataRow row : copy.getAdded()) {
+                trackAdd(row, copy);
+            }
+            pendingUpdates.addAll(copy.getUpdated());
+            return this;
+        }
+        sendRowChanges();
+        sendTransaction(copy);
+        return this;
+    }
+
+    /**
+     * @param kind the kind of the change, REMOVE, UPDATE or ADD
+     * @return the pending transaction the change can join without being applied
+     * before a change that was made earlier
+     */
+    private GridTransaction pendingTransaction(int kind) {
+        GridTransaction last = pendingRows.isEmpty() ? null : pendingRows.get(pendingRows.size() - 1);
+        if (last == null
+                || (kind < ADD && !last.getAdded().isEmpty())
+                || (kind < UPDATE && !last.getUpdated().isEmpty())) {
+            last = new GridTransaction();
+            pendingRows.add(last);
+        }
+        return last;
+    }
+
+    private void trackAdd(DataRow row, GridTransaction transaction) {
+        GridTransaction previous = pendingAdds.put(row, transaction);
+        if (previous != null) {
+            // added more than once, removeRow drops all of the additions
+            pendingUpdates.add(row);
+        }
+    }
+
+    private void clearPendingRows() {
+        pendingRows.clear();
+        pendingAdds.clear();
+        pendingUpdates.clear();
+    }
+
+    /**
+     * Sends the pending row changes, they are kept until the widget is created
+     */
+    private void sendRowChanges() {
+        if (bridge == null) {
+            return;
+        }
+        if (pendingRows.isEmpty()) {
+            return;
+        }
+        List<GridTransaction> transactions = new ArrayList<>(pendingRows);
+        clearPendingRows();
+        for (GridTransaction transaction : transactions) {
+            sendTransaction(transaction);
+        }
+    }
 
-        return Environment.getInstance().getDwcjHelper().invokeMethod(ctrl, "removeRow", args);
+    private void sendTransaction(GridTransaction transaction) {
+        if (transaction.isEmpty()) {
+            return;
+        }
+        bridge.applyTransaction(toResultSetOrNull(transaction.getAdded()),
+                toResultSetOrNull(transaction.getUpdated()),
+                toResultSetOrNull(transaction.getRemoved()));
+    }
+
+    private static ResultSet toResultSetOrNull(List<DataRow> rows) {
+        return rows.isEmpty() ? null : toResultSet(rows);
     }
 
     public void setFitToGrid() {
-        Environment.getInstance().getDwcjHelper().invokeMethod(ctrl, "setFitToGrid", null);
+        callBridge(GridExWidgetBridge::setFitToGrid);
     }
 
     public void autoSizeColumns() {
-        Environment.getInstance().getDwcjHelper().invokeMethod(ctrl, "autoSizeColumns", null);
+        callBridge(GridExWidgetBridge::autoSizeColumns);
+    }
+
+    /**
+     * Call the plug-in, or keep the call until the widget is created
+     */
+    private void callBridge(Consumer<GridExWidgetBridge> call) {
+        if (bridge == null) {
+            bridgeCalls.add(call);
+        } else {
+            call.accept(bridge);
+        }
     }
 
     /**
@@ -151,6 +467,17 @@ public final class GridExWidget extends AbstractDwcControl {
         return this;
     }
 
+    @Override
+    protected void catchUp() throws IllegalAccessException {
+        if (Boolean.TRUE.equals(this.getCaughtUp())) throw new IllegalAccessException("catchUp cannot be called twice");
+
+        super.catchUp();
+
+        while (!this.bridgeCalls.isEmpty()) {
+            this.bridgeCalls.remove(0).accept(this.bridge);
+        }
+    }
+
     @Override
     public GridExWidget setText(String text) {
         super.setText(text);
@@ -0,0 +1,63 @@
+package org.dwcj.bbjplugins.gridexwidget;
+
+import com.basis.startup.type.BBjVector;
+import com.basiscomponents.db.DataRow;
+import com.basiscomponents.db.ResultSet;
+
+/**
+ * Typed call path into the BBjGridExWidget plug-in. It is implemented on the BBj side by
+ * ::BBjGridExWidgetBridge.bbj::BBjGridExWidgetBridge, which holds the widget in a typed field,
+ * so each call is compiled once with the class instead of being assembled as source text and
+ * evaluated on every invocation.
+ */
+@SuppressWarnings("java:S3740")
+public interface GridExWidgetBridge {
+
+    /**
+     * @param widget the BBjGridExWidget instance the calls are made on
+     */
+    void bind(Object widget);
+
+    void setData(ResultSet rs);
+
+    void setData(ResultSet rs, int render, Boolean addAll);
+
+    /**
+     * @param rs rows to append to the data already in the grid
+     */
+    void addRows(ResultSet rs);
+
+    BBjVector getSelectedRows();
+
+    /**
+     * @param row a row model as returned in getSelectedRows()
+     * @return the row as DataRow
+     */
+    DataRow asDataRow(Object row);
+
+    void deselectAll();
+
+    Object addColumn(String field, String label, int type);
+
+    Object addColumnGroup(String id, String label, BBjVector columns, Boolean marryChildren, String cssClass);
+
+    void addRow(DataRow row);
+
+    void updateRow(DataRow row);
+
+    void removeRow(DataRow row);
+
+    /**
+     * Applies row changes in one call, removals first, then updates, then additions.
+     * Each of the three is a client transaction of the plug-in.
+     *
+     * @param added rows to add, or null
+     * @param updated rows to update, or null
+     * @param removed rows to remove, or null
+     */
+    void applyTransaction(ResultSet added, ResultSet updated, ResultSet removed);
+
+    void setFitToGrid();
+
+    void autoSizeColumns();
+}
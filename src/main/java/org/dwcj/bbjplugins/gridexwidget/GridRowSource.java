@@ -0,0 +1,105 @@
+package org.dwcj.bbjplugins.gridexwidget;
+
+import com.basiscomponents.db.DataRow;
+import org.dwcj.exceptions.DwcRuntimeException;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Supplies the rows of a GridExWidget block by block, so a large result does not have to be
+ * materialized before the first rows are shown. Rows are read strictly forward.
+ */
+@FunctionalInterface
+public interface GridRowSource extends AutoCloseable {
+
+    /**
+     * @param max the maximum number of rows to return
+     * @return the next rows, fewer than max (possibly none) once the source is exhausted
+     */
+    List<DataRow> nextRows(int max);
+
+    /**
+     * Releases the underlying resources, called once the grid no longer reads from the source
+     */
+    @Override
+    default void close() {
+    }
+
+    /**
+     * @param rows an iterator over the rows
+     * @return a source reading from the iterator
+     */
+    static GridRowSource of(Iterator<DataRow> rows) {
+        return max -> {
+            List<DataRow> result = new ArrayList<>(max);
+            while (result.size() < max && rows.hasNext()) {
+                result.add(rows.next());
+            }
+            return result;
+        };
+    }
+
+    /**
+     * Reads the rows of a JDBC result set. Each row becomes a DataRow with one field per
+     * column, named after the column label. The result set is closed with the source.
+     *
+     * @param rs the JDBC result set, positioned before the first row
+     * @return a source reading from the result set
+     */
+    static GridRowSource of(java.sql.ResultSet rs) {
+        return new GridRowSource() {
+            @Override
+            public List<DataRow> nextRows(int max) {
+                List<DataRow> result = new ArrayList<>(max);
+                try {
+                    ResultSetMetaData meta = rs.getMetaData();
+                    int columns = meta.getColumnCount();
+                    while (result.size() < max && rs.next()) {
+                        DataRow row = new DataRow();
+                        for (int i = 1; i <= columns; i++) {
+                            row.setFieldValue(meta.getColumnLabel(i), rs.getObject(i));
+                        }
+                        result.add(row);
+                    }
+                } catch (Exception e) {
+                    throw new DwcRuntimeException("Failed to read rows from the result set.", e);
+                }
+                return result;
+            }
+
+            @Override
+            public void close() {
+                try {
+                    rs.close();
+                } catch (SQLException e) {
+                    throw new DwcRuntimeException("Failed to close the result set.", e);
+                }
+            }
+        };
+    }
+
+    /**
+     * @param pages a callback returning the rows for (offset, limit), fewer than limit at the end
+     * @return a source reading page by page from the callback
+     */
+    static GridRowSource ofPages(BiFunction<Integer, Integer, List<DataRow>> pages) {
+        return new GridRowSource() {
+            private int offset = 0;
+
+            @Override
+            public List<DataRow> nextRows(int max) {
+                List<DataRow> result = pages.apply(offset, max);
+                if (result == null) {
+                    return new ArrayList<>();
+                }
+                offset += result.size();
+                return result;
+            }
+        };
+    }
+}
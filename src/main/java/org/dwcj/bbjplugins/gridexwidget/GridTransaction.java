@@ -0,0 +1,115 @@
+package org.dwcj.bbjplugins.gridexwidget;
+
+import com.basiscomponents.db.DataRow;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A set of row changes applied to a GridExWidget with one call into BBj. Removals are
+ * applied first, then updates, then additions, the plug-in sends each of the three kinds
+ * to the client as a transaction of its own.
+ */
+public final class GridTransaction {
+
+    private final List<DataRow> added = new ArrayList<>();
+    private final List<DataRow> updated = new ArrayList<>();
+    private final List<DataRow> removed = new ArrayList<>();
+    // the instances in added and updated, for lookups that do not scan the lists
+    private final Set<DataRow> addedRows = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<DataRow> updatedRows = Collections.newSetFromMap(new IdentityHashMap<>());
+    // instances dropped by discard(), taken out of the lists the next time they are read
+    private final Set<DataRow> discarded = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    public GridTransaction add(DataRow... rows) {
+        return add(Arrays.asList(rows));
+    }
+
+    public GridTransaction add(Collection<DataRow> rows) {
+        for (DataRow row : rows) {
+            keep(row);
+            added.add(row);
+            addedRows.add(row);
+        }
+        return this;
+    }
+
+    public GridTransaction update(DataRow... rows) {
+        return update(Arrays.asList(rows));
+    }
+
+    public GridTransaction update(Collection<DataRow> rows) {
+        for (DataRow row : rows) {
+            keep(row);
+            updated.add(row);
+            updatedRows.add(row);
+        }
+        return this;
+    }
+
+    public GridTransaction remove(DataRow... rows) {
+        return remove(Arrays.asList(rows));
+    }
+
+    public GridTransaction remove(Collection<DataRow> rows) {
+        removed.addAll(rows);
+        return this;
+    }
+
+    public List<DataRow> getAdded() {
+        compact();
+        return Collections.unmodifiableList(added);
+    }
+
+    public List<DataRow> getUpdated() {
+        compact();
+        return Collections.unmodifiableList(updated);
+    }
+
+    public List<DataRow> getRemoved() {
+        return Collections.unmodifiableList(removed);
+    }
+
+    public boolean isEmpty() {
+        return addedRows.isEmpty() && updatedRows.isEmpty() && removed.isEmpty();
+    }
+
+    /**
+     * @param row a row
+     * @return true if this exact row instance is to be added
+     */
+    boolean isAdding(DataRow row) {
+        return addedRows.contains(row);
+    }
+
+    /**
+     * Drops the addition and the updates of this exact row instance
+     *
+     * @param row a row
+     */
+    void discard(DataRow row) {
+        if (addedRows.remove(row) | updatedRows.remove(row)) {
+            discarded.add(row);
+        }
+    }
+
+    // a discarded row that is added again must not bring back its earlier entries
+    private void keep(DataRow row) {
+        if (discarded.contains(row)) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        if (!discarded.isEmpty()) {
+            added.removeIf(discarded::contains);
+            updated.removeIf(discarded::contains);
+            discarded.clear();
+        }
+    }
+}
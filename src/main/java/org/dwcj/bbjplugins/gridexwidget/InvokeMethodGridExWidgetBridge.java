@@ -0,0 +1,109 @@
+package org.dwcj.bbjplugins.gridexwidget;
+
+import com.basis.startup.type.BBjVector;
+import com.basiscomponents.db.DataRow;
+import com.basiscomponents.db.ResultSet;
+import org.dwcj.Environment;
+import org.dwcj.bridge.IDwcjBBjBridge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Fallback for installations without the BBjGridExWidgetBridge class on the BBj side,
+ * goes through the generic IDwcjBBjBridge.invokeMethod for every call
+ */
+@SuppressWarnings("java:S3740")
+final class InvokeMethodGridExWidgetBridge implements GridExWidgetBridge {
+
+    private final IDwcjBBjBridge helper = Environment.getInstance().getDwcjHelper();
+    private Object widget;
+
+    @Override
+    public void bind(Object widget) {
+        this.widget = widget;
+    }
+
+    private Object invoke(Object target, String method, Object... args) {
+        ArrayList list = args.length == 0 ? null : new ArrayList<>(Arrays.asList(args));
+        return helper.invokeMethod(target, method, list);
+    }
+
+    @Override
+    public void setData(ResultSet rs) {
+        invoke(widget, "setData", rs);
+    }
+
+    @Override
+    public void setData(ResultSet rs, int render, Boolean addAll) {
+        invoke(widget, "setData", rs, render, addAll);
+    }
+
+    @Override
+    public void addRows(ResultSet rs) {
+        invoke(widget, "addRows", rs);
+    }
+
+    @Override
+    public BBjVector getSelectedRows() {
+        return (BBjVector) invoke(widget, "getSelectedRows");
+    }
+
+    @Override
+    public DataRow asDataRow(Object row) {
+        return (DataRow) invoke(row, "asDataRow");
+    }
+
+    @Override
+    public void deselectAll() {
+        invoke(widget, "deselectAll");
+    }
+
+    @Override
+    public Object addColumn(String field, String label, int type) {
+        return invoke(widget, "addColumn", field, label, type);
+    }
+
+    @Override
+    public Object addColumnGroup(String id, String label, BBjVector columns, Boolean marryChildren, String cssClass) {
+        return invoke(widget, "addColumnGroup", id, label, columns, marryChildren, cssClass);
+    }
+
+    @Override
+    public void addRow(DataRow row) {
+        invoke(widget, "addRow", row);
+    }
+
+    @Override
+    public void updateRow(DataRow row) {
+        invoke(widget, "updateRow", row);
+    }
+
+    @Override
+    public void removeRow(DataRow row) {
+        invoke(widget, "removeRow", row);
+    }
+
+    @Override
+    public void applyTransaction(ResultSet added, ResultSet updated, ResultSet removed) {
+        if (removed != null) {
+            invoke(widget, "removeRows", removed);
+        }
+        if (updated != null) {
+            invoke(widget, "updateRows", updated);
+        }
+        if (added != null) {
+            invoke(widget, "addRows", added);
+        }
+    }
+
+    @Override
+    public void setFitToGrid() {
+        invoke(widget, "setFitToGrid");
+    }
+
+    @Override
+    public void autoSizeColumns() {
+        invoke(widget, "autoSizeColumns");
+    }
+}
@@ -0,0 +1,100 @@
+package org.dwcj.bridge;
+
+import com.basis.bbj.proxies.event.BBjEvent;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.dwcj.controls.PropertyWriteQueue;
+import org.dwcj.exceptions.DwcRuntimeException;
+import org.dwcj.interfaces.EventProxy;
+
+/**
+ * Java side of the BBj event proxies. The callback method of the target is resolved once,
+ * when the proxy is created, and kept as a MethodHandle bound to the target instance, so
+ * dispatching an event is a single direct call instead of a scan of the declared methods.
+ * The resolved handles are cached per class, so sinks of the same type share the lookup.
+ */
+public final class BoundEventProxy implements EventProxy {
+
+    // (target, payload)void, the receiver is bound when the proxy is created
+    private static final MethodType DISPATCH_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<Map<String, MethodHandle>> HANDLES = new ClassValue<Map<String, MethodHandle>>() {
+        @Override
+        protected Map<String, MethodHandle> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final MethodHandle handle;
+
+    /**
+     * @param obj    the DWCJ-side object instance to receive the event
+     * @param method the name of the method to receive the callback, taking the event as its single argument
+     */
+    public BoundEventProxy(Object obj, String method) {
+        MethodHandle unbound = HANDLES.get(obj.getClass()).computeIfAbsent(method, m -> resolve(obj.getClass(), m));
+        this.handle = unbound.bindTo(obj);
+    }
+
+    @Override
+    public void onEvent(BBjEvent ev) {
+        dispatch(ev);
+    }
+
+    /**
+     * Invoke the callback with the given payload. Used directly by BBj plug-in proxies
+     * that pass a custom payload instead of the BBjEvent.
+     * Control property writes done by the callback are collected and sent to the client
+     * when the callback returns.
+     *
+     * @param payload the event or payload to pass to the callback
+     */
+    @SuppressWarnings("java:S1181") // the callback may throw anything, rethrow unchecked
+    public void dispatch(Object payload) {
+        PropertyWriteQueue queue = PropertyWriteQueue.getCurrent();
+        if (queue != null) {
+            queue.begin();
+        }
+        try {
+            handle.invokeExact(payload);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new DwcRuntimeException("Failed to dispatch event.", e);
+        } finally {
+            if (queue != null) {
+                queue.end();
+            }
+        }
+    }
+
+    /**
+     * DWCJ declares certain event callbacks as private to prevent them from
+     * being accessible by users of the API, hence the method is looked up among the
+     * declared methods of the class and its superclasses and made accessible.
+     */
+    @SuppressWarnings("java:S3011") // allow increasing accessibility
+    private static MethodHandle resolve(Class<?> type, String method) {
+        Class<?> clazz = type;
+        while (clazz != null) {
+            for (Method m : clazz.getDeclaredMethods()) {
+                if (m.getName().equals(method) && m.getParameterCount() == 1) {
+                    try {
+                        m.setAccessible(true);
+                        return MethodHandles.lookup().unreflect(m).asType(DISPATCH_TYPE);
+                    } catch (IllegalAccessException e) {
+                        throw new DwcRuntimeException("Cannot access event callback " + method + " in " + type.getName(), e);
+                    }
+                }
+            }
+            clazz = clazz.getSuperclass();
+        }
+        throw new DwcRuntimeException("No event callback " + method + " in " + type.getName());
+    }
+}
@@ -0,0 +1,36 @@
+package org.dwcj.bridge;
+
+/**
+ * Decides whether a class is a "friend" of the accessors, i.e. part of the DWCJ engine
+ * itself, and therefore allowed to obtain the BBj objects behind controls and panels.
+ * The accessors determine the calling class with a StackWalker, which only inspects the
+ * immediate caller frame, and the verdict is cached per class, so the check does not
+ * capture a full stack trace on every call.
+ */
+public final class FriendCallerCheck {
+
+    /**
+     * the walker used by the accessors to determine their immediate caller
+     */
+    public static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private static final String FRIEND_PACKAGE_PREFIX = "org.dwcj.";
+
+    private static final ClassValue<Boolean> FRIENDS = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return type.getName().startsWith(FRIEND_PACKAGE_PREFIX);
+        }
+    };
+
+    private FriendCallerCheck() {
+    }
+
+    /**
+     * @param caller the calling class, as obtained by WALKER.getCallerClass()
+     * @return true if the caller is part of the DWCJ engine
+     */
+    public static boolean isFriend(Class<?> caller) {
+        return caller != null && FRIENDS.get(caller);
+    }
+}
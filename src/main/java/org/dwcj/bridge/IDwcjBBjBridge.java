@@ -3,6 +3,7 @@ package org.dwcj.bridge;
 import com.basis.bbj.proxies.sysgui.BBjControl;
 import com.basis.bbj.proxies.sysgui.BBjWindow;
 import com.basis.startup.type.CustomObject;
+import org.dwcj.bbj.BBjArgFrame;
 import org.dwcj.bbj.BBjVar;
 
 import java.util.ArrayList;
@@ -65,5 +66,29 @@ public interface IDwcjBBjBridge {
     Object createInstance(String classname);
 
 
+    /**
+     * CALL a BBj program. The BBj side generates a stub program once per program and
+     * argument type signature and reuses it for subsequent calls.
+     * @param pgm the program to call
+     * @param args the arguments
+     * @return the values of the arguments after the call, in the same order
+     */
     ArrayList<BBjVar> call(String pgm, ArrayList<BBjVar> args);
+
+    /**
+     * CALL a BBj program once per argument list, all calls are made in a single round trip.
+     * All argument lists must have the same type signature.
+     * @param pgm the program to call
+     * @param argsList the argument lists, one per call
+     * @return the values of the arguments after each call, in the order of the calls
+     */
+    ArrayList<ArrayList<BBjVar>> callBatch(String pgm, ArrayList<ArrayList<BBjVar>> argsList);
+
+    /**
+     * CALL a BBj program with the arguments of a frame. The values of the arguments after
+     * the call are written back into the same slots of the frame.
+     * @param pgm the program to call
+     * @param frame the arguments
+     */
+    void call(String pgm, BBjArgFrame frame);
 }
@@ -69,14 +69,20 @@ public abstract class AbstractControl implements Control, HasDestroy {
 
     @Override
     public String getId() {
+        if (!(this.elementId.equals(""))) {
+            return this.elementId;
+        }
+        //the client assigns an ID on creation, fetch it once and keep it
         if (this.ctrl != null) {
             try {
-                return ctrl.getAttribute("id");
+                String id = ctrl.getAttribute("id");
+                if (id != null) {
+                    this.elementId = id;
+                }
+                return this.elementId;
             } catch (BBjException e) {
                 Environment.logError(e);
             }
-        } else if (!(this.elementId.equals(""))) {
-            return this.elementId;
         }
         return "";
     }
@@ -5,8 +5,10 @@ import com.basis.util.common.BasisNumber;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.dwcj.Environment;
 import org.dwcj.interfaces.HasAttribute;
@@ -77,11 +79,131 @@ public abstract class AbstractDwcControl extends AbstractControl implements HasA
     protected HasMouseWheelCondition.MouseWheelCondition mouseWheelCondition = null;
     protected TextHighlightable.Highlight textHighlight = null;
 
+    /*=====================================================================================
+     * Property keys, used for coalescing the deferred writes in the PropertyWriteQueue
+     * and for tracking the shadow state
+     *=====================================================================================
+     */
+    protected static final String PROP_TEXT = "text";
+    protected static final String PROP_VISIBLE = "visible";
+    protected static final String PROP_ENABLED = "enabled";
+    protected static final String PROP_TOOLTIP = "tooltip";
+    protected static final String PROP_ATTRIBUTE = "attr:";
+    private static final String PROP_STYLE = "style:";
+    private static final String PROP_CLASS = "class:";
+
+    /**
+     * Route a property write through the session's PropertyWriteQueue, so that it is
+     * coalesced with other writes while an event handler or App.run() is executing
+     *
+     * @param property the coalescing key of the property
+     * @param write the write to perform against the BBj control
+     */
+    protected void writeProperty(String property, PropertyWriteQueue.BBjWrite write) {
+        PropertyWriteQueue queue = PropertyWriteQueue.getCurrent();
+        if (queue != null) {
+            queue.enqueue(this, property, write);
+            return;
+        }
+        try {
+            write.apply(ctrl);
+        } catch (BBjException e) {
+            Environment.logError(e);
+        }
+    }
+
+    /*=====================================================================================
+     * Shadow state: once the control is live, the members above remain the authoritative
+     * copy of its state and the getters answer from them without a round trip to the client.
+     * Properties the browser can change on its own are client-owned and are read from the
+     * control; an invalidated property is read from the control once and then cached again.
+     *=====================================================================================
+     */
+    private final Set<String> clientOwnedProperties = new HashSet<>();
+    private final Set<String> invalidatedProperties = new HashSet<>();
+    private Boolean alwaysQueryClient = false;
+
+    /**
+     * @param property the key of the property
+     * @return true if the control is live and no write for the property is waiting in the queue,
+     * i.e. the control can be asked for the current value
+     */
+    private boolean canQueryControl(String property) {
+        if (ctrl == null) {
+            return false;
+        }
+        PropertyWriteQueue queue = PropertyWriteQueue.getCurrent();
+        return queue == null || !queue.isPending(this, property);
+    }
+
+    /**
+     * @param property the key of the property
+     * @return true if the shadow value of the property cannot be trusted and the control has to be asked
+     */
+    protected boolean mustQueryControl(String property) {
+        return canQueryControl(property) && (Boolean.TRUE.equals(this.alwaysQueryClient)
+                || clientOwnedProperties.contains(property)
+                || invalidatedProperties.contains(property));
+    }
+
+    /**
+     * Mark a property as one the browser can change without a client event telling us.
+     * Client-owned properties are always read from the control. Controls clear the flag
+     * once they wire up a client event that invalidates the property on change.
+     *
+     * @param property the key of the property, e.g. PROP_TEXT
+     * @param owned true if the value is owned by the client
+     */
+    protected void setClientOwned(String property, boolean owned) {
+        if (owned) {
+            clientOwnedProperties.add(property);
+        } else {
+            clientOwnedProperties.remove(property);
+        }
+    }
+
+    /**
+     * Invalidate the shadow value of a property, so that the next read asks the control.
+     * Called from the client events that can change the value, such as edit-modify.
+     *
+     * @param property the key of the property, e.g. PROP_TEXT
+     */
+    protected void invalidateProperty(String property) {
+        invalidatedProperties.add(property);
+    }
+
+    /**
+     * By default the getters of a live control answer from the Java-side state, which is kept
+     * up to date by the setters and the client events. Turn this on for controls whose
+     * properties are changed by the browser on its own, e.g. through custom JavaScript, to
+     * always ask the client instead.
+     *
+     * @param alwaysQueryClient true to always read the properties from the client
+     * @return the control itself
+     */
+    public AbstractDwcControl setAlwaysQueryClient(Boolean alwaysQueryClient) {
+        this.alwaysQueryClient = alwaysQueryClient;
+        return this;
+    }
+
+    /**
+     * @return true if the getters always read the properties from the client
+     */
+    public Boolean isAlwaysQueryClient() {
+        return this.alwaysQueryClient;
+    }
+
     @Override
     public String getAttribute(String attribute) {
-        //ask the control first
-        if (ctrl != null) try {
-            return ctrl.getAttribute(attribute);
+        String key = PROP_ATTRIBUTE + attribute;
+        //attributes set from the Java side are answered from the shadow state,
+        //anything else is only known by the control
+        if (canQueryControl(key) && (mustQueryControl(key) || !attributes.containsKey(attribute))) try {
+            String value = ctrl.getAttribute(attribute);
+            if (invalidatedProperties.remove(key)) {
+                attributes.put(attribute, value);
+            }
+            return value;
         } catch (BBjException e) {
             Environment.logError(e);
         }
@@ -97,20 +219,21 @@ public abstract class AbstractDwcControl extends AbstractControl implements HasA
      */
     @Override
     public AbstractDwcControl setAttribute(String attribute, String value) {
-        if (ctrl != null) try {
-            ctrl.setAttribute(attribute, value);
-        } catch (BBjException e) {
-            Environment.logError(e);
+        if (ctrl != null) {
+            writeProperty(PROP_ATTRIBUTE + attribute, c -> c.setAttribute(attribute, value));
         }
         attributes.put(attribute, value);
+        invalidatedProperties.remove(PROP_ATTRIBUTE + attribute);
         return this;
     }
 
 
     @Override
     public String getText() {
-        if (ctrl != null) try {
-            return ctrl.getText();
+        if (mustQueryControl(PROP_TEXT)) try {
+            this.text = ctrl.getText();
+            invalidatedProperties.remove(PROP_TEXT);
+            return this.text;
         } catch (BBjException e) {
             Environment.logError(e);
         }
@@ -120,11 +243,7 @@ public abstract class AbstractDwcControl extends AbstractControl implements HasA
     @Override
     public AbstractDwcControl setText(String text) {
         if (ctrl != null){
-            try {
-                ctrl.setText(text);
-            } catch (BBjException e) {
-                Environment.logError(e);
-            }
+            writeProperty(PROP_TEXT, c -> c.setText(text));
         } 
         if (text != null){
             this.text = new String(text.getBytes());
@@ -132,11 +251,17 @@ public abstract class AbstractDwcControl extends AbstractControl implements HasA
         else{
             this.text = "<null>";
         }
+        invalidatedProperties.remove(PROP_TEXT);
         return this;
     }
 
     @Override
     public String getComputedStyle(String property){
+        //the computed style depends on the styles and classes still waiting in the queue
+        PropertyWriteQueue queue = PropertyWriteQueue.getCurrent();
+        if (queue != null) {
+            queue.flush(this);
+        }
         if (ctrl != null) try {
             return ctrl.getComputedStyle(property);
         } catch (BBjException e) {
@@ -147,10 +272,8 @@ public abstract class AbstractDwcControl extends AbstractControl implements HasA
 
     @Override
     public AbstractDwcControl addClassName(String selector) {
-        if (ctrl != null) try {
-            ctrl.addStyle(selector);
-        } catch (BBjException e) {
-            Environment.logError(e);
+        if (ctrl != null) {
+            writeProperty(PROP_CLASS + selector, c -> c.addStyle(selector));
         }
         this.cssClasses.add(selector);
         return this;
@@ -158,10 +281,8 @@ public abstract class AbstractDwcControl extends AbstractControl implements HasA
 
     @Override
     public AbstractDwcControl removeClassName(String selector) {
-        if (ctrl != null) try {
-            ctrl.removeStyle(selector);
-        } catch (BBjException e) {
-            Environment.logError(e);
+        if (ctrl != null) {
+            writeProperty(PROP_CLASS + selector, c -> c.removeStyle(selector));
         }
         this.cssClasses.remove(selector);
         return this;
@@ -169,10 +290,8 @@ public abstract class AbstractDwcControl extends AbstractControl implements HasA
 
     @Override
     public AbstractDwcControl setStyle(String property, String value) {
-        if (ctrl != null) try {
-            ctrl.setStyle(property, value);
-        } catch (BBjException e) {
-            Environment.logError(e);
+        if (ctrl != null) {
+            writeProperty(PROP_STYLE + property, c -> c.setStyle(property, value));
         }
         this.styles.put(property, value);
         return this;
@@ -181,8 +300,10 @@ public abstract class AbstractDwcControl extends AbstractControl implements HasA
 
     @Override
     public Boolean isEnabled() {
-        if (this.ctrl != null) try {
-            return ctrl.isEnabled();
+        if (mustQueryControl(PROP_ENABLED)) try {
+            this.enabled = ctrl.isEnabled();
+            invalidatedProperties.remove(PROP_ENABLED);
+            return this.enabled;
         } catch (BBjException e) {
             Environment.logError(e);
         }
@@ -191,19 +312,20 @@ public abstract class AbstractDwcControl extends AbstractControl implements HasA
 
     @Override
     public AbstractDwcControl setEnabled(Boolean enabled) {
-        if (this.ctrl != null) try {
-            ctrl.setEnabled(enabled);
-        } catch (BBjException e) {
-            Environment.logError(e);
+        if (this.ctrl != null) {
+            writeProperty(PROP_ENABLED, c -> c.setEnabled(enabled));
         }
         this.enabled = enabled;
+        invalidatedProperties.remove(PROP_ENABLED);
         return this;
     }
 
     @Override
     public String getTooltipText() {
-        if (this.ctrl != null) try {
-            return ctrl.getToolTipText();
+        if (mustQueryControl(PROP_TOOLTIP)) try {
+            this.tooltipText = ctrl.getToolTipText();
+            invalidatedProperties.remove(PROP_TOOLTIP);
+            return this.tooltipText;
         } catch (BBjException e) {
             Environment.logError(e);
         }
@@ -212,20 +334,21 @@ public abstract class AbstractDwcControl extends AbstractControl implements HasA
 
     @Override
     public AbstractDwcControl setTooltipText(String text) {
-        if (this.ctrl != null) try {
-            ctrl.setToolTipText(text);
-        } catch (BBjException e) {
-            Environment.logError(e);
+        if (this.ctrl != null) {
+            writeProperty(PROP_TOOLTIP, c -> c.setToolTipText(text));
         }
         this.tooltipText = text;
+        invalidatedProperties.remove(PROP_TOOLTIP);
         return this;
     }
 
     
     @Override
     public Boolean isVisible() {
-        if (this.ctrl != null) try {
-            return ctrl.isVisible();
+        if (mustQueryControl(PROP_VISIBLE)) try {
+            this.visible = ctrl.isVisible();
+            invalidatedProperties.remove(PROP_VISIBLE);
+            return this.visible;
         } catch (BBjException e) {
             Environment.logError(e);
         }
@@ -234,12 +357,11 @@ public abstract class AbstractDwcControl extends AbstractControl implements HasA
 
     @Override
     public AbstractDwcControl setVisible(Boolean visible) {
-        if (this.ctrl != null) try {
-            ctrl.setVisible(visible);
-        } catch (BBjException e) {
-            Environment.logError(e);
+        if (this.ctrl != null) {
+            writeProperty(PROP_VISIBLE, c -> c.setVisible(visible));
         }
         this.visible = visible;
+        invalidatedProperties.remove(PROP_VISIBLE);
         return this;
     }
 
@@ -361,11 +483,8 @@ public abstract class AbstractDwcControl extends AbstractControl implements HasA
         super.catchUp();
         
         if (!this.text.isEmpty()) {
-            try {
-                ctrl.setText(this.text);
-            } catch (BBjException e) {
-                Environment.logError(e);
-            }
+            final String catchUpText = this.text;
+            writeProperty(PROP_TEXT, c -> c.setText(catchUpText));
         }
         
         if (!Boolean.TRUE.equals(this.visible)) {
@@ -377,11 +496,8 @@ public abstract class AbstractDwcControl extends AbstractControl implements HasA
         }
 
         if (!this.tooltipText.isEmpty()){
-            try{
-                ctrl.setToolTipText(this.tooltipText);
-            } catch(BBjException e){
-                Environment.logError(e);
-            }
+            final String catchUpTooltip = this.tooltipText;
+            writeProperty(PROP_TOOLTIP, c -> c.setToolTipText(catchUpTooltip));
         }
         
         if (!this.attributes.isEmpty()) {
@@ -0,0 +1,176 @@
+package org.dwcj.controls;
+
+import com.basis.bbj.proxies.sysgui.BBjControl;
+import com.basis.startup.type.BBjException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.dwcj.Environment;
+
+/**
+ * Per-session queue that collects property writes against live BBj controls
+ * while an event handler or App.run() is executing and flushes them in one pass
+ * at the end of the dispatch. Repeated writes to the same property of the same
+ * control collapse to the last value.
+ *
+ * Outside of a dispatch (no begin() pending) writes are passed through to the
+ * control immediately, so code running in BBj-side callbacks keeps its current
+ * behavior. The same applies to writes from other threads that carry the session,
+ * only the thread running the dispatch collects its writes.
+ *
+ * The queue state is guarded by the queue's monitor, as threads that were handed the
+ * session with Environment.wrap() reach it concurrently to the dispatch thread. The
+ * writes themselves are applied outside of the monitor.
+ */
+public final class PropertyWriteQueue {
+
+    /**
+     * A single deferred write against the underlying BBj control
+     */
+    @FunctionalInterface
+    public interface BBjWrite {
+        void apply(BBjControl ctrl) throws BBjException;
+    }
+
+    private final Map<AbstractDwcControl, Map<String, BBjWrite>> pending = new LinkedHashMap<>();
+    private int depth = 0;
+    private Thread dispatchThread = null;
+
+    /**
+     * Returns the write queue of the current session, or null if there is no session
+     *
+     * @return the queue of the current session
+     */
+    public static PropertyWriteQueue getCurrent() {
+        Environment env = Environment.getInstance();
+        return env == null ? null : env.getPropertyWriteQueue();
+    }
+
+    /**
+     * Marks the start of a dispatch. Calls may be nested, the queue is flushed
+     * when the outermost dispatch ends.
+     */
+    public synchronized void begin() {
+        if (depth > 0 && !isDispatchThread()) {
+            return;
+        }
+        dispatchThread = Thread.currentThread();
+        depth++;
+    }
+
+    /**
+     * Marks the end of a dispatch and flushes the pending writes if this was
+     * the outermost one
+     */
+    public void end() {
+        synchronized (this) {
+            if (!isDispatchThread()) {
+                return;
+            }
+            if (depth > 0) {
+                depth--;
+            }
+            if (depth > 0) {
+                return;
+            }
+            dispatchThread = null;
+        }
+        flush();
+    }
+
+    /**
+     * @return true if writes are currently being collected
+     */
+    public synchronized boolean isBatching() {
+        return depth > 0 && isDispatchThread();
+    }
+
+    private boolean isDispatchThread() {
+        return dispatchThread == Thread.currentThread();
+    }
+
+    /**
+     * Sends all pending writes to the client right away. Use this when code needs
+     * to observe the result of a setter before the current dispatch ends.
+     */
+    public void flush() {
+        while (true) {
+            Map.Entry<AbstractDwcControl, Map<String, BBjWrite>> next;
+            synchronized (this) {
+                if (pending.isEmpty() || (dispatchThread != null && !isDispatchThread())) {
+                    return;
+                }
+                next = pending.entrySet().iterator().next();
+                pending.remove(next.getKey());
+            }
+            apply(next.getKey(), next.getValue());
+        }
+    }
+
+    /**
+     * Sends the pending writes of a single control to the client
+     *
+     * @param control the control to flush
+     */
+    public void flush(AbstractDwcControl control) {
+        Map<String, BBjWrite> writes;
+        synchronized (this) {
+            if (dispatchThread != null && !isDispatchThread()) {
+                return;
+            }
+            writes = pending.remove(control);
+        }
+        if (writes != null) {
+            apply(control, writes);
+        }
+    }
+
+    /**
+     * Queue a write for the given control, or apply it immediately when no
+     * dispatch is running
+     *
+     * @param control the control that owns the property
+     * @param property the coalescing key of the property
+     * @param write the write to perform against the BBj control
+     */
+    void enqueue(AbstractDwcControl control, String property, BBjWrite write) {
+        synchronized (this) {
+            if (isBatching()) {
+                pending.computeIfAbsent(control, k -> new LinkedHashMap<>()).put(property, write);
+                return;
+            }
+        }
+        try {
+            write.apply(control.ctrl);
+        } catch (BBjException e) {
+            Environment.logError(e);
+        }
+    }
+
+    /**
+     * @param control the control
+     * @param property the coalescing key of the property
+     * @return true if a write for this property is still pending
+     */
+    synchronized boolean isPending(AbstractDwcControl control, String property) {
+        if (!isBatching()) {
+            return false;
+        }
+        Map<String, BBjWrite> writes = pending.get(control);
+        return writes != null && writes.containsKey(property);
+    }
+
+    private void apply(AbstractDwcControl control, Map<String, BBjWrite> writes) {
+        if (control.ctrl == null || Boolean.TRUE.equals(control.isDestroyed())) {
+            return;
+        }
+        for (BBjWrite write : writes.values()) {
+            try {
+                write.apply(control.ctrl);
+            } catch (BBjException e) {
+                Environment.logError(e);
+            }
+        }
+    }
+}
@@ -61,6 +61,8 @@ public final class CheckBox extends AbstractDwcControl implements HasReadOnly, F
     private HorizontalTextPosition horizontalTextPosition = HorizontalTextPosition.RIGHT;
     private Boolean checked = false;
 
+    private static final String PROP_CHECKED = "checked";
+
 
     /* =====================================================================================
      * Constructor initializes the inherited interface member variables to their defaults
@@ -68,6 +70,7 @@ public final class CheckBox extends AbstractDwcControl implements HasReadOnly, F
      */
     public CheckBox(){
         this.readOnly = false;
+        setClientOwned(PROP_CHECKED, true);
         this.focusable = true;
         this.tabTraversable = true;
         this.textAlignment = Alignment.LEFT;
@@ -103,7 +106,7 @@ public final class CheckBox extends AbstractDwcControl implements HasReadOnly, F
     public CheckBox onChange(Consumer<CheckBoxChangeEvent> callback) {
         if(this.ctrl != null){
             if(this.checkboxCheckEventSink == null){
-                this.checkboxCheckEventSink = new CheckBoxCheckEventSink(this);
+                createCheckEventSink();
             }
             this.checkboxCheckEventSink.addCallback(callback);
         }
@@ -145,14 +148,15 @@ public final class CheckBox extends AbstractDwcControl implements HasReadOnly, F
      * @return false if not checked, true if checked.
      */
     public Boolean isChecked() {
-        if(this.ctrl != null){
+        if(mustQueryControl(PROP_CHECKED)){
             try {
-                return ((BBjCheckBox) this.ctrl).isSelected();
+                this.checked = ((BBjCheckBox) this.ctrl).isSelected();
+                return this.checked;
             } catch (BBjException e) {
                 Environment.logError(e);
             }
         }
-        return false;
+        return this.checked;
     }
 
     public CheckBox setChecked(Boolean checked) {
@@ -372,6 +376,16 @@ public final class CheckBox extends AbstractDwcControl implements HasReadOnly, F
      */
 
 
+    /**
+     * Creates the check sink. The check events report the new state, which keeps
+     * the shadow value of isChecked() up to date from then on.
+     */
+    private void createCheckEventSink(){
+        this.checkboxCheckEventSink = new CheckBoxCheckEventSink(this);
+        this.checkboxCheckEventSink.addCallback(ev -> this.checked = ev.isChecked());
+        setClientOwned(PROP_CHECKED, false);
+    }
+
     @Override
     @SuppressWarnings("java:S3776") // tolerate cognitive complexity for now, it's just a batch list of checks
     protected void catchUp() throws IllegalAccessException {
@@ -383,7 +397,7 @@ public final class CheckBox extends AbstractDwcControl implements HasReadOnly, F
         } 
         
         if(!this.callbacks.isEmpty()){
-            this.checkboxCheckEventSink = new CheckBoxCheckEventSink(this);
+            createCheckEventSink();
             while(!this.callbacks.isEmpty()){
                 this.checkboxCheckEventSink.addCallback(this.callbacks.remove(0));
             }
@@ -4,8 +4,10 @@ package org.dwcj.controls.combobox;
 import com.basis.bbj.proxies.sysgui.BBjListButton;
 import com.basis.bbj.proxies.sysgui.BBjWindow;
 import com.basis.startup.type.BBjException;
+import com.basis.startup.type.BBjVector;
 
 import org.dwcj.Environment;
+import org.dwcj.bbj.database.QueryResult;
 import org.dwcj.bridge.PanelAccessor;
 import org.dwcj.controls.combobox.events.ComboBoxChangeEvent;
 import org.dwcj.controls.combobox.events.ComboBoxCloseEvent;
@@ -25,9 +27,8 @@ import org.dwcj.util.BBjFunctionalityHelper;
 
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collections;
 import java.util.Map;
-import java.util.Objects;
 import java.util.function.Consumer;
 
 /**
@@ -56,11 +57,11 @@ public final class ComboBox extends AbstractDwclistControl implements HasReadOnl
     private ArrayList<Consumer<ComboBoxCloseEvent>> closeEvents = new ArrayList<>();
     private ComboBoxCloseEventSink closeEventSink;
     private Integer maxRowCount;
-    private SimpleEntry<Integer, String> textAt = null;
 
 
     public ComboBox(){
         this.readOnly = false;
+        setClientOwned(PROP_TEXT, true);
         this.focusable = true;
         this.tabTraversable = true;
         this.textAlignment = Alignment.LEFT;
@@ -96,9 +97,7 @@ public final class ComboBox extends AbstractDwclistControl implements HasReadOnl
 
 
     public ComboBox addItem(Object key, String item) {
-        this.values.put(key, item);
-        data2.add(values.get(key));
-        populate();
+        appendItems(Collections.singletonMap(key, item));
         return this;
     }
 
@@ -112,9 +111,7 @@ public final class ComboBox extends AbstractDwclistControl implements HasReadOnl
      */
 
     public ComboBox insertItemAt(Object key, String item, Integer index){
-        this.values.put(key, item);
-        data2.add(index, values.get(key));
-        populate();
+        insertItems(index, Collections.singletonMap(key, item));
         return this;
     }
 
@@ -124,12 +121,7 @@ public final class ComboBox extends AbstractDwclistControl implements HasReadOnl
      * @return The object itself
      */
     public ComboBox addItems(Map<Object, String> items){
-        this.values.putAll(items);
-        Iterator<Object> it = items.keySet().iterator();
-        while (it.hasNext()) {
-            data2.add(values.get(it.next()));
-        }
-        populate();
+        appendItems(items);
         return this;
     }
 
@@ -141,27 +133,28 @@ public final class ComboBox extends AbstractDwclistControl implements HasReadOnl
      * @return
      */
     public ComboBox insertItemsAt(Map<Object, String> items, Integer index){
-        this.values.putAll(items);
-        Iterator<Object> it = items.keySet().iterator();
-        Integer counter = 0;
-        while (it.hasNext()) {
-            data2.add(index + counter++, values.get(it.next()));
-        }
-        populate();
+        insertItems(index, items);
         return this;
     }
 
-    @SuppressWarnings("unchecked")
-    protected void populate() {
-        if(this.ctrl != null){
-            try{
-                BBjListButton cb = (BBjListButton) ctrl;
-                cb.removeAllItems();
-                cb.insertItems(0, data2);
-            } catch(BBjException e){
-                Environment.logError(e);
-            }
-        }
+    @Override
+    protected void insertClientItems(int index, BBjVector items) throws BBjException {
+        ((BBjListButton) ctrl).insertItems(index, items);
+    }
+
+    @Override
+    protected void removeClientItemAt(int index) throws BBjException {
+        ((BBjListButton) ctrl).removeItemAt(index);
+    }
+
+    @Override
+    protected void removeAllClientItems() throws BBjException {
+        ((BBjListButton) ctrl).removeAllItems();
+    }
+
+    @Override
+    protected void setClientTextAt(int index, String text) throws BBjException {
+        ((BBjListButton) ctrl).setTextAt(index, text);
     }
 
     /**
@@ -171,13 +164,21 @@ public final class ComboBox extends AbstractDwclistControl implements HasReadOnl
      * @return the control itself
      */
     public ComboBox setItems(Map<Object, String> values) {
-        this.values = values;
-        data2.clear();
-        Iterator<Object> it = values.keySet().iterator();
-        while (it.hasNext()) {
-            data2.add(values.get(it.next()));
-        }
-        populate();
+        replaceItems(values);
+        return this;
+    }
+
+    /**
+     * Replaces the items with two columns of a query result, for example one served by the
+     * QueryCache
+     *
+     * @param result the query result
+     * @param keyColumn the label of the column holding the item keys
+     * @param textColumn the label of the column holding the item texts
+     * @return the control itself
+     */
+    public ComboBox setItems(QueryResult result, String keyColumn, String textColumn) {
+        replaceItems(result.toItemMap(keyColumn, textColumn));
         return this;
     }
 
@@ -197,11 +198,12 @@ public final class ComboBox extends AbstractDwclistControl implements HasReadOnl
     }
 
     /**
-     * Returns all of the values in the ComboBox as a Map
+     * Returns all of the values in the ComboBox as a read-only Map, in list order.
+     * The map is a view and reflects later item changes.
      * @return all values in the comboBox
      */
     public Map<Object, String> getAllItems() {
-        return this.values;
+        return getItemMap();
     }
 
     /**
@@ -210,7 +212,7 @@ public final class ComboBox extends AbstractDwclistControl implements HasReadOnl
      * @return String
      */
     public String getItem(Object key) {
-        return values.get(key);
+        return getItemText(key);
     }
 
     /**
@@ -219,15 +221,7 @@ public final class ComboBox extends AbstractDwclistControl implements HasReadOnl
      * @return String value of the selected item
      */
     public String getItemAt(Integer idx){
-        if(this.ctrl != null){
-            try{
-                BBjListButton cb = (BBjListButton) ctrl;
-                return cb.getItemAt(idx);
-            } catch(BBjException e){
-                Environment.logError(e);
-            }
-        }
-        return null;
+        return getItemTextAt(idx);
     }
 
     /**
@@ -237,6 +231,7 @@ public final class ComboBox extends AbstractDwclistControl implements HasReadOnl
     public Integer getSelectedIndex(){
         if(this.ctrl != null){
             try{
+                flushItemChanges();
                 return ((BBjListButton) ctrl).getSelectedIndex();
             }catch(BBjException e){
                 Environment.logError(e);
@@ -246,21 +241,12 @@ public final class ComboBox extends AbstractDwclistControl implements HasReadOnl
     }
 
     /**
-     * returns the currently selected item, implemented for one-to-one value maps
+     * returns the currently selected item, resolved from the selected index
      * @return selected entry
      */
     public SimpleEntry<Object, String> getSelectedItem() {
-        try {
-            String value = bbjListButton.getSelectedItem();
-            for (Map.Entry<Object, String> entry: this.values.entrySet()) {
-                if (Objects.equals(value, entry.getValue())) {
-                    return new SimpleEntry<>(entry.getKey(),value);
-                }
-            }
-        } catch (BBjException e) {
-            Environment.logError(e);
-        }
-        return new SimpleEntry<>(null,null);
+        SimpleEntry<Object, String> entry = getEntryAt(getSelectedIndex());
+        return entry == null ? new SimpleEntry<>(null, null) : entry;
     }
 
     /**
@@ -268,14 +254,7 @@ public final class ComboBox extends AbstractDwclistControl implements HasReadOnl
      * @return Integer representing the total number of items
      */
     public Integer getItemCount(){
-        if(this.ctrl != null){
-            try{
-                return ((BBjListButton) ctrl).getItemCount();
-            } catch(BBjException e){
-                Environment.logError(e);
-            }
-        }
-        return null;
+        return itemCount();
     }
 
     /**
@@ -367,13 +346,7 @@ public final class ComboBox extends AbstractDwclistControl implements HasReadOnl
      * @return The object itself
      */
     public ComboBox removeAllItems(){
-        if(this.ctrl != null){
-            try{
-                ((BBjListButton) this.ctrl).removeAllItems();
-            } catch(BBjException e){
-                Environment.logError(e);
-            }
-        }
+        clearItems();
         return this;
     }
 
@@ -383,13 +356,7 @@ public final class ComboBox extends AbstractDwclistControl implements HasReadOnl
      * @return The object itself
      */
     public ComboBox removeItemAt(Integer index){
-        if(this.ctrl != null){
-            try{
-                ((BBjListButton) this.ctrl).removeItemAt(index);
-            } catch(BBjException e){
-                Environment.logError(e);
-            }
-        }
+        removeItem(index);
         return this;
     }
 
@@ -401,6 +368,7 @@ public final class ComboBox extends AbstractDwclistControl implements HasReadOnl
     public ComboBox selectIndex(Integer index){
         if(this.ctrl != null){
             try{
+                flushItemChanges();
                 ((BBjListButton) this.ctrl).selectIndex(index);
             } catch(BBjException e){
                 Environment.logError(e);
@@ -409,6 +377,20 @@ public final class ComboBox extends AbstractDwclistControl implements HasReadOnl
         return this;
     }
 
+    /**
+     * Selects the item with the given key
+     * @param key the key of the item to select
+     * @return The object itself
+     */
+    public ComboBox selectKey(Object key){
+        int index = getIndexOf(key);
+        if(index >= 0){
+            selectIndex(index);
+        }
+        return this;
+    }
+
+
     /**
      * Sets the maximum number of rows allowed within the ComboBox
      * @param max Integer representing the desired maximum number of rows
@@ -434,14 +416,7 @@ public final class ComboBox extends AbstractDwclistControl implements HasReadOnl
      * @return The object itself
      */
     public ComboBox setTextAt(Integer idx, String text){
-        this.textAt = new SimpleEntry<>(idx, text);
-        if(this.ctrl != null){
-            try{
-                ((BBjListButton) this.ctrl).setTextAt(idx, text);
-            } catch(BBjException e){
-                Environment.logError(e);
-            }
-        }
+        setItemTextAt(idx, text);
         return this;
     }
 
@@ -624,10 +599,6 @@ public final class ComboBox extends AbstractDwclistControl implements HasReadOnl
             this.setMaximumRowCount(this.maxRowCount);
         }
 
-        if(this.textAt != null){
-            this.setTextAt(this.textAt.getKey(), this.textAt.getValue());
-        }
-
         if(!this.changeEvents.isEmpty()){
             this.changeEventSink = new ComboBoxChangeEventSink(this);
             while(!this.changeEvents.isEmpty()){
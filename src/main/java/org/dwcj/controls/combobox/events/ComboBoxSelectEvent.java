@@ -14,6 +14,11 @@ public final class ComboBoxSelectEvent implements ControlEvent {
         this.key = control.getSelectedItem().getKey();
     }
 
+    public ComboBoxSelectEvent(ComboBox cComboBox, Object key) {
+        this.control = cComboBox;
+        this.key = key;
+    }
+
     public void setKey(Object key) { this.key = key; }
 
     public Object getKey() { return key; }
@@ -48,17 +48,15 @@ public final class ComboBoxSelectEventSink {
         }
     }
 
-    @SuppressWarnings("java.S1172")
-    public void selectEvent(BBjListSelectEvent ev) { //NOSONAR
-        ComboBoxSelectEvent dwcEv = new ComboBoxSelectEvent(this.comboBox);
+    public void selectEvent(BBjListSelectEvent ev) {
+        ComboBoxSelectEvent dwcEv = new ComboBoxSelectEvent(this.comboBox, this.comboBox.getKeyAt(ev.getSelectedIndex()));
         Iterator<Consumer<ComboBoxSelectEvent>> it = targets.iterator();
         while (it.hasNext())
             it.next().accept(dwcEv);
     }
 
     public void doSelect(Object key) {
-        ComboBoxSelectEvent dwcEv = new ComboBoxSelectEvent(comboBox);
-        dwcEv.setKey(key);
+        ComboBoxSelectEvent dwcEv = new ComboBoxSelectEvent(comboBox, key);
         Iterator<Consumer<ComboBoxSelectEvent>> it = targets.iterator();
         while (it.hasNext())
             it.next().accept(dwcEv);
@@ -65,6 +65,7 @@ public final class DateEditBox extends AbstractDwcControl implements HasReadOnly
     public DateEditBox(String text) { 
         setText(text);
         this.readOnly = false;
+        setClientOwned(PROP_TEXT, true);
         this.focusable = true;
         this.tabTraversable = true;
         this.textAlignment = Alignment.LEFT; 
@@ -87,7 +88,7 @@ public final class DateEditBox extends AbstractDwcControl implements HasReadOnly
     public DateEditBox onEditModify(Consumer<DateEditBoxEditModifyEvent> callback){
         if(this.ctrl != null){
             if(this.editModifyEventSink == null){
-                this.editModifyEventSink = new DateEditBoxEditModifyEventSink(this);
+                createEditModifyEventSink();
             }
             this.editModifyEventSink.addCallback(callback);
         }
@@ -339,6 +340,7 @@ public final class DateEditBox extends AbstractDwcControl implements HasReadOnly
     }
 
     public DateEditBox restore(){
+        invalidateProperty(PROP_TEXT);
         if(this.ctrl != null){
             try {
                 bbjDateEditBox.restore();
@@ -410,6 +412,7 @@ public final class DateEditBox extends AbstractDwcControl implements HasReadOnly
 
     
     public DateEditBox setEditString(String edit){
+        invalidateProperty(PROP_TEXT);
         this.editString = edit;
         if(this.ctrl != null){
             try {
@@ -567,6 +570,7 @@ public final class DateEditBox extends AbstractDwcControl implements HasReadOnly
      * need to control/check input before passing?== -MH
      */
     public DateEditBox setValue(Object value){
+        invalidateProperty(PROP_TEXT);
         try{
             bbjDateEditBox.setValue((BBjNumber)value);
         } catch(BBjException e){
@@ -789,6 +793,16 @@ public final class DateEditBox extends AbstractDwcControl implements HasReadOnly
         return this;
     } 
 
+    /**
+     * Creates the edit-modify sink. From then on the event keeps the shadow text up to date,
+     * so getText() only asks the client after the user changed the text.
+     */
+    private void createEditModifyEventSink(){
+        this.editModifyEventSink = new DateEditBoxEditModifyEventSink(this);
+        this.editModifyEventSink.addCallback(ev -> invalidateProperty(PROP_TEXT));
+        setClientOwned(PROP_TEXT, false);
+    }
+
     @Override
     @SuppressWarnings("java:S3776") // tolerate cognitive complexity for now, it's just a batch list of checks
     protected void catchUp() throws IllegalAccessException {
@@ -796,7 +810,7 @@ public final class DateEditBox extends AbstractDwcControl implements HasReadOnly
         super.catchUp();
 
         if(!this.callbacks.isEmpty()){
-            this.editModifyEventSink = new DateEditBoxEditModifyEventSink(this);
+            createEditModifyEventSink();
             while(!this.callbacks.isEmpty()){
                 this.editModifyEventSink.addCallback(this.callbacks.remove(0));
             }
@@ -24,7 +24,11 @@ public final  class HtmlEdit extends AbstractDwcControl implements Focusable, Ta
     }
 
 
-    
+    public HtmlEdit(){
+        //the user edits the content without an event reaching the Java side
+        setClientOwned(PROP_TEXT, true);
+    }
+
 
     @Override
     protected void create(AbstractDwcjPanel p) {
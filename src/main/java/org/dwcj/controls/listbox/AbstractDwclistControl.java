@@ -1,18 +1,319 @@
 package org.dwcj.controls.listbox;
 
-import java.util.HashMap;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
+import org.dwcj.Environment;
 import org.dwcj.controls.AbstractDwcControl;
 
+import com.basis.startup.type.BBjException;
 import com.basis.startup.type.BBjVector;
 
 
+/**
+ * Base class for the list based controls. Item changes are recorded as inserts and removals
+ * at specific indexes and only this delta is sent to the client, instead of clearing and
+ * re-sending the whole list on every change. Consecutive inserts are merged, so a bulk add
+ * crosses the bridge as a single insertItems call.
+ *
+ * Items are kept in a ListItemModel, which maps keys to indexes and back without scanning,
+ * so selections reported by the client as indexes resolve to their keys directly.
+ */
 public abstract class AbstractDwclistControl extends AbstractDwcControl {
 
-    protected BBjVector data2 = new BBjVector();
-    protected Map<Object, String> values = new HashMap<>();
+    protected static final String PROP_ITEMS = "items";
 
-    protected abstract void populate();
+    private final ListItemModel items = new ListItemModel();
+
+    /*
+     * Item changes not yet sent to the client, in the order they were made.
+     * An entry with an items vector is an insert, one with a text replaces the text of an item,
+     * any other entry is a removal, an index of -1 removes all items.
+     */
+    private final List<ItemChange> pendingItemChanges = new ArrayList<>();
+
+    private static final class ItemChange {
+        private final int index;
+        private final BBjVector items;
+        private String text;
+
+        private ItemChange(int index, BBjVector items, String text) {
+            this.index = index;
+            this.items = items;
+            this.text = text;
+        }
+
+        private static ItemChange insert(int index, BBjVector items) {
+            return new ItemChange(index, items, null);
+        }
+
+        private static ItemChange removal(int index) {
+            return new ItemChange(index, null, null);
+        }
+
+        private static ItemChange textChange(int index, String text) {
+            return new ItemChange(index, null, text);
+        }
+
+        private boolean isInsert() {
+            return items != null;
+        }
+
+        private boolean isTextChange() {
+            return text != null;
+        }
+    }
+
+    protected abstract void insertClientItems(int index, BBjVector items) throws BBjException;
+
+    protected abstract void removeClientItemAt(int index) throws BBjException;
+
+    protected abstract void removeAllClientItems() throws BBjException;
+
+    protected abstract void setClientTextAt(int index, String text) throws BBjException;
+
+    /**
+     * Sends the complete item list to the client, used when the control is created
+     * and when the items are replaced as a whole
+     */
+    protected void populate() {
+        pendingItemChanges.clear();
+        if (this.ctrl != null) {
+            try {
+                removeAllClientItems();
+                if (items.size() > 0) {
+                    insertClientItems(0, items.getTexts());
+                }
+            } catch (BBjException e) {
+                Environment.logError(e);
+            }
+        }
+    }
+
+    /**
+     * Appends items to the end of the list
+     *
+     * @param items the items to append
+     */
+    protected void appendItems(Map<Object, String> items) {
+        insertItems(this.items.size(), items);
+    }
+
+    /**
+     * Inserts items at the given position and records the insertion for the client.
+     * Keys are unique, an item whose key is already in the list is moved.
+     *
+     * @param index the position of the first item
+     * @param items the items to insert, in the iteration order of the map
+     */
+    protected void insertItems(int index, Map<Object, String> items) {
+        int position = index;
+        for (Object key : items.keySet()) {
+            int existing = this.items.indexOf(key);
+            if (existing >= 0) {
+                removeItem(existing);
+                if (existing < position) {
+                    position--;
+                }
+            }
+        }
+        itemsInserted(position, this.items.insert(position, items));
+    }
+
+    /**
+     * Removes the item at the given position and records the removal for the client
+     *
+     * @param index the position of the item
+     */
+    protected void removeItem(int index) {
+        items.remove(index);
+        itemRemoved(index);
+    }
+
+    /**
+     * Replaces the text of the item at the given position and records the change for the client.
+     * An item that has not reached the client yet is sent with the new text.
+     *
+     * @param index the position of the item
+     * @param text the new text, null is ignored
+     */
+    protected void setItemTextAt(int index, String text) {
+        if (text == null || !items.setText(index, text) || this.ctrl == null) {
+            return;
+        }
+        ItemChange last = lastItemChange();
+        if (last != null && last.isInsert() && index >= last.index && index < last.index + last.items.size()) {
+            last.items.set(index - last.index, text);
+            return;
+        }
+        if (last != null && last.isTextChange() && last.index == index) {
+            last.text = text;
+            return;
+        }
+        pendingItemChanges.add(ItemChange.textChange(index, text));
+        writeProperty(PROP_ITEMS, c -> sendItemChanges());
+    }
+
+    /**
+     * Removes all items and records the removal for the client
+     */
+    protected void clearItems() {
+        items.clear();
+        pendingItemChanges.clear();
+        if (this.ctrl != null) {
+            pendingItemChanges.add(ItemChange.removal(-1));
+            writeProperty(PROP_ITEMS, c -> sendItemChanges());
+        }
+    }
+
+    /**
+     * Replaces all items
+     *
+     * @param items the new items
+     */
+    protected void replaceItems(Map<Object, String> items) {
+        this.items.clear();
+        BBjVector inserted = this.items.insert(0, items);
+        pendingItemChanges.clear();
+        if (this.ctrl != null) {
+            pendingItemChanges.add(ItemChange.removal(-1));
+            itemsInserted(0, inserted);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void itemsInserted(int index, Collection<?> items) {
+        if (this.ctrl == null || items.isEmpty()) {
+            return;
+        }
+        ItemChange last = lastItemChange();
+        if (last != null && last.isInsert() && index >= last.index && index <= last.index + last.items.size()) {
+            last.items.addAll(index - last.index, items);
+        } else {
+            BBjVector inserted = new BBjVector();
+            inserted.addAll(items);
+            pendingItemChanges.add(ItemChange.insert(index, inserted));
+        }
+        writeProperty(PROP_ITEMS, c -> sendItemChanges());
+    }
+
+    private void itemRemoved(int index) {
+        if (this.ctrl == null) {
+            return;
+        }
+        ItemChange last = lastItemChange();
+        if (last != null && last.isInsert() && index >= last.index && index < last.index + last.items.size()) {
+            // the item never reached the client
+            last.items.remove(index - last.index);
+            if (last.items.isEmpty()) {
+                pendingItemChanges.remove(pendingItemChanges.size() - 1);
+            }
+            return;
+        }
+        pendingItemChanges.add(ItemChange.removal(index));
+        writeProperty(PROP_ITEMS, c -> sendItemChanges());
+    }
+
+    /**
+     * Sends the pending item changes right away, so that indexes exchanged with the client
+     * refer to the same items as the model
+     */
+    protected void flushItemChanges() {
+        if (!pendingItemChanges.isEmpty()) {
+            sendItemChanges();
+        }
+    }
+
+    private ItemChange lastItemChange() {
+        return pendingItemChanges.isEmpty() ? null : pendingItemChanges.get(pendingItemChanges.size() - 1);
+    }
+
+    private void sendItemChanges() {
+        if (this.ctrl == null) {
+            pendingItemChanges.clear();
+            return;
+        }
+        try {
+            for (ItemChange change : pendingItemChanges) {
+                if (change.isInsert()) {
+                    insertClientItems(change.index, change.items);
+                } else if (change.isTextChange()) {
+                    setClientTextAt(change.index, change.text);
+                } else if (change.index < 0) {
+                    removeAllClientItems();
+                } else {
+                    removeClientItemAt(change.index);
+                }
+            }
+        } catch (BBjException e) {
+            Environment.logError(e);
+        } finally {
+            pendingItemChanges.clear();
+        }
+    }
+
+    /**
+     * @param index the position of an item
+     * @return the key of the item at that position, or null if the index is out of range
+     */
+    public Object getKeyAt(int index) {
+        return items.getKey(index);
+    }
+
+    /**
+     * @param key the key of an item
+     * @return the position of the item, or -1 if there is no item with that key
+     */
+    public int getIndexOf(Object key) {
+        return items.indexOf(key);
+    }
+
+    /**
+     * @param key the key of an item
+     * @return the text of the item, or null if there is no item with that key
+     */
+    protected String getItemText(Object key) {
+        return items.getText(key);
+    }
+
+    /**
+     * @param index the position of an item
+     * @return the text of the item at that position, or null if the index is out of range
+     */
+    protected String getItemTextAt(int index) {
+        return items.getText(items.getKey(index));
+    }
+
+    /**
+     * @return the number of items in the list
+     */
+    protected int itemCount() {
+        return items.size();
+    }
+
+    /**
+     * @return a read-only view of the items in list order, it follows later item changes
+     */
+    protected Map<Object, String> getItemMap() {
+        return items.asMap();
+    }
+
+    /**
+     * @param index the position of an item
+     * @return the entry at that position, or null if the index is out of range
+     */
+    protected SimpleEntry<Object, String> getEntryAt(Integer index) {
+        if (index == null) {
+            return null;
+        }
+        Object key = items.getKey(index);
+        if (key == null) {
+            return null;
+        }
+        return new SimpleEntry<>(key, items.getText(key));
+    }
 
 }
@@ -3,12 +3,16 @@ package org.dwcj.controls.listbox;
 import com.basis.bbj.proxies.sysgui.BBjListBox;
 import com.basis.bbj.proxies.sysgui.BBjWindow;
 import com.basis.startup.type.BBjException;
+import com.basis.startup.type.BBjVector;
 
 import org.dwcj.Environment;
+import org.dwcj.bbj.database.QueryResult;
 import org.dwcj.bridge.PanelAccessor;
 import org.dwcj.controls.listbox.events.ListBoxDoubleClickEvent;
+import org.dwcj.controls.listbox.events.ListBoxScrollEvent;
 import org.dwcj.controls.listbox.events.ListBoxSelectEvent;
 import org.dwcj.controls.listbox.sinks.ListBoxDoubleClickEventSink;
+import org.dwcj.controls.listbox.sinks.ListBoxScrollEventSink;
 import org.dwcj.controls.listbox.sinks.ListBoxSelectEventSink;
 import org.dwcj.controls.panels.AbstractDwcjPanel;
 import org.dwcj.interfaces.Focusable;
@@ -35,14 +39,33 @@ public final class ListBox extends AbstractDwclistControl implements Scrollable,
     private ListBoxSelectEventSink selectEventSink;
     private ArrayList<Consumer<ListBoxDoubleClickEvent>> doubleClickEvents = new ArrayList<>();
     private ListBoxDoubleClickEventSink doubleClickEventSink;
+    private ArrayList<Consumer<ListBoxScrollEvent>> scrollEvents = new ArrayList<>();
+    private ListBoxScrollEventSink scrollEventSink;
     Boolean multipleSelection = false;
-    private SimpleEntry<Integer, String> textAt = null;
+
+    /*
+     * Data provider mode: only a window of the data, the visible rows plus a prefetch
+     * margin on each side, is held in the item model and on the client. The window is
+     * moved when a scroll brings the visible rows close to its edge.
+     *
+     * The client list only ever holds the window, so its scrollbar spans the window and
+     * not the whole data: the thumb does not show the position in the data, and dragging
+     * it to an end only moves one window further. Padding the list with spacer rows would
+     * make the scrollbar match, but the spacers would be real, selectable items.
+     */
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int DEFAULT_MAX_CACHED_PAGES = 10;
+    private static final int VISIBLE_ROW_COUNT = 25;
+    private ListPageCache pageCache = null;
+    private int windowOffset = 0;
+    private Integer rowHeight = 20;
 
 
     public ListBox(){
         this.horizontalScrollBarPosition = 0;
         this.verticalScrollBarPosition = 0;
         this.readOnly = false;
+        setClientOwned(PROP_TEXT, true);
         this.focusable = true;
         this.mouseWheelCondition = MouseWheelCondition.DEFAULT;
         this.tabTraversable = true;
@@ -74,51 +97,43 @@ public final class ListBox extends AbstractDwclistControl implements Scrollable,
      * @return the control itself
      */
     public ListBox addItem(Object key, String item) {
-        this.values.put(key, item);
-        data2.add(values.get(key));
-        populate();
+        appendItems(Collections.singletonMap(key, item));
         return this;
     }
 
     public ListBox insertItemAt(Object key, String item, Integer index){
-        this.values.put(key, item);
-        data2.add(index, values.get(key));
-        populate();
+        insertItems(index, Collections.singletonMap(key, item));
         return this;
     }
 
     public ListBox addItems(Map<Object, String> items){
-        this.values.putAll(items);
-        Iterator<Object> it = items.keySet().iterator();
-        while (it.hasNext()) {
-            data2.add(values.get(it.next()));
-        }
-        populate();
+        appendItems(items);
         return this;
     }
 
     public ListBox insertItemsAt(Map<Object, String> items, Integer index){
-        this.values.putAll(items);
-        Iterator<Object> it = items.keySet().iterator();
-        Integer counter = 0;
-        while (it.hasNext()) {
-            data2.add(index + counter++, values.get(it.next()));
-        }
-        populate();
+        insertItems(index, items);
         return this;
     }
 
-    @SuppressWarnings("unchecked")
-    protected void populate() {
-        if(this.ctrl != null){
-            try{
-                BBjListBox cb = (BBjListBox) ctrl;
-                cb.removeAllItems();
-                cb.insertItems(0, data2);
-            } catch(BBjException e){
-                Environment.logError(e);
-            }
-        }
+    @Override
+    protected void insertClientItems(int index, BBjVector items) throws BBjException {
+        ((BBjListBox) ctrl).insertItems(index, items);
+    }
+
+    @Override
+    protected void removeClientItemAt(int index) throws BBjException {
+        ((BBjListBox) ctrl).removeItemAt(index);
+    }
+
+    @Override
+    protected void removeAllClientItems() throws BBjException {
+        ((BBjListBox) ctrl).removeAllItems();
+    }
+
+    @Override
+    protected void setClientTextAt(int index, String text) throws BBjException {
+        ((BBjListBox) ctrl).setTextAt(index, text);
     }
 
    
@@ -138,6 +153,7 @@ public final class ListBox extends AbstractDwclistControl implements Scrollable,
     public ListBox deselectIndex(int index) {
         if(this.ctrl != null){
             try{
+                flushItemChanges();
                 bbjListBox.deselectIndex(index);
             } catch(BBjException e){
                 Environment.logError(e);
@@ -147,14 +163,12 @@ public final class ListBox extends AbstractDwclistControl implements Scrollable,
     }
     
     /**
-     * Returns a map of all of the items within the ListBox 
+     * Returns a read-only map of all of the items within the ListBox, in list order.
+     * The map is a view and reflects later item changes.
      * @return all values in the listBox
      */
     public Map<Object, String> getAllItems() {
-        if(this.ctrl != null){
-            return this.values;
-        }
-        return Collections.emptyMap();
+        return getItemMap();
     }
 
     /**
@@ -163,35 +177,20 @@ public final class ListBox extends AbstractDwclistControl implements Scrollable,
      * @return String item at the given key
      */
     public String getItem(Object key) {
-        if(this.ctrl != null){
-            return values.get(key);
-        }
-        return null;
+        return getItemText(key);
     }
     
     public String getItemAt(Integer idx){
-        if(this.ctrl != null){
-            try{
-                BBjListBox cb = (BBjListBox) ctrl;
-                return cb.getItemAt(idx);
-            } catch(BBjException e){
-                Environment.logError(e);
-            }
-        }
-        return null;
+        return getItemTextAt(idx);
     }
     
     
-        public Integer getItemCount() {
-            if(this.ctrl != null){
-                try{
-                    bbjListBox.getItemCount();
-                } catch(BBjException e){
-                    Environment.logError(e);
-                }
-            }
-            return null;
+    public Integer getItemCount() {
+        if (pageCache != null) {
+            return pageCache.getCount();
         }
+        return itemCount();
+    }
 
     /**
      * Returns true or false based on the ListBox allows selection of multiple items
@@ -209,15 +208,16 @@ public final class ListBox extends AbstractDwclistControl implements Scrollable,
     }
 
     /**
-     * returns the currently selected item, implemented for one-to-one value maps
+     * returns the currently selected item, resolved from the selected index
      *
-     * @return selected entry
+     * @return selected entry, with a null key and value if nothing is selected
      */
     public SimpleEntry<Object, String> getSelectedItem() {
         if(this.ctrl != null){
             try {
-                String value = bbjListBox.getSelectedItem();
-                return new SimpleEntry<>(getEntryByValue(value), value);
+                flushItemChanges();
+                SimpleEntry<Object, String> entry = getEntryAt(bbjListBox.getSelectedIndex());
+                return entry == null ? new SimpleEntry<>(null, null) : entry;
             } catch (BBjException e) {
                 Environment.logError(e);
             }
@@ -226,12 +226,9 @@ public final class ListBox extends AbstractDwclistControl implements Scrollable,
     }
 
     public SimpleEntry<Object, String> getEntryByValue(String value) {
-        if(this.ctrl != null){
-            Map<Object, String> map = this.values;
-            for (Map.Entry<Object, String> entry : map.entrySet()) {
-                if (Objects.equals(value, entry.getValue())) {
-                    return new SimpleEntry<>(entry.getKey(), value);
-                }
+        for (Map.Entry<Object, String> entry : getItemMap().entrySet()) {
+            if (Objects.equals(value, entry.getValue())) {
+                return new SimpleEntry<>(entry.getKey(), value);
             }
         }
         return null;
@@ -244,15 +241,14 @@ public final class ListBox extends AbstractDwclistControl implements Scrollable,
      */
     public Map<Object, String> getSelectedItems() {
         if(this.ctrl != null){
-            Map<Object, String> map = new HashMap<>();
+            Map<Object, String> map = new LinkedHashMap<>();
             try {
+                flushItemChanges();
                 Object[] indices = bbjListBox.getSelectedIndices().toArray();
                 for (Object index: indices) {
-                    String value = bbjListBox.getItemAt((Integer) index);
-                    SimpleEntry<Object, String> entry = getEntryByValue(value);
+                    SimpleEntry<Object, String> entry = getEntryAt((Integer) index);
                     if (entry != null) {
-                        Object key = entry.getKey();
-                        if (key != null) map.put(key, value);
+                        map.put(entry.getKey(), entry.getValue());
                     }
                 }
             } catch (BBjException e) {
@@ -271,16 +267,149 @@ public final class ListBox extends AbstractDwclistControl implements Scrollable,
      * @return ListBox
      */
     public ListBox setItems(Map<Object, String> values) {
-        this.values = values;
-        data2.clear();
-        Iterator<Object> it = values.keySet().iterator();
-        while (it.hasNext()) {
-            data2.add(values.get(it.next()));
+        replaceItems(values);
+        return this;
+    }
+
+    /**
+     * Replaces the items with two columns of a query result, for example one served by the
+     * QueryCache
+     *
+     * @param result the query result
+     * @param keyColumn the label of the column holding the item keys
+     * @param textColumn the label of the column holding the item texts
+     * @return the control itself
+     */
+    public ListBox setItems(QueryResult result, String keyColumn, String textColumn) {
+        replaceItems(result.toItemMap(keyColumn, textColumn));
+        return this;
+    }
+
+    /**
+     * Switches the ListBox to data provider mode, with default paging. Only the rows around
+     * the visible part of the list are fetched and sent to the client, the window follows
+     * the vertical scroll position. The item methods operate on the loaded window.
+     * The scrollbar covers the loaded window only, not the whole data, use
+     * {@link #getDataOffset()} and {@link #getItemCount()} to show the position in the data.
+     * @param provider - the provider of the items, or null to leave data provider mode and clear the list
+     * @return ListBox
+     */
+    public ListBox setDataProvider(ListDataProvider provider) {
+        return setDataProvider(provider, DEFAULT_PAGE_SIZE, DEFAULT_MAX_CACHED_PAGES);
+    }
+
+    /**
+     * Switches the ListBox to data provider mode. The provider is asked for pages of pageSize
+     * items, at most maxCachedPages pages are kept, the least recently used one is evicted first.
+     * The scrollbar covers the loaded window only, see {@link #setDataProvider(ListDataProvider)}.
+     * @param provider - the provider of the items, or null to leave data provider mode and clear the list
+     * @param pageSize - number of items fetched from the provider at once
+     * @param maxCachedPages - number of pages kept in the session
+     * @return ListBox
+     */
+    public ListBox setDataProvider(ListDataProvider provider, int pageSize, int maxCachedPages) {
+        this.windowOffset = 0;
+        if (provider == null) {
+            this.pageCache = null;
+            clearItems();
+            return this;
+        }
+        this.pageCache = new ListPageCache(provider, pageSize, maxCachedPages);
+        loadWindow(0);
+        if (this.ctrl != null) {
+            createScrollEventSink();
+        }
+        return this;
+    }
+
+    /**
+     * Drops the cached pages and reloads the current window from the data provider
+     * @return ListBox
+     */
+    public ListBox refreshData() {
+        if (pageCache != null) {
+            pageCache.invalidate();
+            loadWindow(Math.max(0, Math.min(windowOffset, pageCache.getCount() - getWindowLength())));
         }
-        populate();
         return this;
     }
 
+    /**
+     * Scrolls the item at the given position of the data into view, loading its window
+     * from the data provider if needed
+     * @param index - position of the item in the data, 0 based
+     * @return ListBox
+     */
+    public ListBox scrollToIndex(int index) {
+        if (pageCache != null && (index < windowOffset || index >= windowOffset + itemCount())) {
+            loadWindow(getWindowStart(index));
+        }
+        flushItemChanges();
+        return setVerticalScrollBarPosition((index - windowOffset) * rowHeight);
+    }
+
+    /**
+     * In data provider mode, returns the position in the data of the first item loaded into
+     * the list. Add it to an index of the list to get the position in the data.
+     * @return Integer offset of the loaded window
+     */
+    public Integer getDataOffset() {
+        return windowOffset;
+    }
+
+    /**
+     * Sets the height of a row in pixels, used to translate the vertical scroll position
+     * into rows in data provider mode
+     * @param rowHeight - row height in pixels
+     * @return ListBox
+     */
+    public ListBox setRowHeight(Integer rowHeight) {
+        if (rowHeight != null && rowHeight > 0) {
+            this.rowHeight = rowHeight;
+        }
+        return this;
+    }
+
+    private int getWindowLength() {
+        return VISIBLE_ROW_COUNT + pageCache.getPageSize();
+    }
+
+    private int getWindowStart(int firstVisible) {
+        int start = firstVisible - pageCache.getPageSize() / 2;
+        return Math.max(0, Math.min(start, pageCache.getCount() - getWindowLength()));
+    }
+
+    private void loadWindow(int offset) {
+        this.windowOffset = offset;
+        replaceItems(pageCache.getRange(offset, getWindowLength()));
+    }
+
+    private void onDataScroll() {
+        if (pageCache == null) {
+            return;
+        }
+        int firstVisible = windowOffset + getVerticalScrollBarPosition() / rowHeight;
+        int margin = pageCache.getPageSize() / 4;
+        boolean nearTop = windowOffset > 0 && firstVisible - windowOffset < margin;
+        boolean nearBottom = windowOffset + itemCount() < pageCache.getCount()
+                && windowOffset + itemCount() - (firstVisible + VISIBLE_ROW_COUNT) < margin;
+        if (nearTop || nearBottom) {
+            int start = getWindowStart(firstVisible);
+            if (start != windowOffset) {
+                loadWindow(start);
+                flushItemChanges();
+                setVerticalScrollBarPosition((firstVisible - start) * rowHeight);
+            }
+        }
+    }
+
+    private void createScrollEventSink() {
+        if (this.scrollEventSink == null) {
+            this.scrollEventSink = new ListBoxScrollEventSink(this);
+            this.scrollEventSink.addCallback(ev -> onDataScroll());
+        }
+    }
+
 
 
     /**
@@ -301,6 +430,17 @@ public final class ListBox extends AbstractDwclistControl implements Scrollable,
         return this;
     }
 
+    public ListBox onScroll(Consumer<ListBoxScrollEvent> callback) {
+        if(this.ctrl != null){
+            createScrollEventSink();
+            this.scrollEventSink.addCallback(callback);
+        }
+        else{
+            this.scrollEvents.add(callback);
+        }
+        return this;
+    }
+
     public ListBox onDoubleClick(Consumer<ListBoxDoubleClickEvent> callback) {
         if(this.ctrl != null){
             if(this.doubleClickEventSink == null){
@@ -321,30 +461,19 @@ public final class ListBox extends AbstractDwclistControl implements Scrollable,
      */
     
     public ListBox removeAllItems(){
-        if(this.ctrl != null){
-            try{
-                ((BBjListBox) this.ctrl).removeAllItems();
-            } catch(BBjException e){
-                Environment.logError(e);
-            }
-        }
+        clearItems();
         return this;
     }
 
     public ListBox removeItemAt(Integer idx){
-        if(this.ctrl != null){
-            try{
-                ((BBjListBox) this.ctrl).removeItemAt(idx);
-            }catch(BBjException e){
-                Environment.logError(e);
-            }
-        }
+        removeItem(idx);
         return this;
     }
 
     public ListBox selectIndex(Integer idx){
         if(this.ctrl != null){
             try{
+                flushItemChanges();
                 ((BBjListBox) this.ctrl).selectIndex(idx);
             }catch(BBjException e){
                 Environment.logError(e);
@@ -353,6 +482,15 @@ public final class ListBox extends AbstractDwclistControl implements Scrollable,
         return this;
     }
 
+    public ListBox selectKey(Object key){
+        int index = getIndexOf(key);
+        if(index >= 0){
+            selectIndex(index);
+        }
+        return this;
+    }
+
+
 
     public ListBox setMultipleSelection(Boolean multipleSelection) {
         if(this.ctrl != null){
@@ -367,14 +505,7 @@ public final class ListBox extends AbstractDwclistControl implements Scrollable,
     }
 
     public ListBox setTextAt(Integer idx, String text){
-        this.textAt = new SimpleEntry<>(idx, text);
-        if(this.ctrl != null){
-            try{
-                ((BBjListBox) this.ctrl).setTextAt(idx, text);
-            } catch(BBjException e){
-                Environment.logError(e);
-            }
-        }
+        setItemTextAt(idx, text);
         return this;
     }
 
@@ -485,7 +616,7 @@ public final class ListBox extends AbstractDwclistControl implements Scrollable,
     @Override
     public Integer getVerticalScrollBarPosition(){
         if(this.ctrl != null){
-                ((BBjListBox) this.ctrl).getVerticalScrollBarPosition();
+                return ((BBjListBox) this.ctrl).getVerticalScrollBarPosition();
         }
         return this.verticalScrollBarPosition;
 
@@ -674,6 +805,13 @@ public final class ListBox extends AbstractDwclistControl implements Scrollable,
             }
         }
 
+        if(!this.scrollEvents.isEmpty() || this.pageCache != null){
+            createScrollEventSink();
+            while(!this.scrollEvents.isEmpty()){
+                this.scrollEventSink.addCallback(this.scrollEvents.remove(0));
+            }
+        }
+
         if(!this.doubleClickEvents.isEmpty()){
             this.doubleClickEventSink = new ListBoxDoubleClickEventSink(this);
             while(!this.doubleClickEvents.isEmpty()){
@@ -685,16 +823,12 @@ public final class ListBox extends AbstractDwclistControl implements Scrollable,
             this.setMultipleSelection(this.multipleSelection);
         }
 
-        if(this.textAt != null){
-            this.setTextAt(this.textAt.getKey(), this.textAt.getValue());
-        }
-
         if(this.horizontalScrollBarPosition != 0){
             this.setHorizontalScrollBarPosition(this.horizontalScrollBarPosition);
         }
 
         if(this.verticalScrollBarPosition != 0){
-            this.setVerticalScrollBarPosition(this.horizontalScrollBarPosition);
+            this.setVerticalScrollBarPosition(this.verticalScrollBarPosition);
         }
 
         if(Boolean.TRUE.equals(this.readOnly)){
@@ -0,0 +1,26 @@
+package org.dwcj.controls.listbox;
+
+import java.util.Map;
+
+/**
+ * Supplies the items of a ListBox in data provider mode. The ListBox only asks for the
+ * rows around the visible part of the list, so the complete data set never has to be
+ * held in the session or sent to the client.
+ */
+public interface ListDataProvider {
+
+    /**
+     * @return the total number of items
+     */
+    int getCount();
+
+    /**
+     * Fetch a range of items
+     *
+     * @param offset the position of the first item, 0 based
+     * @param limit the maximum number of items to return
+     * @return the items in list order, keyed by their unique key. May hold fewer than
+     *         limit items at the end of the data.
+     */
+    Map<Object, String> fetch(int offset, int limit);
+}
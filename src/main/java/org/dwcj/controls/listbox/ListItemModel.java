@@ -0,0 +1,194 @@
+package org.dwcj.controls.listbox;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.basis.startup.type.BBjVector;
+
+/**
+ * Ordered item model behind the list controls. Every item is identified by a unique key,
+ * the index of a key and the key at an index are both answered from hash lookups instead of
+ * scanning the item texts, so duplicate display strings are not ambiguous.
+ *
+ * The key-to-index map is repaired lazily: a positional insert or remove only lowers the
+ * watermark below which the cached indexes are known to be correct, and the tail is
+ * re-indexed once on the next lookup that needs it. Appending items keeps the map valid.
+ */
+final class ListItemModel {
+
+    private final List<Object> keys = new ArrayList<>();
+    private final Map<Object, String> texts = new HashMap<>();
+    private final Map<Object, Integer> positions = new HashMap<>();
+
+    // cached positions lower than this are correct, the ones above may be stale
+    private int indexedUpTo = 0;
+
+    int size() {
+        return keys.size();
+    }
+
+    boolean containsKey(Object key) {
+        return texts.containsKey(key);
+    }
+
+    /**
+     * @param index the position of the item
+     * @return the key at that position, or null if the index is out of range
+     */
+    Object getKey(int index) {
+        if (index < 0 || index >= keys.size()) {
+            return null;
+        }
+        return keys.get(index);
+    }
+
+    String getText(Object key) {
+        return texts.get(key);
+    }
+
+    /**
+     * @param index the position of the item
+     * @param text the new text of the item
+     * @return false if the index is out of range
+     */
+    boolean setText(int index, String text) {
+        Object key = getKey(index);
+        if (key == null) {
+            return false;
+        }
+        texts.put(key, text);
+        return true;
+    }
+
+    /**
+     * @param key the key of the item
+     * @return the position of the item, or -1 if there is no item with that key
+     */
+    int indexOf(Object key) {
+        Integer position = positions.get(key);
+        if (position == null) {
+            return -1;
+        }
+        if (position < indexedUpTo) {
+            return position;
+        }
+        for (int i = indexedUpTo; i < keys.size(); i++) {
+            positions.put(keys.get(i), i);
+        }
+        indexedUpTo = keys.size();
+        return positions.get(key);
+    }
+
+    /**
+     * Inserts items at the given position. The keys must not be in the model yet.
+     *
+     * @param index the position of the first item
+     * @param items the items, in the iteration order of the map
+     * @return the texts of the inserted items, in order
+     */
+    @SuppressWarnings("unchecked")
+    BBjVector insert(int index, Map<Object, String> items) {
+        boolean append = index == keys.size() && indexedUpTo == keys.size();
+        keys.addAll(index, items.keySet());
+        BBjVector inserted = new BBjVector();
+        int position = index;
+        for (Map.Entry<Object, String> item : items.entrySet()) {
+            texts.put(item.getKey(), item.getValue());
+            positions.put(item.getKey(), position++);
+            inserted.add(item.getValue());
+        }
+        indexedUpTo = append ? keys.size() : Math.min(indexedUpTo, index);
+        return inserted;
+    }
+
+    /**
+     * @param index the position of the item to remove
+     * @return the key of the removed item
+     */
+    Object remove(int index) {
+        Object key = keys.remove(index);
+        texts.remove(key);
+        positions.remove(key);
+        indexedUpTo = Math.min(indexedUpTo, index);
+        return key;
+    }
+
+    void clear() {
+        keys.clear();
+        texts.clear();
+        positions.clear();
+        indexedUpTo = 0;
+    }
+
+    /**
+     * @return the texts of all items, in order
+     */
+    @SuppressWarnings("unchecked")
+    BBjVector getTexts() {
+        BBjVector result = new BBjVector();
+        for (Object key : keys) {
+            result.add(texts.get(key));
+        }
+        return result;
+    }
+
+    /**
+     * @return a read-only view of the items, in order. The view follows later changes of the model.
+     */
+    Map<Object, String> asMap() {
+        return view;
+    }
+
+    private final Map<Object, String> view = new AbstractMap<Object, String>() {
+
+        private final Set<Map.Entry<Object, String>> entries = new AbstractSet<Map.Entry<Object, String>>() {
+            @Override
+            public Iterator<Map.Entry<Object, String>> iterator() {
+                Iterator<Object> order = keys.iterator();
+                return new Iterator<Map.Entry<Object, String>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return order.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<Object, String> next() {
+                        Object key = order.next();
+                        return new SimpleImmutableEntry<>(key, texts.get(key));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return keys.size();
+            }
+        };
+
+        @Override
+        public Set<Map.Entry<Object, String>> entrySet() {
+            return entries;
+        }
+
+        @Override
+        public int size() {
+            return keys.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return texts.containsKey(key);
+        }
+
+        @Override
+        public String get(Object key) {
+            return texts.get(key);
+        }
+    };
+}
@@ -0,0 +1,94 @@
+package org.dwcj.controls.listbox;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded page cache in front of a ListDataProvider. Items are fetched in fixed size pages,
+ * and the least recently used page is evicted once more than the configured number of
+ * pages is held, so the memory used per ListBox does not grow with the size of the data.
+ */
+final class ListPageCache {
+
+    private final ListDataProvider provider;
+    private final int pageSize;
+    private final Map<Integer, List<Map.Entry<Object, String>>> pages;
+    private int count = -1;
+
+    ListPageCache(ListDataProvider provider, int pageSize, int maxPages) {
+        if (pageSize < 1 || maxPages < 1) {
+            throw new IllegalArgumentException("pageSize and maxPages must be at least 1");
+        }
+        this.provider = provider;
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<Integer, List<Map.Entry<Object, String>>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Map.Entry<Object, String>>> eldest) {
+                return size() > maxPages;
+            }
+        };
+    }
+
+    int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * @return the total number of items, as reported by the provider on first use
+     */
+    int getCount() {
+        if (count < 0) {
+            count = Math.max(0, provider.getCount());
+        }
+        return count;
+    }
+
+    /**
+     * @param offset the position of the first item
+     * @param length the number of items
+     * @return the items of the range in list order, shorter than length at the end of the data
+     */
+    Map<Object, String> getRange(int offset, int length) {
+        Map<Object, String> result = new LinkedHashMap<>();
+        int end = Math.min(offset + length, getCount());
+        int position = Math.max(0, offset);
+        while (position < end) {
+            List<Map.Entry<Object, String>> page = getPage(position / pageSize);
+            int inPage = position % pageSize;
+            if (inPage >= page.size()) {
+                // the provider returned less than announced
+                break;
+            }
+            int take = Math.min(page.size() - inPage, end - position);
+            for (Map.Entry<Object, String> item : page.subList(inPage, inPage + take)) {
+                result.put(item.getKey(), item.getValue());
+            }
+            position += take;
+        }
+        return result;
+    }
+
+    /**
+     * Drops all cached pages and the item count, the next access asks the provider again
+     */
+    void invalidate() {
+        pages.clear();
+        count = -1;
+    }
+
+    private List<Map.Entry<Object, String>> getPage(int page) {
+        List<Map.Entry<Object, String>> items = pages.get(page);
+        if (items == null) {
+            Map<Object, String> fetched = provider.fetch(page * pageSize, pageSize);
+            items = new ArrayList<>(fetched.size());
+            for (Map.Entry<Object, String> item : fetched.entrySet()) {
+                items.add(new SimpleImmutableEntry<>(item.getKey(), item.getValue()));
+            }
+            pages.put(page, items);
+        }
+        return items;
+    }
+}
@@ -0,0 +1,16 @@
+package org.dwcj.controls.listbox.events;
+
+import org.dwcj.controls.listbox.ListBox;
+import org.dwcj.interfaces.ControlEvent;
+
+public final class ListBoxScrollEvent implements ControlEvent {
+
+    private final ListBox control;
+
+    public ListBoxScrollEvent(ListBox clistBox) {
+        this.control = clistBox;
+    }
+
+    @Override
+    public ListBox getControl() { return control; }
+}
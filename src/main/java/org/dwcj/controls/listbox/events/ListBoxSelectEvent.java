@@ -17,6 +17,11 @@ public final class ListBoxSelectEvent implements ControlEvent {
         this.keys.add(control.getSelectedItem().getKey());
     }
 
+    public ListBoxSelectEvent(ListBox clistBox, Object key) {
+        this.control = clistBox;
+        this.keys.add(key);
+    }
+
     public void addKey(Object key) { keys.add(key); }
     public List<Object> getKeys() { return keys; }
 
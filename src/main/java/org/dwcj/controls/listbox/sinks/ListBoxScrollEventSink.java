@@ -0,0 +1,45 @@
+package org.dwcj.controls.listbox.sinks;
+
+import com.basis.bbj.proxies.event.BBjControlScrollEvent;
+import com.basis.bbj.proxies.sysgui.BBjControl;
+import org.dwcj.Environment;
+import org.dwcj.bridge.ControlAccessor;
+import org.dwcj.controls.listbox.ListBox;
+import org.dwcj.controls.listbox.events.ListBoxScrollEvent;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+public final class ListBoxScrollEventSink {
+
+    private final ArrayList<Consumer<ListBoxScrollEvent>> targets = new ArrayList<>();
+
+    private final ListBox listBox;
+
+    @SuppressWarnings({"static-access"})
+    public ListBoxScrollEventSink(ListBox listBox) {
+        this.listBox = listBox;
+
+        try {
+            BBjControl bbjctrl = ControlAccessor.getDefault().getBBjControl(listBox);
+            bbjctrl.setCallback(Environment.getInstance().getBBjAPI().ON_CONTROL_SCROLL,
+                    Environment.getInstance().getDwcjHelper().getEventProxy(this, "scrollEvent"),
+                    "onEvent");
+        } catch (Exception e) {
+            Environment.logError(e);
+        }
+    }
+
+    @SuppressWarnings("java:S1172")
+    public void scrollEvent(BBjControlScrollEvent ev) { //NOSONAR
+        ListBoxScrollEvent dwcEv = new ListBoxScrollEvent(this.listBox);
+        Iterator<Consumer<ListBoxScrollEvent>> it = targets.iterator();
+        while (it.hasNext())
+            it.next().accept(dwcEv);
+    }
+
+    public void addCallback(Consumer<ListBoxScrollEvent> callback) {
+        targets.add(callback);
+    }
+}
@@ -50,9 +50,8 @@ public final class ListBoxSelectEventSink {
         }
     }
 
-    @SuppressWarnings("java:S1172")
-    public void selectEvent(BBjListClickEvent ev) { //NOSONAR
-        ListBoxSelectEvent dwcEv = new ListBoxSelectEvent(this.listBox);
+    public void selectEvent(BBjListClickEvent ev) {
+        ListBoxSelectEvent dwcEv = new ListBoxSelectEvent(this.listBox, this.listBox.getKeyAt(ev.getSelectedIndex()));
         Iterator<Consumer<ListBoxSelectEvent>> it = targets.iterator();
         while (it.hasNext())
             it.next().accept(dwcEv);
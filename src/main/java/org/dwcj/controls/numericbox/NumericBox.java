@@ -64,6 +64,7 @@ public class NumericBox extends AbstractDwcControl implements HasReadOnly, Focus
     public NumericBox(String text) {
         setText(text);
         this.readOnly = false;
+        setClientOwned(PROP_TEXT, true);
         this.focusable = true;
         this.tabTraversable = true;
         this.textAlignment = Alignment.LEFT; 
@@ -90,7 +91,7 @@ public class NumericBox extends AbstractDwcControl implements HasReadOnly, Focus
     public NumericBox onEditModify(Consumer<NumericBoxEditModifyEvent> callback){
         if(this.ctrl != null){
             if(this.editModifyEventSink == null){
-                this.editModifyEventSink = new NumericBoxEditModifyEventSink(this);
+                createEditModifyEventSink();
             }
             this.editModifyEventSink.addCallback(callback);
         }
@@ -331,6 +332,7 @@ public class NumericBox extends AbstractDwcControl implements HasReadOnly, Focus
      * Sets the text in the NumericBox control to the restore string. The restore string is set in the creation of the BBjInputN control or by calling the NumericBox::setRestoreString method.
      */
     public void restore() {
+        invalidateProperty(PROP_TEXT);
         if(this.ctrl != null){
             try {
                 numBox.restore();
@@ -398,6 +400,7 @@ public class NumericBox extends AbstractDwcControl implements HasReadOnly, Focus
      * @return Returns this
      */
     public NumericBox setEditString(String edit) {
+        invalidateProperty(PROP_TEXT);
         if(this.ctrl != null){
             try {
                 numBox.setEditString(edit.getBytes());
@@ -586,6 +589,7 @@ public class NumericBox extends AbstractDwcControl implements HasReadOnly, Focus
      * @return Returns this
      */
     public NumericBox setValue(BigDecimal value) {
+        invalidateProperty(PROP_TEXT);
         if(this.ctrl != null){
             try {
                 numBox.setValue(BasisNumber.createBasisNumber(value));
@@ -799,6 +803,16 @@ public class NumericBox extends AbstractDwcControl implements HasReadOnly, Focus
 
 
 
+    /**
+     * Creates the edit-modify sink. From then on the event keeps the shadow text up to date,
+     * so getText() only asks the client after the user changed the text.
+     */
+    private void createEditModifyEventSink(){
+        this.editModifyEventSink = new NumericBoxEditModifyEventSink(this);
+        this.editModifyEventSink.addCallback(ev -> invalidateProperty(PROP_TEXT));
+        setClientOwned(PROP_TEXT, false);
+    }
+
     @Override
     @SuppressWarnings("java:S3776") // tolerate cognitive complexity for now, it's just a batch list of checks
     protected void catchUp() throws IllegalAccessException {
@@ -806,7 +820,7 @@ public class NumericBox extends AbstractDwcControl implements HasReadOnly, Focus
         super.catchUp();
 
         if(!this.callbacks.isEmpty()){
-            this.editModifyEventSink = new NumericBoxEditModifyEventSink(this);
+            createEditModifyEventSink();
             while(!this.callbacks.isEmpty()){
                 this.editModifyEventSink.addCallback(this.callbacks.remove(0));
             }
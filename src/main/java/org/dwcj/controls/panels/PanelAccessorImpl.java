@@ -2,6 +2,7 @@ package org.dwcj.controls.panels;
 
 import com.basis.bbj.proxies.sysgui.BBjWindow;
 import org.dwcj.App;
+import org.dwcj.bridge.FriendCallerCheck;
 import org.dwcj.bridge.PanelAccessor;
 
 /**
@@ -13,13 +14,10 @@ final class PanelAccessorImpl extends PanelAccessor {
     @Override
     public BBjWindow getBBjWindow(AbstractDwcjPanel panel) throws IllegalAccessException {
 
-        StackTraceElement[] stack = Thread.currentThread().getStackTrace();
-        String caller = stack[2].getClassName();
-        if (caller.startsWith("org.dwcj.")
-
-        ) return panel.getBBjWindow();
-        App.consoleLog(caller + ": You're not allowed to access this method!");
-        throw new IllegalAccessException(caller + ": You're not allowed to access this method!");
+        Class<?> caller = FriendCallerCheck.WALKER.getCallerClass();
+        if (FriendCallerCheck.isFriend(caller)) return panel.getBBjWindow();
+        App.consoleLog(caller.getName() + ": You're not allowed to access this method!");
+        throw new IllegalAccessException(caller.getName() + ": You're not allowed to access this method!");
 
     }
 }
@@ -60,6 +60,7 @@ public final class StringEditBox extends AbstractDwcControl implements HasReadOn
     public StringEditBox(String text) {
         setText(text);
         this.readOnly = false;
+        setClientOwned(PROP_TEXT, true);
         this.focusable = true;
         this.tabTraversable = true;
         this.textAlignment = Alignment.LEFT;
@@ -83,7 +84,7 @@ public final class StringEditBox extends AbstractDwcControl implements HasReadOn
 
         if(this.ctrl != null){
             if(this.editModifyEventSink == null){
-                this.editModifyEventSink = new StringEditBoxEditModifyEventSink(this);
+                createEditModifyEventSink();
             }
             this.editModifyEventSink.addCallback(callback);
         }
@@ -230,6 +231,7 @@ public final class StringEditBox extends AbstractDwcControl implements HasReadOn
 
 
     public StringEditBox restore() {
+        invalidateProperty(PROP_TEXT);
         if(this.ctrl != null){
             try {
                 bbjInputE.restore();
@@ -265,6 +267,7 @@ public final class StringEditBox extends AbstractDwcControl implements HasReadOn
     }
 
     public StringEditBox setEditString(String edit) {
+        invalidateProperty(PROP_TEXT);
         if(this.ctrl != null){
             try {
                 bbjInputE.setEditString(edit.getBytes(StandardCharsets.UTF_8));
@@ -571,6 +574,16 @@ public final class StringEditBox extends AbstractDwcControl implements HasReadOn
 
 
 
+    /**
+     * Creates the edit-modify sink. From then on the event keeps the shadow text up to date,
+     * so getText() only asks the client after the user changed the text.
+     */
+    private void createEditModifyEventSink(){
+        this.editModifyEventSink = new StringEditBoxEditModifyEventSink(this);
+        this.editModifyEventSink.addCallback(ev -> invalidateProperty(PROP_TEXT));
+        setClientOwned(PROP_TEXT, false);
+    }
+
     @Override
     protected void catchUp() throws IllegalAccessException {
         if (Boolean.TRUE.equals(this.getCaughtUp())) throw new IllegalAccessException("catchUp cannot be called twice");
@@ -578,7 +591,7 @@ public final class StringEditBox extends AbstractDwcControl implements HasReadOn
 
         
         if(!this.callbacks.isEmpty()){
-            this.editModifyEventSink = new StringEditBoxEditModifyEventSink(this);
+            createEditModifyEventSink();
             while(!this.callbacks.isEmpty()){
                 this.editModifyEventSink.addCallback(this.callbacks.remove(0));
             }
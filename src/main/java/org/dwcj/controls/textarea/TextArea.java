@@ -58,6 +58,7 @@ public final class TextArea extends AbstractDwcControl implements HasReadOnly, T
 
     public TextArea(){
         this.readOnly = false;
+        setClientOwned(PROP_TEXT, true);
         this.textHighlight = Highlight.HIGHLIGHT_NONE;
         this.horizontalScrollBarPosition = 0;
         this.verticalScrollBarPosition = 0;
@@ -84,7 +85,7 @@ public final class TextArea extends AbstractDwcControl implements HasReadOnly, T
     public TextArea onEditModify(Consumer<TextAreaOnEditModifyEvent> callback){
         if(this.ctrl != null){
             if(this.editModifyEventSink == null){
-                this.editModifyEventSink = new TextAreaOnEditModifyEventSink(this);
+                createEditModifyEventSink();
             }
             this.editModifyEventSink.addCallback(callback);
         }
@@ -101,6 +102,7 @@ public final class TextArea extends AbstractDwcControl implements HasReadOnly, T
      * @return Returns this
      */
     public TextArea addParagraph(Integer index, String paragraph) {
+        invalidateProperty(PROP_TEXT);
         if(this.ctrl != null){
             try {
                 bbjCEdit.addParagraph(index, paragraph);
@@ -119,6 +121,7 @@ public final class TextArea extends AbstractDwcControl implements HasReadOnly, T
      * @return Returns this
      */
     public TextArea appendToParagraph(Integer parNum, String text) {
+        invalidateProperty(PROP_TEXT);
         if(this.ctrl != null){
             try {
                 bbjCEdit.appendToParagraph(parNum, text);
@@ -433,6 +436,7 @@ public final class TextArea extends AbstractDwcControl implements HasReadOnly, T
      * @return Returns this
      */
     public TextArea removeParagraph(Integer parIndex) {
+        invalidateProperty(PROP_TEXT);
         if(this.ctrl != null){
             try {
                 bbjCEdit.removeParagraph(parIndex);
@@ -935,6 +939,16 @@ public final class TextArea extends AbstractDwcControl implements HasReadOnly, T
     }
 
 
+    /**
+     * Creates the edit-modify sink. From then on the event keeps the shadow text up to date,
+     * so getText() only asks the client after the user changed the text.
+     */
+    private void createEditModifyEventSink(){
+        this.editModifyEventSink = new TextAreaOnEditModifyEventSink(this);
+        this.editModifyEventSink.addCallback(ev -> invalidateProperty(PROP_TEXT));
+        setClientOwned(PROP_TEXT, false);
+    }
+
     @Override
     @SuppressWarnings("java:S3776") // tolerate cognitive complexity for now, it's just a batch list of checks
     protected void catchUp() throws IllegalAccessException {
@@ -942,7 +956,7 @@ public final class TextArea extends AbstractDwcControl implements HasReadOnly, T
         super.catchUp();
 
         if(!this.callbacks.isEmpty()){
-            this.editModifyEventSink = new TextAreaOnEditModifyEventSink(this);
+            createEditModifyEventSink();
             while(!this.callbacks.isEmpty()){
                 this.editModifyEventSink.addCallback(this.callbacks.remove(0));
             }
@@ -50,6 +50,7 @@ public final class TextBox extends AbstractDwcControl implements HasReadOnly, Fo
     public TextBox(String text) {
         setText(text);
         this.readOnly = false;
+        setClientOwned(PROP_TEXT, true);
         this.focusable = true;
         this.tabTraversable = true;
         this.textAlignment = Alignment.LEFT;
@@ -75,7 +76,7 @@ public final class TextBox extends AbstractDwcControl implements HasReadOnly, Fo
     public TextBox onEditModify(Consumer<TextBoxEditModifyEvent> callback){
         if(this.ctrl != null){
             if(this.editModifyEventSink == null){
-                this.editModifyEventSink = new TextBoxEditModifyEventSink(this);
+                createEditModifyEventSink();
             }
             this.editModifyEventSink.addCallback(callback);
         }
@@ -384,13 +385,23 @@ public final class TextBox extends AbstractDwcControl implements HasReadOnly, Fo
     }
 
 
+    /**
+     * Creates the edit-modify sink. From then on the event keeps the shadow text up to date,
+     * so getText() only asks the client after the user changed the text.
+     */
+    private void createEditModifyEventSink(){
+        this.editModifyEventSink = new TextBoxEditModifyEventSink(this);
+        this.editModifyEventSink.addCallback(ev -> invalidateProperty(PROP_TEXT));
+        setClientOwned(PROP_TEXT, false);
+    }
+
     @Override
     protected void catchUp() throws IllegalAccessException {
         if (Boolean.TRUE.equals(this.getCaughtUp())) throw new IllegalAccessException("catchUp cannot be called twice");
         super.catchUp();
 
         if(!this.callbacks.isEmpty()){
-            this.editModifyEventSink = new TextBoxEditModifyEventSink(this);
+            createEditModifyEventSink();
             while(!this.callbacks.isEmpty()){
                 this.editModifyEventSink.addCallback(this.callbacks.remove(0));
             }
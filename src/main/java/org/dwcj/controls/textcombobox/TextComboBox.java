@@ -3,6 +3,7 @@ package org.dwcj.controls.textcombobox;
 import com.basis.bbj.proxies.sysgui.BBjListEdit;
 import com.basis.bbj.proxies.sysgui.BBjWindow;
 import com.basis.startup.type.BBjException;
+import com.basis.startup.type.BBjVector;
 import org.dwcj.Environment;
 import org.dwcj.bridge.PanelAccessor;
 import org.dwcj.controls.listbox.AbstractDwclistControl;
@@ -25,9 +26,8 @@ import org.dwcj.interfaces.TextAlignable;
 import org.dwcj.util.BBjFunctionalityHelper;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collections;
 import java.util.Map;
-import java.util.Objects;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.function.Consumer;
 
@@ -61,12 +61,12 @@ public final class TextComboBox extends AbstractDwclistControl implements HasRea
 
     private String editText = "";
     private Integer maxRowCount = null;
-    private SimpleEntry<Integer, String> textAt = null;
 
 
 
     public TextComboBox(){
         this.readOnly = false;
+        setClientOwned(PROP_TEXT, true);
         this.focusable = true;
         this.mouseWheelCondition = MouseWheelCondition.DEFAULT;
         this.tabTraversable = true;
@@ -92,51 +92,43 @@ public final class TextComboBox extends AbstractDwclistControl implements HasRea
     }
 
     public TextComboBox addItem(Object key, String item) {
-        this.values.put(key, item);
-        data2.add(values.get(key));
-        populate();
+        appendItems(Collections.singletonMap(key, item));
         return this;
     }
 
     public TextComboBox insertItemAt(Object key, String item, Integer index){
-        this.values.put(key, item);
-        data2.add(index, values.get(key));
-        populate();
+        insertItems(index, Collections.singletonMap(key, item));
         return this;
     }
 
     public TextComboBox addItems(Map<Object, String> items){
-        this.values.putAll(items);
-        Iterator<Object> it = items.keySet().iterator();
-        while (it.hasNext()) {
-            data2.add(values.get(it.next()));
-        }
-        populate();
+        appendItems(items);
         return this;
     }
 
     public TextComboBox insertItemsAt(Map<Object, String> items, Integer index){
-        this.values.putAll(items);
-        Iterator<Object> it = items.keySet().iterator();
-        Integer counter = 0;
-        while (it.hasNext()) {
-            data2.add(index + counter++, values.get(it.next()));
-        }
-        populate();
+        insertItems(index, items);
         return this;
     }
 
-    @SuppressWarnings("unchecked")
-    protected void populate() {
-        if(this.ctrl != null){
-            try{
-                BBjListEdit cb = (BBjListEdit) ctrl;
-                cb.removeAllItems();
-                cb.insertItems(0, data2);
-            } catch(BBjException e){
-                Environment.logError(e);
-            }
-        }
+    @Override
+    protected void insertClientItems(int index, BBjVector items) throws BBjException {
+        ((BBjListEdit) ctrl).insertItems(index, items);
+    }
+
+    @Override
+    protected void removeClientItemAt(int index) throws BBjException {
+        ((BBjListEdit) ctrl).removeItemAt(index);
+    }
+
+    @Override
+    protected void removeAllClientItems() throws BBjException {
+        ((BBjListEdit) ctrl).removeAllItems();
+    }
+
+    @Override
+    protected void setClientTextAt(int index, String text) throws BBjException {
+        ((BBjListEdit) ctrl).setTextAt(index, text);
     }
 
 
@@ -168,7 +160,7 @@ public final class TextComboBox extends AbstractDwclistControl implements HasRea
     }
 
     public Map<Object, String> getAllItems() {
-        return values;
+        return getItemMap();
     }
 
     public String getEditText() {
@@ -183,27 +175,16 @@ public final class TextComboBox extends AbstractDwclistControl implements HasRea
     }
 
     public String getItemAt(Object key) {
-        if(this.ctrl != null){
-            return values.get(key);
-        }
-        return null;
+        return getItemText(key);
     }
 
     public Integer getItemCount() {
-        if(this.ctrl != null){
-            try {
-                return bbjListEdit.getItemCount();
-            } catch (BBjException e) {
-                Environment.logError(e);
-            }
-
-        }
-        return this.values.size();
+        return itemCount();
     }
-
     public Integer getSelectedIndex() {
         if(this.ctrl != null){
             try {
+                flushItemChanges();
                 return bbjListEdit.getSelectedIndex();
             } catch (BBjException e) {
                 Environment.logError(e);
@@ -213,17 +194,8 @@ public final class TextComboBox extends AbstractDwclistControl implements HasRea
     }
 
     public SimpleEntry<Object, String> getSelectedItem() {
-        try {
-            String value = bbjListEdit.getSelectedItem();
-            for (Map.Entry<Object, String> entry: this.values.entrySet()) {
-                if (Objects.equals(value, entry.getValue())) {
-                    return new SimpleEntry<>(entry.getKey(),value);
-                }
-            }
-        } catch (BBjException e) {
-            Environment.logError(e);
-        }
-        return new SimpleEntry<>(null,null);
+        SimpleEntry<Object, String> entry = getEntryAt(getSelectedIndex());
+        return entry == null ? new SimpleEntry<>(null, null) : entry;
     }
 
 
@@ -239,13 +211,7 @@ public final class TextComboBox extends AbstractDwclistControl implements HasRea
     }
 
     public TextComboBox removeAllItems() {
-        if(this.ctrl != null){
-            try {
-                bbjListEdit.removeAllItems();
-            } catch (BBjException e) {
-                Environment.logError(e);
-            }
-        }
+        clearItems();
         return this;
     }
 
@@ -264,6 +230,7 @@ public final class TextComboBox extends AbstractDwclistControl implements HasRea
     public TextComboBox selectIndex(Integer index){
         if(this.ctrl != null){
             try{
+                flushItemChanges();
                 ((BBjListEdit) this.ctrl).selectIndex(index);
             } catch( BBjException e){
                 Environment.logError(e);
@@ -272,6 +239,20 @@ public final class TextComboBox extends AbstractDwclistControl implements HasRea
         return this;
     }
 
+    public TextComboBox selectKey(Object key){
+        int index = getIndexOf(key);
+        if(index >= 0){
+            selectIndex(index);
+        }
+        return this;
+    }
+
+    public TextComboBox removeItemAt(Integer index){
+        removeItem(index);
+        return this;
+    }
+
+
 
     public TextComboBox setEditText(String text) {
         this.editText = text;
@@ -292,13 +273,7 @@ public final class TextComboBox extends AbstractDwclistControl implements HasRea
      * @return the control itself
      */
     public TextComboBox setItems(Map<Object, String> values) {
-        this.values = values;
-        data2.clear();
-        Iterator<Object> it = values.keySet().iterator();
-        while (it.hasNext()) {
-            data2.add(values.get(it.next()));
-        }
-        populate();
+        replaceItems(values);
         return this;
     }
 
@@ -315,14 +290,7 @@ public final class TextComboBox extends AbstractDwclistControl implements HasRea
     }
 
     public TextComboBox setTextAt(Integer idx, String text){
-        this.textAt = new SimpleEntry<>(idx, text);
-        if(this.ctrl != null){
-            try{
-                ((BBjListEdit) this.ctrl).setTextAt(idx, text);
-            } catch(BBjException e){
-                Environment.logError(e);
-            }
-        }
+        setItemTextAt(idx, text);
         return this;
     }
 
@@ -630,10 +598,6 @@ public final class TextComboBox extends AbstractDwclistControl implements HasRea
             this.setMaximumRowCount(this.maxRowCount);
         }
 
-        if(this.textAt != null){
-            this.setTextAt(this.textAt.getKey(), this.textAt.getValue());
-        }
-
         if(this.maxRowCount != null){
             this.setMaximumRowCount(maxRowCount);
         }
@@ -13,6 +13,11 @@ public class TextComboBoxSelectEvent implements ControlEvent {
         this.key = control.getSelectedItem().getKey();
     }
 
+    public TextComboBoxSelectEvent(TextComboBox tComboBox, Object key) {
+        this.control = tComboBox;
+        this.key = key;
+    }
+
     public void setKey(Object key) { this.key = key; }
 
     public Object getKey() { return key; }
@@ -48,17 +48,15 @@ public final class TextComboBoxSelectEventSink {
         }
     }
 
-    @SuppressWarnings("java.S1172")
-    public void selectEvent(BBjListSelectEvent ev) { //NOSONAR
-        TextComboBoxSelectEvent dwcEv = new TextComboBoxSelectEvent(this.textComboBox);
+    public void selectEvent(BBjListSelectEvent ev) {
+        TextComboBoxSelectEvent dwcEv = new TextComboBoxSelectEvent(this.textComboBox, this.textComboBox.getKeyAt(ev.getSelectedIndex()));
         Iterator<Consumer<TextComboBoxSelectEvent>> it = targets.iterator();
         while (it.hasNext())
             it.next().accept(dwcEv);
     }
 
     public void doSelect(Object key) {
-        TextComboBoxSelectEvent dwcEv = new TextComboBoxSelectEvent(this.textComboBox);
-        dwcEv.setKey(key);
+        TextComboBoxSelectEvent dwcEv = new TextComboBoxSelectEvent(this.textComboBox, key);
         Iterator<Consumer<TextComboBoxSelectEvent>> it = targets.iterator();
         while (it.hasNext())
             it.next().accept(dwcEv);
@@ -0,0 +1,34 @@
+package org.dwcj.controls.treeview;
+
+/**
+ * A child node as returned by a TreeChildLoader
+ */
+public final class TreeChild {
+
+    private final int id;
+    private final String text;
+    private final boolean expandable;
+
+    /**
+     * @param id the unique id of the node
+     * @param text the text of the node
+     * @param expandable true if the node has children of its own, they are loaded when it is expanded
+     */
+    public TreeChild(int id, String text, boolean expandable) {
+        this.id = id;
+        this.text = text;
+        this.expandable = expandable;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public boolean isExpandable() {
+        return expandable;
+    }
+}
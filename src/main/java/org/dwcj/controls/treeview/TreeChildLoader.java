@@ -0,0 +1,16 @@
+package org.dwcj.controls.treeview;
+
+import java.util.List;
+
+/**
+ * Loads the children of a TreeView node on demand, when the node is expanded for the first time
+ */
+@FunctionalInterface
+public interface TreeChildLoader {
+
+    /**
+     * @param parentID the id of the expanded node
+     * @return the children of the node, in display order
+     */
+    List<TreeChild> loadChildren(int parentID);
+}
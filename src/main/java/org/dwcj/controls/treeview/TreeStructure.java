@@ -0,0 +1,264 @@
+package org.dwcj.controls.treeview;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Java-side mirror of the node structure of a TreeView. It is maintained by the methods
+ * that add, insert and remove nodes, and by the expand and collapse events, so structural
+ * queries are answered without a round trip to the client. The children of a node are
+ * kept in a plain int array.
+ */
+final class TreeStructure {
+
+    static final int NO_NODE = -1;
+
+    private static final int[] NO_CHILDREN = new int[0];
+
+    private static final class Node {
+        private int parent;
+        private int[] children = NO_CHILDREN;
+        private int childCount = 0;
+        private boolean expanded = false;
+        // added with addExpandableNode/insertExpandableNode, not a leaf even without children
+        private final boolean expandable;
+
+        private Node(int parent, boolean expandable) {
+            this.parent = parent;
+            this.expandable = expandable;
+        }
+
+        private int indexOf(int child) {
+            for (int i = 0; i < childCount; i++) {
+                if (children[i] == child) {
+                    return i;
+                }
+            }
+            return NO_NODE;
+        }
+
+        private void insert(int index, int child) {
+            if (childCount == children.length) {
+                children = Arrays.copyOf(children, Math.max(4, childCount * 2));
+            }
+            System.arraycopy(children, index, children, index + 1, childCount - index);
+            children[index] = child;
+            childCount++;
+        }
+
+        private void remove(int index) {
+            System.arraycopy(children, index + 1, children, index, childCount - index - 1);
+            childCount--;
+        }
+    }
+
+    private final Map<Integer, Node> nodes = new HashMap<>();
+    private int root = NO_NODE;
+
+    boolean contains(int id) {
+        return nodes.containsKey(id);
+    }
+
+    int getRoot() {
+        return root;
+    }
+
+    void setRoot(int id) {
+        nodes.clear();
+        nodes.put(id, new Node(NO_NODE, false));
+        root = id;
+    }
+
+    /**
+     * Adds a node below the given parent. Nodes with an unknown parent are ignored,
+     * the client rejects them as well.
+     *
+     * @param id the id of the new node
+     * @param parent the id of the parent
+     * @param index the position among the children, or -1 to append
+     * @param expandable true if the node was added as an expandable node
+     */
+    void add(int id, int parent, int index, boolean expandable) {
+        Node parentNode = nodes.get(parent);
+        if (parentNode == null || nodes.containsKey(id)) {
+            return;
+        }
+        int position = index < 0 || index > parentNode.childCount ? parentNode.childCount : index;
+        parentNode.insert(position, id);
+        nodes.put(id, new Node(parent, expandable));
+    }
+
+    void remove(int id) {
+        Node node = nodes.get(id);
+        if (node == null) {
+            return;
+        }
+        removeDescendants(id);
+        Node parentNode = nodes.get(node.parent);
+        if (parentNode != null) {
+            parentNode.remove(parentNode.indexOf(id));
+        }
+        nodes.remove(id);
+        if (id == root) {
+            root = NO_NODE;
+        }
+    }
+
+    void removeDescendants(int id) {
+        Node node = nodes.get(id);
+        if (node == null) {
+            return;
+        }
+        for (int descendant : getDescendants(id)) {
+            nodes.remove(descendant);
+        }
+        node.children = NO_CHILDREN;
+        node.childCount = 0;
+    }
+
+    int getParent(int id) {
+        Node node = nodes.get(id);
+        return node == null ? NO_NODE : node.parent;
+    }
+
+    int getChild(int parent, int index) {
+        Node node = nodes.get(parent);
+        if (node == null || index < 0 || index >= node.childCount) {
+            return NO_NODE;
+        }
+        return node.children[index];
+    }
+
+    int getChildCount(int id) {
+        Node node = nodes.get(id);
+        return node == null ? 0 : node.childCount;
+    }
+
+    /**
+     * An expandable node is not a leaf, also while its children are not loaded yet or after
+     * they were removed again, the client keeps showing it as expandable. A node that was
+     * added with addNode is a leaf whenever it has no children.
+     *
+     * @param id the id of a node
+     * @return true if the node has no children and was not added as an expandable node
+     */
+    boolean isLeaf(int id) {
+        Node node = nodes.get(id);
+        return node != null && node.childCount == 0 && !node.expandable;
+    }
+
+    /**
+     * @param id the id of a node
+     * @return the position of the node among the children of its parent
+     */
+    int getIndexInParent(int id) {
+        Node parentNode = nodes.get(getParent(id));
+        return parentNode == null ? NO_NODE : parentNode.indexOf(id);
+    }
+
+    List<Integer> getChildren(int id) {
+        Node node = nodes.get(id);
+        List<Integer> result = new ArrayList<>(node == null ? 0 : node.childCount);
+        if (node != null) {
+            for (int i = 0; i < node.childCount; i++) {
+                result.add(node.children[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param id the id of a node
+     * @return all nodes below the given one, depth first in display order
+     */
+    List<Integer> getDescendants(int id) {
+        List<Integer> result = new ArrayList<>();
+        collectDescendants(id, result);
+        return result;
+    }
+
+    private void collectDescendants(int id, List<Integer> result) {
+        // iterative pre-order walk, deep hierarchies must not overflow the stack
+        int[] stack = new int[16];
+        int size = 0;
+        Node start = nodes.get(id);
+        if (start == null) {
+            return;
+        }
+        for (int i = start.childCount - 1; i >= 0; i--) {
+            if (size == stack.length) {
+                stack = Arrays.copyOf(stack, size * 2);
+            }
+            stack[size++] = start.children[i];
+        }
+        while (size > 0) {
+            int current = stack[--size];
+            result.add(current);
+            Node node = nodes.get(current);
+            if (node == null) {
+                continue;
+            }
+            for (int i = node.childCount - 1; i >= 0; i--) {
+                if (size == stack.length) {
+                    stack = Arrays.copyOf(stack, size * 2);
+                }
+                stack[size++] = node.children[i];
+            }
+        }
+    }
+
+    /**
+     * @param id the id of a node
+     * @return the node followed by its ancestors, ending with the root
+     */
+    List<Integer> getPathToRoot(int id) {
+        List<Integer> result = new ArrayList<>();
+        int current = id;
+        while (current != NO_NODE && nodes.containsKey(current)) {
+            result.add(current);
+            current = nodes.get(current).parent;
+        }
+        return result;
+    }
+
+    boolean isExpanded(int id) {
+        Node node = nodes.get(id);
+        return node != null && node.expanded;
+    }
+
+    void setExpanded(int id, boolean expanded) {
+        Node node = nodes.get(id);
+        if (node != null) {
+            node.expanded = expanded;
+        }
+    }
+
+    void setSubtreeExpanded(int id, boolean expanded) {
+        setExpanded(id, expanded);
+        for (int descendant : getDescendants(id)) {
+            setExpanded(descendant, expanded);
+        }
+    }
+
+    /**
+     * @return the expanded nodes, depth first in display order
+     */
+    List<Integer> getExpandedNodes() {
+        List<Integer> result = new ArrayList<>();
+        if (root == NO_NODE) {
+            return result;
+        }
+        if (isExpanded(root)) {
+            result.add(root);
+        }
+        for (int node : getDescendants(root)) {
+            if (isExpanded(node)) {
+                result.add(node);
+            }
+        }
+        return result;
+    }
+}
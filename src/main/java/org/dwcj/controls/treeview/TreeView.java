@@ -27,8 +27,12 @@ import org.dwcj.controls.treeview.sinks.TreeLostFocusEventSink;
 import org.dwcj.controls.treeview.sinks.TreeSelectEventSink;
 import org.dwcj.models.Icon;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
 public final class TreeView extends AbstractDwcControl {
@@ -39,6 +43,24 @@ public final class TreeView extends AbstractDwcControl {
         LARGE, MEDIUM, SMALL, XLARGE, XSMALL
     }
 
+    /*
+     * mirror of the node structure, answers the structural queries without a round trip
+     */
+    private final TreeStructure structure = new TreeStructure();
+
+    private TreeExpandEventSink expandEventSink;
+    private TreeCollapseEventSink collapseEventSink;
+    private final ArrayList<Consumer<TreeExpandedEvent>> expandCallbacks = new ArrayList<>();
+    private final ArrayList<Consumer<TreeCollapseEvent>> collapseCallbacks = new ArrayList<>();
+
+    /*
+     * Lazy loading: expandable nodes are added without children, the children are asked
+     * from the loader when the node is expanded for the first time
+     */
+    private TreeChildLoader childLoader = null;
+    private boolean evictOnCollapse = false;
+    private final Map<Integer, List<Integer>> loadedChildren = new HashMap<>();
+
     @Override
     protected void create(AbstractDwcjPanel p) {
         try {
@@ -46,6 +68,13 @@ public final class TreeView extends AbstractDwcControl {
             //todo: honor visibility flag, if set before adding the control to the form, so it's created invisibly right away
             ctrl = w.addTree(w.getAvailableControlID(), BASISNUMBER_1, BASISNUMBER_1, BASISNUMBER_1, BASISNUMBER_1);
             tree = (BBjTree) ctrl;
+            // the mirror and the loader see the events first, the callbacks registered
+            // before the tree was created are replayed by catchUp()
+            onExpand(ev -> structure.setExpanded(ev.getNodeId(), true));
+            onCollapse(ev -> structure.setExpanded(ev.getNodeId(), false));
+            if (childLoader != null) {
+                registerLazyLoading();
+            }
             catchUp();
         } catch (Exception e) {
             Environment.logError(e);
@@ -55,6 +84,7 @@ public final class TreeView extends AbstractDwcControl {
     public void addExpandableNode(int childID, int parentID, String text) {
         try {
             tree.addExpandableNode(childID, parentID, text);
+            structure.add(childID, parentID, -1, true);
         } catch (BBjException e) {
             Environment.logError(e);
         }
@@ -63,6 +93,7 @@ public final class TreeView extends AbstractDwcControl {
     public void addNode(int childID, int parentID, String text) {
         try {
             tree.addNode(childID, parentID, text);
+            structure.add(childID, parentID, -1, false);
         } catch (BBjException e) {
             Environment.logError(e);
         }
@@ -77,6 +108,9 @@ public final class TreeView extends AbstractDwcControl {
     }
 
     public int getChild(int parentID, int index) {
+        if (structure.contains(parentID)) {
+            return structure.getChild(parentID, index);
+        }
         try {
             return tree.getChildAt(parentID, index);
         } catch (BBjException e) {
@@ -86,6 +120,9 @@ public final class TreeView extends AbstractDwcControl {
     }
 
     public int getChildIndex(int parentID) {
+        if (structure.contains(parentID)) {
+            return structure.getIndexInParent(parentID);
+        }
         try {
             return tree.getIndexOfChild(parentID);
         } catch (BBjException e) {
@@ -95,6 +132,9 @@ public final class TreeView extends AbstractDwcControl {
     }
 
     public int getParentNode(int childID) {
+        if (structure.contains(childID)) {
+            return structure.getParent(childID);
+        }
         try {
             return tree.getParentNode(childID);
         } catch (BBjException e) {
@@ -104,6 +144,9 @@ public final class TreeView extends AbstractDwcControl {
     }
 
     public int getRoot() {
+        if (structure.getRoot() != TreeStructure.NO_NODE) {
+            return structure.getRoot();
+        }
         try {
             return tree.getRoot();
         } catch (BBjException e) {
@@ -115,6 +158,7 @@ public final class TreeView extends AbstractDwcControl {
     public void insertExpandableNode(int childID, int parentID, String text, int index) {
         try {
             tree.insertExpandableNode(childID, parentID, text, index);
+            structure.add(childID, parentID, index, true);
         } catch (BBjException e) {
             Environment.logError(e);
         }
@@ -123,12 +167,16 @@ public final class TreeView extends AbstractDwcControl {
     public void insertNode(int childID, int parentID, String text, int index) {
         try {
             tree.insertNode(childID, parentID, text, index);
+            structure.add(childID, parentID, index, false);
         } catch (BBjException e) {
             Environment.logError(e);
         }
     }
 
     public boolean isLeafNode(int id) {
+        if (structure.contains(id)) {
+            return structure.isLeaf(id);
+        }
         try {
             return tree.isNodeLeaf(id);
         } catch (BBjException e) {
@@ -138,16 +186,20 @@ public final class TreeView extends AbstractDwcControl {
     }
 
     public void removeDescendants(int id) {
+        forgetLoadedChildren(id);
         try {
             tree.removeDescendants(id);
+            structure.removeDescendants(id);
         } catch (BBjException e) {
             Environment.logError(e);
         }
     }
 
     public void removeNode(int id) {
+        forgetLoadedChildren(id);
         try {
             tree.removeNode(id);
+            structure.remove(id);
         } catch (BBjException e) {
             Environment.logError(e);
         }
@@ -156,6 +208,7 @@ public final class TreeView extends AbstractDwcControl {
     public void setRoot(int id, String text) {
         try {
             tree.setRoot(id, text);
+            structure.setRoot(id);
         } catch (BBjException e) {
             Environment.logError(e);
         }
@@ -164,6 +217,7 @@ public final class TreeView extends AbstractDwcControl {
     public void collapseNode(int id) {
         try {
             tree.collapseNode(id);
+            structure.setExpanded(id, false);
         } catch (BBjException e) {
             Environment.logError(e);
         }
@@ -172,6 +226,7 @@ public final class TreeView extends AbstractDwcControl {
     public void collapseTreeFromNode(int id) {
         try {
             tree.collapseTreeFromNode(id);
+            structure.setSubtreeExpanded(id, false);
         } catch (BBjException e) {
             Environment.logError(e);
         }
@@ -180,6 +235,7 @@ public final class TreeView extends AbstractDwcControl {
     public void expandNode(int id) {
         try {
             tree.expandNode(id);
+            structure.setExpanded(id, true);
         } catch (BBjException e) {
             Environment.logError(e);
         }
@@ -188,11 +244,52 @@ public final class TreeView extends AbstractDwcControl {
     public void expandTreeFromNode(int id) {
         try {
             tree.expandTreeFromNode(id);
+            structure.setSubtreeExpanded(id, true);
         } catch (BBjException e) {
             Environment.logError(e);
         }
     }
 
+    /**
+     * Returns the children of a node. Answered from the Java-side structure, no round trip.
+     *
+     * @param id the id of the node
+     * @return the ids of the children, in display order
+     */
+    public List<Integer> getChildren(int id) {
+        return structure.getChildren(id);
+    }
+
+    /**
+     * @param id the id of the node
+     * @return the number of children of the node
+     */
+    public int getChildCount(int id) {
+        return structure.getChildCount(id);
+    }
+
+    /**
+     * Returns all nodes below a node, depth first in display order. Answered from the
+     * Java-side structure, no round trip.
+     *
+     * @param id the id of the node
+     * @return the ids of the descendants
+     */
+    public List<Integer> getDescendants(int id) {
+        return structure.getDescendants(id);
+    }
+
+    /**
+     * Returns a node and its ancestors up to the root. Answered from the Java-side
+     * structure, no round trip.
+     *
+     * @param id the id of the node
+     * @return the id of the node, followed by the ids of its ancestors, ending with the root
+     */
+    public List<Integer> getPathToRoot(int id) {
+        return structure.getPathToRoot(id);
+    }
+
     public int getCollapsedNode() {
         try {
             return tree.getCollapsedNode();
@@ -212,6 +309,9 @@ public final class TreeView extends AbstractDwcControl {
     }
 
     public List<Integer> getExpandedNodes() {
+        if (structure.getRoot() != TreeStructure.NO_NODE) {
+            return structure.getExpandedNodes();
+        }
         try {
             return (List)tree.getExpandedNodes();
         } catch (BBjException e) {
@@ -230,6 +330,9 @@ public final class TreeView extends AbstractDwcControl {
     }
 
     public boolean isNodeExpanded(int id) {
+        if (structure.contains(id)) {
+            return structure.isExpanded(id);
+        }
         try {
             return tree.isNodeExpanded(id);
         } catch (BBjException e) {
@@ -540,15 +643,129 @@ public final class TreeView extends AbstractDwcControl {
     }
 
     public TreeView onExpand(Consumer<TreeExpandedEvent> callback) {
-        new TreeExpandEventSink(this, callback);
+        if (this.tree == null) {
+            this.expandCallbacks.add(callback);
+        } else if (this.expandEventSink == null) {
+            this.expandEventSink = new TreeExpandEventSink(this, callback);
+        } else {
+            this.expandEventSink.addCallback(callback);
+        }
         return this;
     }
 
     public TreeView onCollapse(Consumer<TreeCollapseEvent> callback) {
-        new TreeCollapseEventSink(this,callback);
+        if (this.tree == null) {
+            this.collapseCallbacks.add(callback);
+        } else if (this.collapseEventSink == null) {
+            this.collapseEventSink = new TreeCollapseEventSink(this, callback);
+        } else {
+            this.collapseEventSink.addCallback(callback);
+        }
+        return this;
+    }
+
+    /**
+     * Enables lazy loading of the tree. Expandable nodes are added without children, see
+     * addExpandableNode, and their children are requested from the loader and inserted in
+     * one pass when the node is expanded for the first time.
+     *
+     * @param loader the loader of the child nodes
+     * @return the control itself
+     */
+    public TreeView setChildLoader(TreeChildLoader loader) {
+        boolean register = this.childLoader == null && loader != null;
+        this.childLoader = loader;
+        if (register && this.tree != null) {
+            registerLazyLoading();
+        }
         return this;
     }
 
+    /**
+     * When enabled, the children of a lazily loaded node are removed again when the node is
+     * collapsed and reloaded on the next expansion, which bounds the number of nodes held
+     * for large hierarchies
+     *
+     * @param evict true to evict the loaded children on collapse
+     * @return the control itself
+     */
+    public TreeView setEvictOnCollapse(boolean evict) {
+        this.evictOnCollapse = evict;
+        return this;
+    }
+
+    /**
+     * Loads the children of the given node from the child loader now, unless they are loaded
+     * already. Use it to populate the root of a lazy tree.
+     *
+     * @param id the id of the node
+     * @return the control itself
+     */
+    public TreeView loadChildren(int id) {
+        if (childLoader == null || loadedChildren.containsKey(id)) {
+            return this;
+        }
+        List<TreeChild> children = childLoader.loadChildren(id);
+        List<Integer> ids = new ArrayList<>();
+        loadedChildren.put(id, ids);
+        if (children != null) {
+            for (TreeChild child : children) {
+                ids.add(child.getId());
+                if (child.isExpandable()) {
+                    addExpandableNode(child.getId(), id, child.getText());
+                } else {
+                    addNode(child.getId(), id, child.getText());
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Drops the loaded children of the given node and loads them again from the child loader
+     *
+     * @param id the id of the node
+     * @return the control itself
+     */
+    public TreeView reloadChildren(int id) {
+        evictChildren(id);
+        return loadChildren(id);
+    }
+
+    private void evictChildren(int id) {
+        if (loadedChildren.containsKey(id)) {
+            removeDescendants(id);
+        }
+    }
+
+    /*
+     * Forget the loaded state of a node and of the nodes loaded further down,
+     * their children have to be loaded again on the next expansion
+     */
+    private void forgetLoadedChildren(int id) {
+        Deque<Integer> pending = new ArrayDeque<>();
+        pending.push(id);
+        while (!pending.isEmpty()) {
+            List<Integer> children = loadedChildren.remove(pending.pop());
+            if (children != null) {
+                children.forEach(pending::push);
+            }
+        }
+    }
+
+    private void registerLazyLoading() {
+        onExpand(ev -> {
+            if (childLoader != null && ev.getNodeId() >= 0) {
+                loadChildren(ev.getNodeId());
+            }
+        });
+        onCollapse(ev -> {
+            if (evictOnCollapse && ev.getNodeId() >= 0) {
+                evictChildren(ev.getNodeId());
+            }
+        });
+    }
+
     public TreeView onEditStopped(Consumer<TreeEditStoppedEvent> callback) {
         new TreeEditStopEventSink(this,callback);
         return this;
@@ -562,6 +779,20 @@ public final class TreeView extends AbstractDwcControl {
 
 
 
+    @Override
+    protected void catchUp() throws IllegalAccessException {
+        if (Boolean.TRUE.equals(this.getCaughtUp())) throw new IllegalAccessException("catchUp cannot be called twice");
+
+        super.catchUp();
+
+        while (!this.expandCallbacks.isEmpty()) {
+            onExpand(this.expandCallbacks.remove(0));
+        }
+        while (!this.collapseCallbacks.isEmpty()) {
+            onCollapse(this.collapseCallbacks.remove(0));
+        }
+    }
+
     @Override
     public TreeView setText(String text) {
         super.setText(text);
@@ -6,8 +6,22 @@ import org.dwcj.interfaces.ControlEvent;
 public class TreeExpandedEvent implements ControlEvent {
     private final TreeView control;
 
+    private final int nodeId;
+
     public TreeExpandedEvent(TreeView cTree) {
+        this(cTree, -1);
+    }
+
+    public TreeExpandedEvent(TreeView cTree, int nodeId) {
         this.control = cTree;
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * @return the id of the node, or -1 if not known
+     */
+    public int getNodeId() {
+        return nodeId;
     }
 
     @Override
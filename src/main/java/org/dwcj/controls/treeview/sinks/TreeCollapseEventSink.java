@@ -7,17 +7,18 @@ import org.dwcj.bridge.ControlAccessor;
 import org.dwcj.controls.treeview.TreeView;
 import org.dwcj.controls.treeview.events.TreeCollapseEvent;
 
+import java.util.ArrayList;
 import java.util.function.Consumer;
 
 public class TreeCollapseEventSink {
 
-    private final Consumer<TreeCollapseEvent> target;
+    private final ArrayList<Consumer<TreeCollapseEvent>> targets = new ArrayList<>();
 
     private final TreeView tree;
 
     @SuppressWarnings({"static-access"})
     public TreeCollapseEventSink(TreeView tree, Consumer<TreeCollapseEvent> target) {
-        this.target = target;
+        this.targets.add(target);
         this.tree = tree;
 
         BBjControl bbjctrl = null;
@@ -32,7 +33,13 @@ public class TreeCollapseEventSink {
     }
 
     public void collapseEvent(BBjTreeNodeCollapsedEvent ev) { //NOSONAR
-        TreeCollapseEvent dwcEv = new TreeCollapseEvent(this.tree);
-        target.accept(dwcEv);
+        TreeCollapseEvent dwcEv = new TreeCollapseEvent(this.tree, ev.getNodeID());
+        for (Consumer<TreeCollapseEvent> target : targets) {
+            target.accept(dwcEv);
+        }
+    }
+
+    public void addCallback(Consumer<TreeCollapseEvent> callback) {
+        targets.add(callback);
     }
 }
@@ -7,18 +7,19 @@ import org.dwcj.bridge.ControlAccessor;
 import org.dwcj.controls.treeview.TreeView;
 import org.dwcj.controls.treeview.events.TreeExpandedEvent;
 
+import java.util.ArrayList;
 import java.util.function.Consumer;
 
 public class TreeExpandEventSink {
 
-    private final Consumer<TreeExpandedEvent> target;
+    private final ArrayList<Consumer<TreeExpandedEvent>> targets = new ArrayList<>();
 
     private final TreeView tree;
 
 
     @SuppressWarnings({"static-access"})
     public TreeExpandEventSink(TreeView tree, Consumer<TreeExpandedEvent> target) {
-        this.target = target;
+        this.targets.add(target);
         this.tree = tree;
 
         BBjControl bbjctrl = null;
@@ -33,7 +34,13 @@ public class TreeExpandEventSink {
     }
 
     public void expandEvent(BBjTreeNodeExpandedEvent ev) { //NOSONAR
-        TreeExpandedEvent dwcEv = new TreeExpandedEvent(this.tree);
-        target.accept(dwcEv);
+        TreeExpandedEvent dwcEv = new TreeExpandedEvent(this.tree, ev.getNodeID());
+        for (Consumer<TreeExpandedEvent> target : targets) {
+            target.accept(dwcEv);
+        }
+    }
+
+    public void addCallback(Consumer<TreeExpandedEvent> callback) {
+        targets.add(callback);
     }
 }
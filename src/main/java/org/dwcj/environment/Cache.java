@@ -0,0 +1,305 @@
+package org.dwcj.environment;
+
+import org.dwcj.App;
+import org.dwcj.Environment;
+import org.dwcj.environment.namespace.NamespaceVarableLockedException;
+import org.dwcj.environment.namespace.StandardNamespace;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Typed cache with a time to live per entry and a maximum number of entries, the least
+ * recently used entry is dropped once the cache is full. Concurrent misses on the same key
+ * run the loader once, the other callers wait for its result.
+ *
+ * A cache obtained with shared() is kept in a Global or Group Namespace, so all sessions of
+ * the application that ask for the same name work on the same entries. The namespace
+ * variable is specific to the class loader of the application, a redeployed application
+ * gets caches of its own instead of ones holding classes it cannot cast, and the variables
+ * are removed when the last session of the application ends, see releaseShared(). A cache
+ * created with local() lives in the JVM only, for example in tests.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public final class Cache<K, V> {
+
+    private static final String NAMESPACE_PREFIX = "dwcj.cache.";
+    // differs for each class loader that loads this class, i.e. for each deployment
+    private static final String LOADER_ID = UUID.randomUUID().toString();
+    // the namespace variables of the shared caches of this class loader
+    private static final Map<String, StandardNamespace> sharedVariables = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final int maxEntries;
+    private final long defaultTtlNanos;
+    private final Map<K, Entry<V>> entries;
+    private final Map<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+
+    private Cache(String name, int maxEntries, long defaultTtlMillis) {
+        if (maxEntries < 1 || defaultTtlMillis < 1) {
+            throw new IllegalArgumentException("maxEntries and defaultTtlMillis must be at least 1");
+        }
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.defaultTtlNanos = TimeUnit.MILLISECONDS.toNanos(defaultTtlMillis);
+        this.entries = new LinkedHashMap<K, Cache.Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Cache.Entry<V>> eldest) {
+                if (size() > Cache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Create a cache that lives in this JVM only
+     * @param name the name of the cache
+     * @param maxEntries the maximum number of entries
+     * @param defaultTtlMillis the time to live of entries that are put without one
+     * @return the cache
+     */
+    public static <K, V> Cache<K, V> local(String name, int maxEntries, long defaultTtlMillis) {
+        return new Cache<>(name, maxEntries, defaultTtlMillis);
+    }
+
+    /**
+     * Get the cache of the given name from the namespace, or create it there. The sizes
+     * only apply when the cache is created, the first session to ask for a name defines them.
+     * @param namespace a GlobalNamespace or GroupNamespace, depending on who shares the cache
+     * @param name the name of the cache
+     * @param maxEntries the maximum number of entries
+     * @param defaultTtlMillis the time to live of entries that are put without one
+     * @return the cache
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> Cache<K, V> shared(StandardNamespace namespace, String name, int maxEntries, long defaultTtlMillis) {
+        String variable = NAMESPACE_PREFIX + name + "@" + LOADER_ID;
+        try {
+            Object cache = namespace.computeIfAbsent(variable, k -> new Cache<>(name, maxEntries, defaultTtlMillis));
+            sharedVariables.put(variable, namespace);
+            if (cache instanceof Cache) {
+                return (Cache<K, V>) cache;
+            }
+            App.consoleLog("Namespace variable " + variable + " does not hold a cache");
+        } catch (NamespaceVarableLockedException e) {
+            App.consoleLog("Cache " + name + " could not be registered in the namespace");
+        }
+        return local(name, maxEntries, defaultTtlMillis);
+    }
+
+    /**
+     * Removes the shared caches of this application from their namespaces, so the server no
+     * longer references classes of its class loader. Environment.cleanup calls it when the
+     * last session of the application ends. Sessions that still hold a cache keep using it,
+     * the next call of shared() creates a new one.
+     */
+    public static void releaseShared() {
+        Iterator<Map.Entry<String, StandardNamespace>> variables = sharedVariables.entrySet().iterator();
+        while (variables.hasNext()) {
+            Map.Entry<String, StandardNamespace> variable = variables.next();
+            variables.remove();
+            try {
+                variable.getValue().remove(variable.getKey());
+            } catch (NamespaceVarableLockedException | RuntimeException e) {
+                Environment.logError("Shared cache " + variable.getKey() + " could not be removed from the namespace", e);
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * @param key the key
+     * @return the cached value, or null if there is none or it expired
+     */
+    public V getIfPresent(K key) {
+        V value = lookup(key);
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Return the cached value, or load it with the default time to live. If another caller
+     * is already loading the key, wait for its result instead of loading again.
+     * @param key the key
+     * @param loader computes the value, a null result is returned but not cached
+     * @return the value
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        return load(key, loader, defaultTtlNanos);
+    }
+
+    /**
+     * @param key the key
+     * @param loader computes the value, a null result is returned but not cached
+     * @param ttlMillis the time to live of a loaded value
+     * @return the value
+     */
+    public V get(K key, Function<? super K, ? extends V> loader, long ttlMillis) {
+        return load(key, loader, TimeUnit.MILLISECONDS.toNanos(ttlMillis));
+    }
+
+    private V load(K key, Function<? super K, ? extends V> loader, long ttlNanos) {
+        V value = getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        CompletableFuture<V> pending = new CompletableFuture<>();
+        CompletableFuture<V> running = loading.putIfAbsent(key, pending);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            // another caller may have completed its load in between
+            value = lookup(key);
+            if (value == null) {
+                value = runLoader(key, loader);
+                if (value != null) {
+                    store(key, value, ttlNanos);
+                }
+            }
+            pending.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, pending);
+        }
+    }
+
+    private V runLoader(K key, Function<? super K, ? extends V> loader) {
+        long start = System.nanoTime();
+        try {
+            V value = loader.apply(key);
+            loads.increment();
+            return value;
+        } catch (RuntimeException | Error e) {
+            loadFailures.increment();
+            throw e;
+        } finally {
+            totalLoadNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private V await(CompletableFuture<V> running) {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+    public void put(K key, V value) {
+        store(key, value, defaultTtlNanos);
+    }
+
+    /**
+     * @param key the key
+     * @param value the value
+     * @param ttlMillis the time to live of this entry
+     */
+    public void put(K key, V value, long ttlMillis) {
+        store(key, value, TimeUnit.MILLISECONDS.toNanos(ttlMillis));
+    }
+
+    private synchronized void store(K key, V value, long ttlNanos) {
+        if (value == null) {
+            entries.remove(key);
+        } else {
+            entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    private synchronized V lookup(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            entries.remove(key);
+            expirations.increment();
+            return null;
+        }
+        return entry.value;
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * @return the number of entries, including expired ones that were not dropped yet
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return a snapshot of the cache counters
+     */
+    public CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum(), loads.sum(), loadFailures.sum(), totalLoadNanos.sum(),
+                evictions.sum(), expirations.sum());
+    }
+}
@@ -0,0 +1,80 @@
+package org.dwcj.environment;
+
+/**
+ * Snapshot of the counters of a Cache
+ */
+public final class CacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long loads;
+    private final long loadFailures;
+    private final long totalLoadNanos;
+    private final long evictions;
+    private final long expirations;
+
+    CacheStats(long hits, long misses, long loads, long loadFailures, long totalLoadNanos, long evictions, long expirations) {
+        this.hits = hits;
+        this.misses = misses;
+        this.loads = loads;
+        this.loadFailures = loadFailures;
+        this.totalLoadNanos = totalLoadNanos;
+        this.evictions = evictions;
+        this.expirations = expirations;
+    }
+
+    public long getHitCount() {
+        return hits;
+    }
+
+    public long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * @return the share of lookups answered from the cache, 1 if there were no lookups
+     */
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+    /**
+     * @return the number of loader invocations, concurrent misses on the same key count once
+     */
+    public long getLoadCount() {
+        return loads;
+    }
+
+    public long getLoadFailureCount() {
+        return loadFailures;
+    }
+
+    /**
+     * @return the average time spent in the loader, in milliseconds
+     */
+    public double getAverageLoadMillis() {
+        return loads == 0 ? 0 : totalLoadNanos / 1_000_000.0 / loads;
+    }
+
+    /**
+     * @return the number of entries dropped because the cache was full
+     */
+    public long getEvictionCount() {
+        return evictions;
+    }
+
+    /**
+     * @return the number of entries dropped because their time to live had passed
+     */
+    public long getExpirationCount() {
+        return expirations;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{hits=" + hits + ", misses=" + misses + ", loads=" + loads + ", loadFailures=" + loadFailures
+                + ", averageLoadMillis=" + getAverageLoadMillis() + ", evictions=" + evictions
+                + ", expirations=" + expirations + "}";
+    }
+}
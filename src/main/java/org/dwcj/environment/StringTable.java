@@ -3,6 +3,7 @@ package org.dwcj.environment;
 import com.basis.startup.type.BBjException;
 import org.dwcj.Environment;
 
+import java.util.Collection;
 import java.util.NoSuchElementException;
 
 /**
@@ -12,11 +13,36 @@ import java.util.NoSuchElementException;
  * SET COMPANY=Acme
  * Then you can access the value with
  * String val = org.dwcj.environment.StringTable.getString("COMPANY")
+ *
+ * Lookups are cached per session, including the ones for missing keys. The cache is kept
+ * in the Environment of the session and dropped with it, see Environment.cleanup. Changes made
+ * through this class update the cache, code that changes the STBL by other means
+ * (e.g. BBj programs) has to call invalidateCache() afterwards.
  */
 public final class StringTable {
 
+    private static final Object MISSING = new Object();
+
     private StringTable(){}
 
+    private static StringTableCache cache() {
+        return Environment.getInstance().getStringTableCache();
+    }
+
+    private static Object lookup(String key) {
+        StringTableCache cache = cache();
+        Object value = cache.get(key);
+        if (value == null) {
+            try {
+                value = Environment.getInstance().getBBjAPI().getStbl(key);
+            } catch (BBjException e) {
+                value = MISSING;
+            }
+            cache.put(key, value);
+        }
+        return value;
+    }
+
     /**
      * Access a value in the String Table (STBL).
      *
@@ -25,11 +51,42 @@ public final class StringTable {
      * @throws NoSuchElementException in case the string table entry does not exist
      */
     public static String getString(String key){
-        try {
-            return Environment.getInstance().getBBjAPI().getStbl(key);
-        } catch (BBjException e) {
+        Object value = lookup(key);
+        if (value == MISSING) {
             throw new NoSuchElementException("Element "+key+" does not exist!");
         }
+        return (String) value;
+    }
+
+    /**
+     * Access a value in the String Table (STBL) without failing on missing entries
+     *
+     * @param key the key of the variable to access
+     * @param defaultValue the value to return if the entry does not exist
+     * @return the contents of the field, or the default value
+     */
+    public static String getString(String key, String defaultValue){
+        Object value = lookup(key);
+        return value == MISSING ? defaultValue : (String) value;
+    }
+
+    /**
+     * Read several entries into the cache at once, e.g. at application start
+     *
+     * @param keys the keys of the variables to read
+     */
+    public static void preload(Collection<String> keys){
+        for (String key : keys) {
+            lookup(key);
+        }
+    }
+
+    /**
+     * Forget all cached lookups of the current session, use this after the STBL was
+     * changed without going through this class
+     */
+    public static void invalidateCache(){
+        cache().clear();
     }
 
     /**
@@ -41,7 +98,13 @@ public final class StringTable {
     public static String setString(String key, String value){
         try {
             Environment.getInstance().getBBjAPI().setStbl(key, value);
+            if (value == null) {
+                cache().remove(key);
+            } else {
+                cache().put(key, value);
+            }
         } catch (BBjException e) {
+            cache().remove(key);
             Environment.logError(e);
         }
         return value;
@@ -54,7 +117,9 @@ public final class StringTable {
     public static void clearString(String key){
         try {
             Environment.getInstance().getBBjAPI().setStbl("!CLEAR",key);
+            cache().put(key, MISSING);
         } catch (BBjException e) {
+            cache().remove(key);
             Environment.logError(e);
         }
     }
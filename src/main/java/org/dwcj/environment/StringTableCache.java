@@ -0,0 +1,37 @@
+package org.dwcj.environment;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The STBL lookups of one session, held by its Environment and filled by StringTable.
+ * Only StringTable reads and writes the entries, the cache is cleared when the session
+ * ends, see Environment.cleanup.
+ */
+public final class StringTableCache {
+
+    private final Map<String, Object> values = new ConcurrentHashMap<>();
+
+    Object get(String key) {
+        return values.get(key);
+    }
+
+    void put(String key, Object value) {
+        values.put(key, value);
+    }
+
+    void remove(String key) {
+        values.remove(key);
+    }
+
+    int size() {
+        return values.size();
+    }
+
+    /**
+     * Forgets all cached lookups
+     */
+    public void clear() {
+        values.clear();
+    }
+}
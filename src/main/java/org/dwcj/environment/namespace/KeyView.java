@@ -0,0 +1,39 @@
+package org.dwcj.environment.namespace;
+
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Read-only view of the variable names returned by BBj, the names are converted to
+ * strings while iterating instead of being copied into a new set up front
+ */
+final class KeyView extends AbstractCollection<String> {
+
+    private final List<?> keys;
+
+    KeyView(List<?> keys) {
+        this.keys = keys;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        Iterator<?> it = keys.iterator();
+        return new Iterator<String>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public String next() {
+                return it.next().toString();
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return keys.size();
+    }
+}
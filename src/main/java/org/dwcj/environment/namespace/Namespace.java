@@ -1,5 +1,7 @@
 package org.dwcj.environment.namespace;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 
@@ -38,6 +40,12 @@ public interface Namespace {
      */
     public Set<String> keySet();
 
+    /**
+     * iterate over the variable names without copying them into a new set
+     * @return a read-only view of the names
+     */
+    public Collection<String> keys();
+
     /**
      * Get the variable count in this namespace.
      * @return the count of variables / objects
@@ -49,4 +57,35 @@ public interface Namespace {
      */
     public void clear();
 
+    /**
+     * Put several variables in the namespace in one pass. All variables are written,
+     * even if some of them are locked.
+     * @param values the variable names and contents
+     * @throws NamespaceVarableLockedException if at least one variable was locked
+     */
+    public void putAll(Map<String, ?> values) throws NamespaceVarableLockedException;
+
+    /**
+     * retrieve several variables from the namespace in one pass
+     * @param keys the variable names
+     * @return the names and contents of the variables that exist, in the order of the keys
+     */
+    public Map<String, Object> getAll(Collection<String> keys);
+
+    /**
+     * remove several variables from the namespace in one pass. All variables are removed,
+     * even if some of them are locked.
+     * @param keys the variable names
+     * @throws NamespaceVarableLockedException if at least one variable was locked
+     */
+    public void removeAll(Collection<String> keys) throws NamespaceVarableLockedException;
+
+    /**
+     * Read all variables of the namespace at once. How far other sessions are kept from
+     * modifying the variables while they are read depends on the kind of namespace.
+     * @return the names and contents of all variables
+     * @throws NamespaceVarableLockedException if a variable stayed locked by another session
+     */
+    public Map<String, Object> snapshot() throws NamespaceVarableLockedException;
+
 }
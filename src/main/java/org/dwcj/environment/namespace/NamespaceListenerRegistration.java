@@ -0,0 +1,14 @@
+package org.dwcj.environment.namespace;
+
+/**
+ * Handle of a namespace listener, returned by the onChange/onAccess methods of StandardNamespace
+ */
+@FunctionalInterface
+public interface NamespaceListenerRegistration {
+
+    /**
+     * Detach the listener. The BBj callback is removed with the last listener of the
+     * namespace or variable. Calling this more than once has no effect.
+     */
+    void remove();
+}
@@ -0,0 +1,102 @@
+package org.dwcj.environment.namespace;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Local read cache in front of a StandardNamespace. Values read or written through the
+ * namespace are kept in memory, and the change callback of the namespace drops a value as
+ * soon as any session modifies it. The callbacks are delivered through the BBj event loop
+ * of this session, so a change made by another session becomes visible here with the next
+ * processed event. The least recently used value is dropped once the cache is full.
+ */
+public final class NearCache {
+
+    private final int maxEntries;
+    private final Map<String, Object> values;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long invalidations = 0;
+    private long evictions = 0;
+
+    NearCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        this.maxEntries = maxEntries;
+        this.values = new LinkedHashMap<String, Object>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+                if (size() > NearCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @param key the variable name
+     * @return the cached value, or null if the variable is not cached
+     */
+    synchronized Object get(String key) {
+        Object value = values.get(key);
+        if (value == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return value;
+    }
+
+    synchronized void put(String key, Object value) {
+        if (value == null) {
+            values.remove(key);
+        } else {
+            values.put(key, value);
+        }
+    }
+
+    synchronized void invalidate(String key) {
+        if (values.remove(key) != null) {
+            invalidations++;
+        }
+    }
+
+    synchronized void invalidateAll() {
+        invalidations += values.size();
+        values.clear();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public synchronized int size() {
+        return values.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * @return the number of values dropped because they were changed in the namespace
+     */
+    public synchronized long getInvalidationCount() {
+        return invalidations;
+    }
+
+    /**
+     * @return the number of values dropped because the cache was full
+     */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+}
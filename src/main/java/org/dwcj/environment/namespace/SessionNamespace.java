@@ -5,8 +5,11 @@ import com.basis.startup.type.BBjException;
 import com.basis.startup.type.BBjVector;
 import org.dwcj.Environment;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 
@@ -46,6 +49,11 @@ public final class SessionNamespace implements Namespace
         return keyset;
     }
 
+    @Override
+    public Collection<String> keys() {
+        return new KeyView(otable.getKeys());
+    }
+
     @Override
     public int size() {
         return otable.size();
@@ -55,4 +63,40 @@ public final class SessionNamespace implements Namespace
     public void clear() {
         otable.clear();
     }
+
+    @Override
+    public void putAll(Map<String, ?> values) {
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            otable.put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public Map<String, Object> getAll(Collection<String> keys) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (String key : keys) {
+            try {
+                result.put(key, otable.get(key));
+            } catch (BBjException e) {
+                // not in the table
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void removeAll(Collection<String> keys) {
+        for (String key : keys) {
+            otable.remove(key);
+        }
+    }
+
+    /**
+     * The object table belongs to the current session only, so reading it is atomic
+     * @return the names and contents of all variables
+     */
+    @Override
+    public Map<String, Object> snapshot() {
+        return getAll(keys());
+    }
 }
@@ -4,12 +4,24 @@ import com.basis.bbj.proxies.BBjNamespace;
 import com.basis.startup.type.BBjException;
 import com.basis.startup.type.BBjVector;
 import org.dwcj.environment.namespace.events.NamespaceEvent;
-import org.dwcj.environment.namespace.sinks.NamespaceEventSink;
+import org.dwcj.Environment;
+import org.dwcj.environment.namespace.sinks.NamespaceListenerRegistry;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 /**
  * A Namespace is a shared object space, like a singleton.
@@ -17,8 +29,19 @@ import java.util.function.Consumer;
  */
 public abstract class StandardNamespace implements Namespace, CanLock {
 
+    private static final long SNAPSHOT_LOCK_TIMEOUT = 1000;
+
+    private static final long ATOMIC_MIN_BACKOFF = 2;
+    private static final long ATOMIC_MAX_BACKOFF = 100;
+
     protected BBjNamespace ns;
 
+    private volatile long atomicLockTimeout = 50;
+    private volatile int atomicMaxAttempts = 8;
+
+    private volatile NearCache nearCache;
+    private NamespaceListenerRegistration nearCacheListener;
+
     @Override
     public void put(String key, Object value) throws NamespaceVarableLockedException {
         try {
@@ -26,13 +49,28 @@ public abstract class StandardNamespace implements Namespace, CanLock {
         } catch (BBjException e) {
             throw new NamespaceVarableLockedException();
         }
+        NearCache cache = nearCache;
+        if (cache != null) {
+            cache.put(key, value);
+        }
 
     }
 
     @Override
     public Object get(String key) {
+        NearCache cache = nearCache;
+        if (cache != null) {
+            Object value = cache.get(key);
+            if (value != null) {
+                return value;
+            }
+        }
         try {
-            return ns.getValue(key);
+            Object value = ns.getValue(key);
+            if (cache != null) {
+                cache.put(key, value);
+            }
+            return value;
         } catch (BBjException e) {
             throw new NoSuchElementException();
         }
@@ -45,6 +83,10 @@ public abstract class StandardNamespace implements Namespace, CanLock {
         } catch (BBjException e) {
             throw new NamespaceVarableLockedException();
         }
+        NearCache cache = nearCache;
+        if (cache != null) {
+            cache.invalidate(key);
+        }
     }
 
     @Override
@@ -62,8 +104,18 @@ public abstract class StandardNamespace implements Namespace, CanLock {
         return keyset;
     }
 
+    @Override
+    public Collection<String> keys() {
+        try {
+            return new KeyView(ns.getKeys());
+        } catch (BBjException e) {
+            return Collections.emptyList();
+        }
+    }
+
     @Override
     public int size() {
+        // BBjNamespace has no count, the key vector is read once but not copied
         try {
             return ns.getKeys().size();
         } catch (BBjException e) {
@@ -71,9 +123,150 @@ public abstract class StandardNamespace implements Namespace, CanLock {
         }
     }
 
+    @Override
+    public void putAll(Map<String, ?> values) throws NamespaceVarableLockedException {
+        NearCache cache = nearCache;
+        boolean locked = false;
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            try {
+                ns.setValue(entry.getKey(), entry.getValue());
+                if (cache != null) {
+                    cache.put(entry.getKey(), entry.getValue());
+                }
+            } catch (BBjException e) {
+                locked = true;
+            }
+        }
+        if (locked) {
+            throw new NamespaceVarableLockedException();
+        }
+    }
+
+    @Override
+    public Map<String, Object> getAll(Collection<String> keys) {
+        NearCache cache = nearCache;
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (String key : keys) {
+            Object value = cache == null ? null : cache.get(key);
+            if (value == null) {
+                try {
+                    value = ns.getValue(key);
+                } catch (BBjException e) {
+                    continue;
+                }
+                if (cache != null) {
+                    cache.put(key, value);
+                }
+            }
+            result.put(key, value);
+        }
+        return result;
+    }
+
+    @Override
+    public void removeAll(Collection<String> keys) throws NamespaceVarableLockedException {
+        NearCache cache = nearCache;
+        boolean locked = false;
+        for (String key : keys) {
+            try {
+                ns.removeValue(key);
+            } catch (BBjException e) {
+                locked = true;
+            }
+            if (cache != null) {
+                cache.invalidate(key);
+            }
+        }
+        if (locked) {
+            throw new NamespaceVarableLockedException();
+        }
+    }
+
+    /**
+     * Locks all variables in name order, reads them and releases the locks again, so no
+     * session that respects the locks can modify them in between. This is best-effort:
+     * BBj has no lock on a whole namespace, so variables added after the names were read
+     * are missing, and sessions that write without taking the lock are not held back.
+     * It costs three calls into BBj per variable, and a session that waits for a lock
+     * held by the snapshot can wait until all variables are read.
+     * @return the names and contents of all variables
+     * @throws NamespaceVarableLockedException if a variable stayed locked by another session
+     */
+    @Override
+    public Map<String, Object> snapshot() throws NamespaceVarableLockedException {
+        List<String> names = new ArrayList<>(keys());
+        Collections.sort(names);
+        List<String> held = new ArrayList<>(names.size());
+        try {
+            for (String key : names) {
+                setLock(key, SNAPSHOT_LOCK_TIMEOUT);
+                held.add(key);
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            for (String key : names) {
+                try {
+                    result.put(key, ns.getValue(key));
+                } catch (BBjException e) {
+                    // removed before it was locked
+                }
+            }
+            return result;
+        } finally {
+            for (String key : held) {
+                removeLock(key);
+            }
+        }
+    }
+
     @Override
     public void clear() {
         ns.clear();
+        NearCache cache = nearCache;
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * Serve reads from a local cache, kept coherent through the change callback of the namespace
+     * @param maxEntries the maximum number of cached variables
+     * @return the near cache, to read its counters
+     */
+    public NearCache enableNearCache(int maxEntries) {
+        NearCache cache = nearCache;
+        if (cache == null) {
+            cache = new NearCache(maxEntries);
+            NearCache target = cache;
+            nearCacheListener = onChange(ev -> {
+                if (ev.getVariableName() == null || ev.getVariableName().isEmpty()) {
+                    target.invalidateAll();
+                } else {
+                    target.invalidate(ev.getVariableName());
+                }
+            });
+            nearCache = cache;
+        }
+        return cache;
+    }
+
+    /**
+     * Read every value from the namespace again
+     */
+    public void disableNearCache() {
+        NearCache cache = nearCache;
+        nearCache = null;
+        if (cache != null) {
+            nearCacheListener.remove();
+            nearCacheListener = null;
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * @return the near cache, or null if it is not enabled
+     */
+    public NearCache getNearCache() {
+        return nearCache;
     }
 
     @Override
@@ -95,41 +288,209 @@ public abstract class StandardNamespace implements Namespace, CanLock {
 
     }
 
+    /**
+     * Configure the locking of the atomic operations
+     * @param lockTimeout how long a single attempt waits for the variable lock, in milliseconds
+     * @param maxAttempts how often the lock is tried before NamespaceVarableLockedException is thrown
+     */
+    public void setAtomicLocking(long lockTimeout, int maxAttempts) {
+        if (lockTimeout < 0 || maxAttempts < 1) {
+            throw new IllegalArgumentException("lockTimeout must not be negative and maxAttempts must be at least 1");
+        }
+        this.atomicLockTimeout = lockTimeout;
+        this.atomicMaxAttempts = maxAttempts;
+    }
+
+    /**
+     * Set a variable only if it currently holds the expected value. The lock is only taken
+     * when the unlocked read suggests that the update can succeed.
+     * @param key the variable name
+     * @param expected the expected content, null if the variable is expected to be absent
+     * @param value the new content
+     * @return true if the variable was set
+     * @throws NamespaceVarableLockedException if the variable lock could not be acquired
+     */
+    public boolean compareAndSet(String key, Object expected, Object value) throws NamespaceVarableLockedException {
+        if (!Objects.equals(readRaw(key), expected)) {
+            return false;
+        }
+        boolean[] set = new boolean[1];
+        atomically(key, current -> {
+            set[0] = Objects.equals(current, expected);
+            return set[0] ? value : current;
+        });
+        return set[0];
+    }
+
+    /**
+     * Return the variable, or compute and set it if it is absent
+     * @param key the variable name
+     * @param mappingFunction computes the content from the name, it runs while the variable is locked
+     * @return the current or the computed content
+     * @throws NamespaceVarableLockedException if the variable lock could not be acquired
+     */
+    public Object computeIfAbsent(String key, Function<String, Object> mappingFunction) throws NamespaceVarableLockedException {
+        Object current = readRaw(key);
+        if (current != null) {
+            return current;
+        }
+        return atomically(key, old -> old != null ? old : mappingFunction.apply(key));
+    }
+
+    /**
+     * Set the variable to the value if it is absent, otherwise to the result of the function
+     * @param key the variable name
+     * @param value the content if the variable is absent, and the second argument of the function
+     * @param remappingFunction combines the current content and the value, a null result removes the variable
+     * @return the new content, or null if the variable was removed
+     * @throws NamespaceVarableLockedException if the variable lock could not be acquired
+     */
+    public Object merge(String key, Object value, BinaryOperator<Object> remappingFunction) throws NamespaceVarableLockedException {
+        return atomically(key, old -> old == null ? value : remappingFunction.apply(old, value));
+    }
+
+    /**
+     * Add to a numeric variable, an absent variable counts as 0
+     * @param key the variable name
+     * @param delta the amount to add
+     * @return the new value
+     * @throws NamespaceVarableLockedException if the variable lock could not be acquired
+     */
+    public long addAndGet(String key, long delta) throws NamespaceVarableLockedException {
+        return ((Number) atomically(key, old -> toLong(key, old) + delta)).longValue();
+    }
+
+    /**
+     * Increment a numeric variable, an absent variable counts as 0
+     * @param key the variable name
+     * @return the new value
+     * @throws NamespaceVarableLockedException if the variable lock could not be acquired
+     */
+    public long incrementAndGet(String key) throws NamespaceVarableLockedException {
+        return addAndGet(key, 1);
+    }
+
+    /**
+     * Update a variable and return its previous content
+     * @param key the variable name
+     * @param updateFunction computes the new content from the current one (null if absent),
+     *                       a null result removes the variable
+     * @return the previous content, or null if the variable was absent
+     * @throws NamespaceVarableLockedException if the variable lock could not be acquired
+     */
+    public Object getAndUpdate(String key, UnaryOperator<Object> updateFunction) throws NamespaceVarableLockedException {
+        Object[] previous = new Object[1];
+        atomically(key, old -> {
+            previous[0] = old;
+            return updateFunction.apply(old);
+        });
+        return previous[0];
+    }
+
+    private static long toLong(String key, Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        throw new IllegalStateException("Variable " + key + " does not hold a number");
+    }
+
+    private Object readRaw(String key) {
+        try {
+            return ns.getValue(key);
+        } catch (BBjException e) {
+            return null;
+        }
+    }
+
+    /*
+     * Locks the variable, applies the update to its current content and releases the lock.
+     * The locked section only spans one read and one write, the lock is retried with
+     * randomized exponential backoff when another session holds it.
+     */
+    private Object atomically(String key, UnaryOperator<Object> update) throws NamespaceVarableLockedException {
+        acquireLock(key);
+        Object result;
+        try {
+            Object current = readRaw(key);
+            result = update.apply(current);
+            if (result != current) {
+                if (result == null) {
+                    ns.removeValue(key);
+                } else {
+                    ns.setValue(key, result);
+                }
+            }
+        } catch (BBjException e) {
+            throw new NamespaceVarableLockedException();
+        } finally {
+            removeLock(key);
+        }
+        NearCache cache = nearCache;
+        if (cache != null) {
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    private void acquireLock(String key) throws NamespaceVarableLockedException {
+        long backoff = ATOMIC_MIN_BACKOFF;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                setLock(key, atomicLockTimeout);
+                return;
+            } catch (NamespaceVarableLockedException e) {
+                if (attempt >= atomicMaxAttempts) {
+                    throw e;
+                }
+            }
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new NamespaceVarableLockedException();
+            }
+            backoff = Math.min(backoff * 2, ATOMIC_MAX_BACKOFF);
+        }
+    }
+
     /**
      * Register a callback that is called whenever anything inside this namespace changes
      * @param consumer the consumer to notify
-     * @return
+     * @return the handle that removes the callback
      */
-    public StandardNamespace onChange(Consumer<NamespaceEvent> consumer){
-        new NamespaceEventSink(ns,true,consumer);
-        return this;
+    public NamespaceListenerRegistration onChange(Consumer<NamespaceEvent> consumer){
+        return listeners().add(ns, null, true, consumer);
     }
     /**
      * Register a callback that is called whenever anything inside this namespace is being written, regardless if it was a change
      * @param consumer the consumer to notify
-     * @return
+     * @return the handle that removes the callback
      */
-    public StandardNamespace onAccess(Consumer<NamespaceEvent> consumer) {
-        new NamespaceEventSink(ns,false,consumer);
-        return this;
+    public NamespaceListenerRegistration onAccess(Consumer<NamespaceEvent> consumer) {
+        return listeners().add(ns, null, false, consumer);
     }
     /**
      * Register a callback that is called whenever a specific variable inside this namespace changes
      * @param consumer the consumer to notify
-     * @return
+     * @return the handle that removes the callback
      */
-    public StandardNamespace onVariableChange(String key, Consumer<NamespaceEvent> consumer){
-        new NamespaceEventSink(ns,key,true,consumer);
-        return this;
+    public NamespaceListenerRegistration onVariableChange(String key, Consumer<NamespaceEvent> consumer){
+        return listeners().add(ns, key, true, consumer);
     }
     /**
      * Register a callback that is called whenever a specific variable inside this namespace was written, regardless if it changed its value
      * @param consumer the consumer to notify
-     * @return
+     * @return the handle that removes the callback
      */
-    public StandardNamespace onVariableAccess(String key, Consumer<NamespaceEvent> consumer) {
-        new NamespaceEventSink(ns, key, false,consumer);
-        return this;
+    public NamespaceListenerRegistration onVariableAccess(String key, Consumer<NamespaceEvent> consumer) {
+        return listeners().add(ns, key, false, consumer);
+    }
+
+    private static NamespaceListenerRegistry listeners() {
+        return Environment.getInstance().getNamespaceListenerRegistry();
     }
 
 }
@@ -7,120 +7,118 @@ import org.dwcj.App;
 import org.dwcj.Environment;
 import org.dwcj.environment.namespace.events.NamespaceEvent;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 
+/**
+ * Receives the BBj callbacks of one namespace, or of one variable in it, for one session.
+ * A single BBj callback is registered however many listeners are attached, the listener
+ * list is copy-on-write so dispatching does not lock against registrations.
+ * Instances are managed by the NamespaceListenerRegistry of the session.
+ */
 public final class NamespaceEventSink {
 
-    private static final HashMap<String,ArrayList<Consumer<NamespaceEvent>>> variableAccessTargets = new HashMap<>();
-    private static final HashMap<String,ArrayList<Consumer<NamespaceEvent>>> variableChangeTargets = new HashMap<>();
-    private static final HashMap<String,ArrayList<Consumer<NamespaceEvent>>> namespaceAccessTargets = new HashMap<>();
-    private static final HashMap<String,ArrayList<Consumer<NamespaceEvent>>> namespaceChangeTargets = new HashMap<>();
     public static final String ON_EVENT = "onEvent";
 
+    private final BBjNamespace ns;
+    private final String key;
+    private final boolean changeOnly;
+    private final List<Consumer<NamespaceEvent>> consumers = new CopyOnWriteArrayList<>();
 
+    NamespaceEventSink(BBjNamespace ns, String key, boolean changeOnly) {
+        this.ns = ns;
+        this.key = key;
+        this.changeOnly = changeOnly;
+    }
+
+    /**
+     * @deprecated use StandardNamespace.onChange or onAccess, this attaches the consumer
+     * to the NamespaceListenerRegistry of the session
+     */
+    @Deprecated
     public NamespaceEventSink(BBjNamespace ns, Boolean fChangeOnly, Consumer<NamespaceEvent> consumer) {
-        this(ns,null,fChangeOnly, consumer);
+        this(ns, null, fChangeOnly, consumer);
     }
 
+    /**
+     * @deprecated use StandardNamespace.onVariableChange or onVariableAccess, this attaches
+     * the consumer to the NamespaceListenerRegistry of the session
+     */
+    @Deprecated
     public NamespaceEventSink(BBjNamespace ns, String key, Boolean fChangeOnly, Consumer<NamespaceEvent> consumer) {
-        String nsname = "";
+        this(ns, key, Boolean.TRUE.equals(fChangeOnly));
         if (ns != null) {
+            Environment.getInstance().getNamespaceListenerRegistry().add(ns, key, changeOnly, consumer);
+        }
+    }
 
-            String nskey = null;
-            if (key != null) nskey = key;
-
-            if (nskey == null) {
-                //namespace events
-                if (Boolean.TRUE.equals(fChangeOnly)) {
-                    try {
-                        ns.setCallbackForNamespaceChange(Environment.getInstance().getDwcjHelper().getEventProxy(this, "onNsChange"), ON_EVENT);
-                        ArrayList<Consumer<NamespaceEvent>> consumerlist = namespaceChangeTargets.computeIfAbsent(nsname, k -> new ArrayList<>());
-                        consumerlist.add(consumer);
-                    } catch (BBjException e) {
-                        App.consoleLog(e.getMessage());
-                    }
+    /**
+     * @return false if the BBj side rejected the callback
+     */
+    boolean register() {
+        try {
+            Object proxy = Environment.getInstance().getDwcjHelper().getEventProxy(this, "onEvent");
+            if (key == null) {
+                if (changeOnly) {
+                    ns.setCallbackForNamespaceChange(proxy, ON_EVENT);
                 } else {
-                    try {
-                        ns.setCallbackForNamespace(Environment.getInstance().getDwcjHelper().getEventProxy(this, "onNsAccess"), ON_EVENT);
-                        ArrayList<Consumer<NamespaceEvent>> consumerlist = namespaceAccessTargets.computeIfAbsent(nsname, k -> new ArrayList<>());
-                        consumerlist.add(consumer);
-                    } catch (BBjException e) {
-                        App.consoleLog(e.getMessage());
-                    }
-
+                    ns.setCallbackForNamespace(proxy, ON_EVENT);
                 }
-
             } else {
-                //namespace variable events
-                if (Boolean.TRUE.equals(fChangeOnly)) {
-                    try {
-                        ns.setCallbackForVariableChange(key, Environment.getInstance().getDwcjHelper().getEventProxy(this, "onVarChange"), ON_EVENT);
-                        ArrayList<Consumer<NamespaceEvent>> consumerlist = variableChangeTargets.computeIfAbsent(nsname + "\0" + key, k -> new ArrayList<>());
-                        consumerlist.add(consumer);
-                    } catch (BBjException e) {
-                        App.consoleLog(e.getMessage());
-                    }
+                if (changeOnly) {
+                    ns.setCallbackForVariableChange(key, proxy, ON_EVENT);
                 } else {
-                    try {
-                        ns.setCallbackForVariable(key, Environment.getInstance().getDwcjHelper().getEventProxy(this, "onVarAccess"), ON_EVENT);
-                        ArrayList<Consumer<NamespaceEvent>> consumerlist = variableAccessTargets.computeIfAbsent(nsname + "\0" + key, k -> new ArrayList<>());
-                        consumerlist.add(consumer);
-                    } catch (BBjException e) {
-                        App.consoleLog(e.getMessage());
-                    }
+                    ns.setCallbackForVariable(key, proxy, ON_EVENT);
                 }
             }
+            return true;
+        } catch (BBjException e) {
+            App.consoleLog(e.getMessage());
+            return false;
         }
-
     }
 
-    public void onNsChange(BBjNamespaceEvent ev){
-        NamespaceEvent nsEvent = new NamespaceEvent(ev.getNamespaceName(),ev.getVariableName(),ev.getOldValue(), ev.getNewValue());
-        if (namespaceChangeTargets != null) {
-            ArrayList<Consumer<NamespaceEvent>> consumerlist = namespaceChangeTargets.get(ev.getNamespaceName());
-            if (consumerlist != null) {
-                for (Consumer<NamespaceEvent> consumer : consumerlist) {
-                    consumer.accept(nsEvent);
+    void unregister() {
+        consumers.clear();
+        try {
+            if (key == null) {
+                if (changeOnly) {
+                    ns.removeCallbackForNamespaceChange();
+                } else {
+                    ns.removeCallbackForNamespace();
+                }
+            } else {
+                if (changeOnly) {
+                    ns.removeCallbackForVariableChange(key);
+                } else {
+                    ns.removeCallbackForVariable(key);
                 }
             }
+        } catch (Exception e) {
+            App.consoleLog(e.getMessage());
         }
     }
 
-    public void onNsAccess(BBjNamespaceEvent ev){
-        NamespaceEvent nsEvent = new NamespaceEvent(ev.getNamespaceName(),ev.getVariableName(),ev.getOldValue(), ev.getNewValue());
-        if (namespaceAccessTargets != null) {
-            ArrayList<Consumer<NamespaceEvent>> consumerlist = namespaceAccessTargets.get(ev.getNamespaceName());
-            if (consumerlist != null) {
-                for (Consumer<NamespaceEvent> consumer : consumerlist) {
-                    consumer.accept(nsEvent);
-                }
-            }
-        }
+    void add(Consumer<NamespaceEvent> consumer) {
+        consumers.add(consumer);
     }
 
-    public void onVarChange(BBjNamespaceEvent ev){
-        NamespaceEvent nsEvent = new NamespaceEvent(ev.getNamespaceName(),ev.getVariableName(),ev.getOldValue(), ev.getNewValue());
-        if (variableChangeTargets != null) {
-            ArrayList<Consumer<NamespaceEvent>> consumerlist = variableChangeTargets.get(ev.getNamespaceName()+ "\0" + ev.getVariableName());
-            if (consumerlist != null) {
-                for (Consumer<NamespaceEvent> consumer : consumerlist) {
-                    consumer.accept(nsEvent);
-                }
-            }
-        }
+    /**
+     * @return true if this was the last listener
+     */
+    boolean remove(Consumer<NamespaceEvent> consumer) {
+        consumers.remove(consumer);
+        return consumers.isEmpty();
     }
 
-    public void onVarAccess(BBjNamespaceEvent ev){
-        NamespaceEvent nsEvent = new NamespaceEvent(ev.getNamespaceName(),ev.getVariableName(),ev.getOldValue(), ev.getNewValue());
-        if (variableAccessTargets != null) {
-            ArrayList<Consumer<NamespaceEvent>> consumerlist = variableAccessTargets.get(ev.getNamespaceName()+ "\0" + ev.getVariableName());
-            if (consumerlist != null) {
-                for (Consumer<NamespaceEvent> consumer : consumerlist) {
-                    consumer.accept(nsEvent);
-                }
-            }
+    private void onEvent(BBjNamespaceEvent ev) {
+        if (consumers.isEmpty()) {
+            return;
+        }
+        NamespaceEvent nsEvent = new NamespaceEvent(ev.getNamespaceName(), ev.getVariableName(), ev.getOldValue(), ev.getNewValue());
+        for (Consumer<NamespaceEvent> consumer : consumers) {
+            consumer.accept(nsEvent);
         }
     }
 }
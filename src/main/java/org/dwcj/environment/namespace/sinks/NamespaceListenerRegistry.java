@@ -0,0 +1,77 @@
+package org.dwcj.environment.namespace.sinks;
+
+import com.basis.bbj.proxies.BBjNamespace;
+import org.dwcj.App;
+import org.dwcj.environment.namespace.NamespaceListenerRegistration;
+import org.dwcj.environment.namespace.events.NamespaceEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The namespace listeners of one session, held by its Environment. There is one
+ * NamespaceEventSink, and so one BBj callback, per namespace, variable and kind of event.
+ * The registry is cleared when the session ends, see Environment.cleanup.
+ */
+public final class NamespaceListenerRegistry {
+
+    private final Map<String, NamespaceEventSink> sinks = new HashMap<>();
+
+    /**
+     * @param ns the namespace
+     * @param key the variable name, or null to listen to the whole namespace
+     * @param changeOnly true to be notified of changes only, false for every write
+     * @param consumer the listener
+     * @return the handle that detaches the listener
+     */
+    public synchronized NamespaceListenerRegistration add(BBjNamespace ns, String key, boolean changeOnly,
+                                                          Consumer<NamespaceEvent> consumer) {
+        String sinkKey = sinkKey(ns, key, changeOnly);
+        NamespaceEventSink sink = sinks.get(sinkKey);
+        if (sink == null) {
+            sink = new NamespaceEventSink(ns, key, changeOnly);
+            if (!sink.register()) {
+                return () -> { };
+            }
+            sinks.put(sinkKey, sink);
+        }
+        sink.add(consumer);
+        NamespaceEventSink target = sink;
+        return () -> remove(sinkKey, target, consumer);
+    }
+
+    private synchronized void remove(String sinkKey, NamespaceEventSink sink, Consumer<NamespaceEvent> consumer) {
+        if (sinks.get(sinkKey) == sink && sink.remove(consumer)) {
+            sinks.remove(sinkKey);
+            sink.unregister();
+        }
+    }
+
+    /**
+     * Detaches all listeners and removes the BBj callbacks
+     */
+    public void clear() {
+        List<NamespaceEventSink> registered;
+        synchronized (this) {
+            registered = new ArrayList<>(sinks.values());
+            sinks.clear();
+        }
+        for (NamespaceEventSink sink : registered) {
+            sink.unregister();
+        }
+    }
+
+    private static String sinkKey(BBjNamespace ns, String key, boolean changeOnly) {
+        String name;
+        try {
+            name = ns.getName();
+        } catch (Exception e) {
+            App.consoleLog(e.getMessage());
+            name = "@" + System.identityHashCode(ns);
+        }
+        return (changeOnly ? "C" : "A") + name + (key == null ? "" : "\0" + key);
+    }
+}
@@ -2,115 +2,198 @@ package org.dwcj.util;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
 
+/**
+ * Finds the subclasses of org.dwcj.App in a list of classpath entries.
+ *
+ * Classes are not loaded: the name and superclass of every class are read from the class
+ * file header, and the superclass chains are resolved over everything that was found.
+ * Jars and directories are scanned in parallel on the common fork-join pool, well-known
+ * third-party jars are skipped, and the hierarchy of each jar is kept in an index file, so
+ * jars that did not change since the last scan (same path, size and modification time)
+ * are not read again. The default index file is kept in the .dwcj directory of the user's
+ * home, one per list of classpath entries.
+ */
 @SuppressWarnings({"java:S3740","java:S3776"}) // allow raw types
 public class AppFinder {
 
-    private final Class appBaseClass;
+    private static final String APP_CLASS = "org.dwcj.App";
+    private static final String WELCOME_APP_CLASS = "org.dwcj.util.WelcomeApp";
+    private static final String DEFAULT_INDEX_DIRECTORY = ".dwcj";
+
+    /**
+     * Name prefixes of jars that are known not to contain apps
+     */
+    private static final List<String> SKIPPED_JAR_PREFIXES = Arrays.asList(
+            "bbj", "basis", "bbjadmin", "commons-", "jackson-", "gson-", "guava-", "log4j", "slf4j-", "logback-",
+            "junit", "hamcrest", "mockito", "poi-", "xmlbeans", "jetty-", "netty-", "bcprov", "bcpkix", "jna",
+            "kotlin-stdlib", "groovy", "scala-library", "spring-", "hibernate-", "javax.", "jakarta.", "h2-",
+            "postgresql-", "mysql-connector", "ojdbc", "mssql-jdbc", "httpclient", "httpcore", "okhttp", "okio",
+            "byte-buddy", "asm-", "antlr", "joda-time", "itext", "pdfbox", "fontbox", "xercesimpl", "xml-apis");
+
     private final TreeSet<String> appImplmentations = new TreeSet<>();
 
     private final List<String> cpEntriesToCheck;
+    private final AppFinderIndex index;
 
     public AppFinder(List<String>cpEntriesToCheck) throws ClassNotFoundException {
-        this.cpEntriesToCheck = cpEntriesToCheck;
-        appBaseClass = Class.forName("org.dwcj.App");
+        this(cpEntriesToCheck, getDefaultIndexFile(cpEntriesToCheck));
     }
 
+    /**
+     * @param cpEntriesToCheck the directories and jars to scan
+     * @param indexFile the file that keeps the hierarchy of scanned jars, null to always read all jars
+     * @throws ClassNotFoundException if org.dwcj.App is not available
+     */
+    public AppFinder(List<String>cpEntriesToCheck, Path indexFile) throws ClassNotFoundException {
+        this.cpEntriesToCheck = cpEntriesToCheck;
+        // fail early, like the loading scanner did, if the App base class is not available
+        Class.forName(APP_CLASS);
+        this.index = new AppFinderIndex(indexFile);
+    }
 
-    private void checkClass(String className) {
-
-
-        Class tmpClass = null;
-
-        try {
-            tmpClass = Class.forName(className,false, this.getClass().getClassLoader());
-        } catch(NoClassDefFoundError|ClassNotFoundException e) {
-            return;
-        }
-        //ignore class in case of exceptions, this class is apparently not for us!
-
-        if (tmpClass != null && this.appBaseClass.isAssignableFrom(tmpClass) && !className.equals("org.dwcj.App") && !className.equals("org.dwcj.util.WelcomeApp")) {
-            this.appImplmentations.add(className);
-        }
+    /*
+     * The index of an app is not shared with other users, and apps with different classpaths
+     * do not replace each other's index
+     */
+    private static Path getDefaultIndexFile(List<String> cpEntriesToCheck) {
+        String classpath = cpEntriesToCheck == null ? "" : String.join(File.pathSeparator, cpEntriesToCheck);
+        return Paths.get(System.getProperty("user.home"), DEFAULT_INDEX_DIRECTORY,
+                "appfinder-" + Integer.toHexString(classpath.hashCode()) + ".idx");
     }
 
     public Set<String> getAppImplmentations() {
 
         if (this.cpEntriesToCheck != null) {
+            index.load();
+            List<ForkJoinTask<Map<String, String>>> scans = new ArrayList<>();
             for (String s : cpEntriesToCheck) {
-                process(s);
+                File entry = new File(s);
+                if (isJar(entry) && isSkipped(entry)) {
+                    continue;
+                }
+                scans.add(ForkJoinPool.commonPool().submit(() -> process(entry)));
+            }
+
+            Map<String, String> superclasses = new HashMap<>();
+            for (ForkJoinTask<Map<String, String>> scan : scans) {
+                superclasses.putAll(scan.join());
+            }
+            index.save();
+
+            for (String className : superclasses.keySet()) {
+                if (isApp(className, superclasses)) {
+                    this.appImplmentations.add(className);
+                }
             }
         }
         return this.appImplmentations;
     }
 
-    private void process(String filepath){
-        processFile(filepath,"");
+    private static boolean isApp(String className, Map<String, String> superclasses) {
+        if (className.equals(APP_CLASS) || className.equals(WELCOME_APP_CLASS)) {
+            return false;
+        }
+        String current = superclasses.get(className);
+        // the depth bound guards against cycles in inconsistent classpaths
+        for (int depth = 0; current != null && depth < 256; depth++) {
+            if (current.equals(APP_CLASS)) {
+                return true;
+            }
+            current = superclasses.get(current);
+        }
+        return false;
     }
 
+    private static boolean isJar(File file) {
+        return file.getName().endsWith(".jar");
+    }
 
-    private void processFile(String base, String curFile) {
-        String nextfile = base + File.separatorChar + curFile;
-        File currentDirectory = new File(nextfile);
+    private static boolean isSkipped(File jar) {
+        String name = jar.getName().toLowerCase(Locale.ROOT);
+        for (String prefix : SKIPPED_JAR_PREFIXES) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        // it's a JAR file
-        if (currentDirectory.getName().endsWith(".jar")) {
-            try {
-                if (currentDirectory.exists())
-                    processJar(new ZipFile(currentDirectory));
-            } catch (IOException e) {
-                throw new RuntimeException(e); //NOSONAR
+    private Map<String, String> process(File entry) {
+        Map<String, String> superclasses = new HashMap<>();
+        if (isJar(entry)) {
+            if (entry.exists()) {
+                processJar(entry, superclasses);
             }
+        } else {
+            processDirectory(entry, superclasses);
         }
-        else {
+        return superclasses;
+    }
 
-            Set myDirectories = new HashSet();
+    private void processDirectory(File directory, Map<String, String> superclasses) {
+        File[] myFiles = directory.listFiles();
 
-            File[] myFiles = currentDirectory.listFiles();
+        if (myFiles == null || myFiles.length == 0) {
+            return;
+        }
 
-            if (myFiles == null || myFiles.length == 0) {
-                return;
+        for (File myFile : myFiles) {
+            if (myFile.isDirectory()) {
+                processDirectory(myFile, superclasses);
+            } else if (myFile.getName().endsWith(".class")) {
+                try (InputStream in = Files.newInputStream(myFile.toPath())) {
+                    readHeader(in, superclasses);
+                } catch (IOException e) {
+                    //ignore files that cannot be read, they are apparently not for us!
+                }
             }
+        }
+    }
 
-            for (File myFile : myFiles) {
-                if (myFile.isDirectory()) {
-                    myDirectories.add(myFile);
-                } else {
-                    if (myFile.getName().endsWith(".class")) {
-                        String className = getClassName(curFile + ((curFile.isBlank()) ? "" : File.separator) + myFile.getName());
-                        checkClass(className);
+    private void processJar(File jar, Map<String, String> superclasses) {
+        long size = jar.length();
+        long modifiedAt = jar.lastModified();
+        Map<String, String> indexed = index.get(jar);
+        if (indexed != null) {
+            superclasses.putAll(indexed);
+            return;
+        }
+
+        Map<String, String> found = new HashMap<>();
+        try (ZipFile file = new ZipFile(jar)) {
+            Enumeration<? extends ZipEntry> files = file.entries();
+            while (files.hasMoreElements()) {
+                ZipEntry child = files.nextElement();
+                if (child.getName().endsWith(".class") && !child.getName().startsWith("META-INF/")) {
+                    try (InputStream in = file.getInputStream(child)) {
+                        readHeader(in, found);
+                    } catch (IOException e) {
+                        //ignore entries that cannot be read, they are apparently not for us!
                     }
                 }
             }
-
-            for (Object myDirectory : myDirectories) {
-                processFile(base, curFile + ((curFile.isBlank()) ? "" : File.separator) + ((File) myDirectory).getName());
-            }
+        } catch (IOException e) {
+            throw new RuntimeException(e); //NOSONAR
         }
+        index.put(jar, size, modifiedAt, found);
+        superclasses.putAll(found);
     }
 
-    private String getClassName(String fileName) {
-        String className =  fileName.replace(File.separatorChar,'.');
-        className =  className.replace('/','.');
-        return className.substring(0, fileName.length() - 6);
-    }
-
-    private void processJar(ZipFile file) {
-        Enumeration files = file.entries(); //NOSONAR
-
-        while (files.hasMoreElements()) {
-            Object tfile = files.nextElement();
-            ZipEntry child = (ZipEntry) tfile;
-            if (child.getName().endsWith(".class")) {
-                checkClass(getClassName(child.getName()));
-            }
+    private static void readHeader(InputStream in, Map<String, String> superclasses) throws IOException {
+        String[] header = ClassHeaderReader.read(in);
+        if (header != null && header[0] != null) {
+            superclasses.put(header[0], header[1]);
         }
     }
 }
-
-
-
@@ -0,0 +1,148 @@
+package org.dwcj.util;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * On-disk index of the class hierarchy found in jar files, so that jars which did not change
+ * since the last scan are not read again. A jar is identified by its path, size and
+ * modification time. The file is a plain text file:
+ *
+ * J path size mtime
+ * C class superclass
+ *
+ * with tab separated fields, each J line followed by the classes of that jar.
+ *
+ * Jars that were not looked up or added since the index was loaded are dropped when it is
+ * saved, so the index only holds the jars of the latest scan.
+ */
+final class AppFinderIndex {
+
+    private static final String JAR = "J";
+    private static final String CLASS = "C";
+    private static final String NO_SUPERCLASS = "-";
+
+    private final Path file;
+    private final Map<String, JarEntry> jars = new ConcurrentHashMap<>();
+    // the jars of the current scan
+    private final Set<String> seen = ConcurrentHashMap.newKeySet();
+    private volatile boolean modified = false;
+
+    private static final class JarEntry {
+        private final long size;
+        private final long modifiedAt;
+        private final Map<String, String> classes;
+
+        private JarEntry(long size, long modifiedAt, Map<String, String> classes) {
+            this.size = size;
+            this.modifiedAt = modifiedAt;
+            this.classes = classes;
+        }
+    }
+
+    AppFinderIndex(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Reads the index file, a missing or unreadable file results in an empty index
+     */
+    void load() {
+        seen.clear();
+        if (file == null) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Map<String, String> classes = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t");
+                if (fields.length == 4 && JAR.equals(fields[0])) {
+                    classes = new HashMap<>();
+                    jars.put(fields[1], new JarEntry(Long.parseLong(fields[2]), Long.parseLong(fields[3]), classes));
+                } else if (fields.length == 3 && CLASS.equals(fields[0]) && classes != null) {
+                    classes.put(fields[1], NO_SUPERCLASS.equals(fields[2]) ? null : fields[2]);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // first scan
+        } catch (IOException | RuntimeException e) {
+            jars.clear();
+        }
+    }
+
+    /**
+     * @param jar the jar file
+     * @return the classes of the jar mapped to their superclasses, or null if the jar is not
+     * indexed or changed since it was indexed
+     */
+    Map<String, String> get(File jar) {
+        String path = jar.getAbsolutePath();
+        seen.add(path);
+        JarEntry entry = jars.get(path);
+        if (entry == null || entry.size != jar.length() || entry.modifiedAt != jar.lastModified()) {
+            return null;
+        }
+        return entry.classes;
+    }
+
+    void put(File jar, long size, long modifiedAt, Map<String, String> classes) {
+        String path = jar.getAbsolutePath();
+        seen.add(path);
+        jars.put(path, new JarEntry(size, modifiedAt, classes));
+        modified = true;
+    }
+
+    /**
+     * Drops the jars that were not part of the current scan and writes the index if it changed.
+     * The file is replaced atomically, so concurrent readers never see a partial index.
+     */
+    void save() {
+        if (jars.keySet().retainAll(seen)) {
+            modified = true;
+        }
+        if (file == null || !modified) {
+            return;
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try {
+                write(tmp);
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                modified = false;
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            // the index is an optimization only, the next scan reads the jars again
+        }
+    }
+
+    private void write(Path target) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, JarEntry> jar : jars.entrySet()) {
+                JarEntry entry = jar.getValue();
+                writer.write(JAR + "\t" + jar.getKey() + "\t" + entry.size + "\t" + entry.modifiedAt);
+                writer.newLine();
+                for (Map.Entry<String, String> cls : entry.classes.entrySet()) {
+                    String superclass = cls.getValue() == null ? NO_SUPERCLASS : cls.getValue();
+                    writer.write(CLASS + "\t" + cls.getKey() + "\t" + superclass);
+                    writer.newLine();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.dwcj.util;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the name and the superclass name from a class file without loading the class.
+ * Only the constant pool and the fixed header fields in front of the interfaces are parsed.
+ */
+final class ClassHeaderReader {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private ClassHeaderReader() {}
+
+    /**
+     * @param in the class file, positioned at its start
+     * @return the binary names of the class and its superclass (null for java.lang.Object
+     * and module-info), or null if the data is not a class file
+     * @throws IOException if the stream cannot be read
+     */
+    static String[] read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            return null;
+        }
+        data.readUnsignedShort(); // minor version
+        data.readUnsignedShort(); // major version
+        int count = data.readUnsignedShort();
+        String[] utf8 = new String[count];
+        int[] classNameIndex = new int[count];
+        for (int i = 1; i < count; i++) {
+            int tag = data.readUnsignedByte();
+            switch (tag) {
+                case 1: // Utf8
+                    utf8[i] = data.readUTF();
+                    break;
+                case 7: // Class
+                    classNameIndex[i] = data.readUnsignedShort();
+                    break;
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    data.skipBytes(2);
+                    break;
+                case 15: // MethodHandle
+                    data.skipBytes(3);
+                    break;
+                case 3: // Integer
+                case 4: // Float
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    data.skipBytes(4);
+                    break;
+                case 5: // Long
+                case 6: // Double
+                    data.skipBytes(8);
+                    i++;
+                    break;
+                default:
+                    return null;
+            }
+        }
+        data.readUnsignedShort(); // access flags
+        int thisClass = data.readUnsignedShort();
+        int superClass = data.readUnsignedShort();
+        return new String[]{className(utf8, classNameIndex, thisClass), className(utf8, classNameIndex, superClass)};
+    }
+
+    private static String className(String[] utf8, int[] classNameIndex, int index) {
+        if (index == 0 || index >= classNameIndex.length) {
+            return null;
+        }
+        String internal = utf8[classNameIndex[index]];
+        return internal == null ? null : internal.replace('/', '.');
+    }
+}
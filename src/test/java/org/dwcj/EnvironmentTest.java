@@ -0,0 +1,100 @@
+package org.dwcj;
+
+import com.basis.bbj.proxies.BBjAPI;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the session registry, getInstance() with many concurrent sessions is measured by
+ * EnvironmentBenchmark. The sessions run against a BBjAPI stub, as only openSysGui() is
+ * called when a session is initialized.
+ */
+class EnvironmentTest {
+
+    private static final int SESSIONS = 64;
+
+    private static BBjAPI stubApi() {
+        return (BBjAPI) Proxy.newProxyInstance(BBjAPI.class.getClassLoader(), new Class<?>[]{BBjAPI.class},
+                (proxy, method, args) -> null);
+    }
+
+    @AfterEach
+    void cleanup() {
+        Environment.cleanup();
+    }
+
+    @Test
+    void sessionIsBoundToTheInitializingThread() throws Exception {
+        Environment.init(stubApi(), null);
+        Environment env = Environment.getInstance();
+        assertNotNull(env);
+        assertSame(env, Environment.getInstance(env.getSessionId()));
+        assertTrue(Environment.getInstances().contains(env));
+
+        Callable<Environment> lookup = Environment::getInstance;
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertNull(executor.submit(lookup).get());
+            assertSame(env, executor.submit(Environment.wrap(lookup)).get());
+            // the binding does not leak into the pool thread after the wrapped task
+            assertNull(executor.submit(lookup).get());
+        } finally {
+            executor.shutdown();
+        }
+
+        Environment.cleanup();
+        assertNull(Environment.getInstance());
+        assertNull(Environment.getInstance(env.getSessionId()));
+    }
+
+    @Test
+    void sessionsOnThreadsWithTheSameNameDoNotCollide() throws Exception {
+        List<Thread> threads = new ArrayList<>();
+        Map<Integer, Environment> seen = new HashMap<>();
+        AtomicInteger mismatches = new AtomicInteger();
+        CyclicBarrier barrier = new CyclicBarrier(SESSIONS / 4);
+        for (int i = 0; i < SESSIONS / 4; i++) {
+            int n = i;
+            Thread t = new Thread(() -> {
+                try {
+                    Environment.init(stubApi(), null);
+                    Environment env = Environment.getInstance();
+                    synchronized (seen) {
+                        seen.put(n, env);
+                    }
+                    barrier.await();
+                    if (Environment.getInstance() != env) {
+                        mismatches.incrementAndGet();
+                    }
+                    Environment.cleanup();
+                } catch (Exception e) {
+                    mismatches.incrementAndGet();
+                }
+            }, "session");
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals(0, mismatches.get());
+        assertEquals(SESSIONS / 4, seen.values().stream().distinct().count());
+    }
+}
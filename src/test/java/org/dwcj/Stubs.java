@@ -0,0 +1,84 @@
+package org.dwcj;
+
+import com.basis.startup.type.BBjException;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Proxy;
+
+/**
+ * Stubs of the BBj proxy interfaces for tests that run without a BBj interpreter. Every
+ * method returns the default value of its return type.
+ */
+public final class Stubs {
+
+    private Stubs() {
+    }
+
+    /**
+     * @param type a BBj proxy interface
+     * @param <T> the type of the interface
+     * @return an instance whose methods do nothing and return 0, false or null
+     */
+    public static <T> T of(Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> defaultValue(method.getReturnType())));
+    }
+
+    /**
+     * @param message the message of the exception
+     * @return a BBjException as thrown by the BBj proxies, created through the first constructor
+     * that only takes strings and primitives, so the test does not depend on its signature
+     */
+    public static BBjException exception(String message) {
+        for (Constructor<?> constructor : BBjException.class.getConstructors()) {
+            Class<?>[] types = constructor.getParameterTypes();
+            Object[] args = new Object[types.length];
+            boolean usable = true;
+            for (int i = 0; i < types.length; i++) {
+                if (types[i] == String.class) {
+                    args[i] = message;
+                } else if (types[i].isPrimitive()) {
+                    args[i] = defaultValue(types[i]);
+                } else {
+                    usable = false;
+                }
+            }
+            if (usable) {
+                try {
+                    return (BBjException) constructor.newInstance(args);
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+        throw new IllegalStateException("No usable BBjException constructor");
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,82 @@
+package org.dwcj.bbj;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BBjArgFrameTest {
+
+    @Test
+    void numericSlotsAreDecimalExact() {
+        BBjArgFrame frame = new BBjArgFrame().addNumeric(new BigDecimal("0.1"));
+        frame.setNumeric(0, frame.getNumeric(0).add(new BigDecimal("0.2")));
+        assertEquals(new BigDecimal("0.3"), frame.getNumeric(0));
+
+        BigDecimal large = new BigDecimal("12345678901234567.89");
+        frame.setNumeric(0, large);
+        assertEquals(large, frame.getNumeric(0));
+    }
+
+    @Test
+    void numericSlotsHoldUnscaledValues() {
+        BBjArgFrame frame = new BBjArgFrame().addNumeric(123456, 2).addNumeric(null);
+        assertEquals(new BigDecimal("1234.56"), frame.getNumeric(0));
+        assertEquals(123456, frame.getUnscaledNumeric(0));
+        assertEquals(2, frame.getNumericScale(0));
+        assertEquals(BigDecimal.ZERO, frame.getNumeric(1));
+
+        // a BigDecimal written back by the BBj side replaces the unscaled value
+        frame.setNumeric(0, new BigDecimal("-0.5"));
+        assertEquals(-5, frame.getUnscaledNumeric(0));
+        assertEquals(1, frame.getNumericScale(0));
+        frame.setNumeric(0, 7, 0);
+        assertEquals(BigDecimal.valueOf(7), frame.getNumeric(0));
+
+        frame.setNumeric(0, new BigDecimal("123456789012345678901234567890"));
+        assertThrows(ArithmeticException.class, () -> frame.getUnscaledNumeric(0));
+    }
+
+    @Test
+    void slotsAreTyped() {
+        Object object = new Object();
+        BBjArgFrame frame = new BBjArgFrame()
+                .addNumeric(BigDecimal.ONE).addInt(2).addString("three").addObject(object);
+        assertEquals(4, frame.size());
+        assertEquals("NISO", frame.getSignature());
+        assertEquals(BBjVar.BBjGenericType.STRING, frame.getType(2));
+        assertEquals(2, frame.getInt(1));
+        assertEquals("three", frame.getString(2));
+        assertSame(object, frame.getObject(3));
+
+        assertThrows(IllegalStateException.class, () -> frame.getInt(0));
+        assertThrows(IllegalStateException.class, () -> frame.setString(3, "x"));
+        assertThrows(IndexOutOfBoundsException.class, () -> frame.getType(4));
+    }
+
+    @Test
+    void clearedFrameIsRefilled() {
+        BBjArgFrame frame = new BBjArgFrame();
+        for (int i = 0; i < 20; i++) {
+            frame.addString("s" + i);
+        }
+        String signature = frame.getSignature();
+        assertEquals(20, signature.length());
+
+        frame.clear();
+        assertEquals(0, frame.size());
+        assertEquals("", frame.getSignature());
+        for (int i = 0; i < 20; i++) {
+            frame.addString(null);
+        }
+        assertNull(frame.getString(19));
+        assertEquals(signature, frame.getSignature());
+
+        frame.clear().addInt(1);
+        assertEquals("I", frame.getSignature());
+    }
+}
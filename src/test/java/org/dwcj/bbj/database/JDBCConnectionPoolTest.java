@@ -0,0 +1,148 @@
+package org.dwcj.bbj.database;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JDBCConnectionPoolTest {
+
+    private final List<StubConnection> opened = StubConnection.list();
+
+    private JDBCConnectionPool pool(int minSize, int maxSize) {
+        return new JDBCConnectionPool("test", StubConnection.factory(opened), minSize, maxSize);
+    }
+
+    @Test
+    void returnedConnectionIsReused() throws Exception {
+        JDBCConnectionPool pool = pool(0, 2);
+        Connection first = pool.borrow();
+        assertEquals("catalog", first.getCatalog());
+        first.setAutoCommit(false);
+        first.close();
+        assertTrue(first.isClosed());
+        assertThrows(SQLException.class, first::getCatalog);
+        // closing twice does not return the connection twice
+        first.close();
+
+        Connection second = pool.borrow();
+        assertEquals(1, opened.size());
+        StubConnection physical = opened.get(0);
+        assertFalse(physical.closed);
+        // the pending transaction of the first borrower was rolled back
+        assertEquals(1, physical.rollbacks);
+        assertTrue(physical.autoCommit);
+
+        JDBCPoolMetrics metrics = pool.getMetrics();
+        assertEquals(1, metrics.getActive());
+        assertEquals(0, metrics.getIdle());
+        assertEquals(1, metrics.getCreated());
+        assertEquals(2, metrics.getBorrowed());
+        second.close();
+        assertEquals(1, pool.getMetrics().getIdle());
+    }
+
+    @Test
+    void borrowTimesOutWhenExhausted() throws Exception {
+        JDBCConnectionPool pool = pool(0, 1).setBorrowTimeout(50);
+        Connection held = pool.borrow();
+        long start = System.nanoTime();
+        assertThrows(SQLTimeoutException.class, pool::borrow);
+        assertTrue(System.nanoTime() - start >= 40_000_000L);
+        assertEquals(1, pool.getMetrics().getTimeouts());
+
+        held.close();
+        pool.borrow().close();
+        assertEquals(1, opened.size());
+    }
+
+    @Test
+    void invalidConnectionIsReplaced() throws Exception {
+        JDBCConnectionPool pool = pool(0, 1);
+        pool.borrow().close();
+        opened.get(0).valid = false;
+
+        Connection replacement = pool.borrow();
+        assertEquals(2, opened.size());
+        assertTrue(opened.get(0).closed);
+        assertEquals("catalog", replacement.getCatalog());
+        JDBCPoolMetrics metrics = pool.getMetrics();
+        assertEquals(1, metrics.getValidationFailures());
+        assertEquals(1, metrics.getDestroyed());
+        assertEquals(1, metrics.getActive());
+    }
+
+    @Test
+    void idleConnectionsAreEvictedDownToMinSize() throws Exception {
+        JDBCConnectionPool pool = pool(1, 3).setMaxIdleTime(1);
+        Connection a = pool.borrow();
+        Connection b = pool.borrow();
+        Connection c = pool.borrow();
+        a.close();
+        b.close();
+        c.close();
+        Thread.sleep(20);
+
+        pool.evictIdle();
+        JDBCPoolMetrics metrics = pool.getMetrics();
+        assertEquals(1, metrics.getIdle());
+        assertEquals(2, metrics.getDestroyed());
+        // the most recently returned connection is kept
+        assertFalse(opened.get(2).closed);
+        assertTrue(opened.get(0).closed && opened.get(1).closed);
+    }
+
+    @Test
+    void prestartOpensMinSize() throws Exception {
+        JDBCConnectionPool pool = pool(2, 4);
+        pool.prestart();
+        assertEquals(2, opened.size());
+        assertEquals(2, pool.getMetrics().getIdle());
+    }
+
+    @Test
+    void leakIsReportedOnce() throws Exception {
+        JDBCConnectionPool pool = pool(0, 1).setLeakThreshold(1);
+        Connection leaked = pool.borrow();
+        Thread.sleep(20);
+        pool.checkLeaks();
+        pool.checkLeaks();
+        assertEquals(1, pool.getMetrics().getLeaks());
+
+        leaked.close();
+        pool.borrow();
+        Thread.sleep(20);
+        pool.checkLeaks();
+        assertEquals(2, pool.getMetrics().getLeaks());
+    }
+
+    @Test
+    void leakDetectionIsOffByDefault() throws Exception {
+        JDBCConnectionPool pool = pool(0, 1);
+        pool.borrow();
+        Thread.sleep(20);
+        pool.checkLeaks();
+        assertEquals(0, pool.getMetrics().getLeaks());
+    }
+
+    @Test
+    void closedPoolRejectsBorrowsAndClosesReturns() throws Exception {
+        JDBCConnectionPool pool = pool(0, 2);
+        Connection held = pool.borrow();
+        pool.borrow().close();
+        pool.close();
+
+        assertTrue(opened.get(1).closed);
+        assertThrows(SQLException.class, pool::borrow);
+        held.close();
+        assertTrue(opened.get(0).closed);
+        assertEquals(2, pool.getMetrics().getDestroyed());
+    }
+}
@@ -0,0 +1,91 @@
+package org.dwcj.bbj.database;
+
+import com.basis.bbj.proxies.BBjAPI;
+import org.dwcj.Environment;
+import org.dwcj.Stubs;
+import org.dwcj.bridge.IDwcjBBjBridge;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JDBCConnectionTest {
+
+    private static final String DATABASE = "CDStore";
+
+    @AfterEach
+    void tearDown() {
+        JDBCConnection.setPool(DATABASE, null);
+        Environment.cleanup();
+    }
+
+    /**
+     * Binds a session whose BBjAPI opens stub connections into the given list
+     */
+    private static Environment session(List<StubConnection> opened) throws Exception {
+        JDBCConnectionFactory factory = StubConnection.factory(opened);
+        BBjAPI api = (BBjAPI) Proxy.newProxyInstance(BBjAPI.class.getClassLoader(), new Class<?>[]{BBjAPI.class},
+                (proxy, method, args) -> method.getName().equals("getJDBCConnection") ? factory.open() : null);
+        Environment.init(api, Stubs.of(IDwcjBBjBridge.class));
+        return Environment.getInstance();
+    }
+
+    @Test
+    void sessionsHavePoolsOfTheirOwn() throws Exception {
+        List<StubConnection> first = StubConnection.list();
+        List<StubConnection> second = StubConnection.list();
+
+        Environment one = session(first);
+        JDBCConnectionPool pool = JDBCConnection.getPool(DATABASE);
+        assertSame(pool, JDBCConnection.getPool(DATABASE));
+        JDBCConnection.getPooledConnection(DATABASE).close();
+
+        session(second);
+        assertNotSame(pool, JDBCConnection.getPool(DATABASE));
+        JDBCConnection.getPooledConnection(DATABASE).close();
+        Environment.cleanup();
+
+        // each session opened its connections through its own BBjAPI
+        assertEquals(1, first.size());
+        assertEquals(1, second.size());
+        assertTrue(second.get(0).closed);
+
+        Environment.restore(one);
+        Environment.cleanup();
+        assertTrue(first.get(0).closed);
+        assertThrows(SQLException.class, () -> pool.borrow());
+    }
+
+    @Test
+    void setPoolIsSharedBySessions() throws Exception {
+        List<StubConnection> opened = StubConnection.list();
+        JDBCConnectionPool shared = new JDBCConnectionPool(DATABASE, StubConnection.factory(opened), 0, 2);
+        JDBCConnection.setPool(DATABASE, shared);
+
+        assertSame(shared, JDBCConnection.getPool(DATABASE));
+        session(StubConnection.list());
+        assertSame(shared, JDBCConnection.getPool(DATABASE));
+        Connection connection = JDBCConnection.getPooledConnection(DATABASE);
+        Environment.cleanup();
+        // ending a session does not close the shared pool
+        assertEquals("catalog", connection.getCatalog());
+        connection.close();
+
+        JDBCConnection.setPool(DATABASE, null);
+        assertThrows(SQLException.class, shared::borrow);
+    }
+
+    @Test
+    void noSessionAndNoPool() {
+        assertThrows(SQLException.class, () -> JDBCConnection.getPooledConnection(DATABASE));
+    }
+}
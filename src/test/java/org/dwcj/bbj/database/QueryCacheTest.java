@@ -0,0 +1,160 @@
+package org.dwcj.bbj.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Runs the cache against a pool whose connections answer every query with one row holding
+ * the number of queries executed so far. A query can run a hook while it executes, to
+ * invalidate the cache concurrently.
+ */
+class QueryCacheTest {
+
+    private static final String DATABASE = "QueryCacheTest";
+    private static final String SQL = "SELECT * FROM CUSTOMER WHERE ID = ?";
+
+    private final AtomicInteger executions = new AtomicInteger();
+    private volatile Runnable duringQuery = () -> { };
+
+    @BeforeEach
+    void setUp() {
+        JDBCConnection.setPool(DATABASE, new JDBCConnectionPool(DATABASE, this::connection, 0, 1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        JDBCConnection.setPool(DATABASE, null);
+    }
+
+    private Connection connection() {
+        return proxy(Connection.class, (name, args) -> {
+            if (name.equals("prepareStatement")) {
+                return proxy(PreparedStatement.class, (statementMethod, statementArgs) ->
+                        statementMethod.equals("executeQuery") ? resultSet() : null);
+            }
+            if (name.equals("isClosed")) {
+                return Boolean.FALSE;
+            }
+            return name.equals("getAutoCommit") || name.equals("isValid") ? Boolean.TRUE : null;
+        });
+    }
+
+    private ResultSet resultSet() {
+        int execution = executions.incrementAndGet();
+        duringQuery.run();
+        ResultSetMetaData meta = proxy(ResultSetMetaData.class, (name, args) ->
+                name.equals("getColumnCount") ? (Object) 1 : "N");
+        boolean[] read = {false};
+        return proxy(ResultSet.class, (name, args) -> {
+            switch (name) {
+                case "getMetaData":
+                    return meta;
+                case "next":
+                    boolean next = !read[0];
+                    read[0] = true;
+                    return next;
+                case "getObject":
+                    return execution;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private interface Answer {
+        Object answer(String method, Object[] args) throws Exception;
+    }
+
+    private static <T> T proxy(Class<T> type, Answer answer) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> answer.answer(method.getName(), args)));
+    }
+
+    private static Object value(QueryResult result) {
+        return result.getValue(0, "N");
+    }
+
+    @Test
+    void resultsAreCachedByParameters() throws Exception {
+        QueryCache cache = new QueryCache(10, 60_000);
+        QueryResult first = cache.query(DATABASE, SQL, new Object[]{1}, "customer");
+        assertSame(first, cache.query(DATABASE, SQL, new Object[]{1}, "customer"));
+        assertEquals(2, value(cache.query(DATABASE, SQL, new Object[]{2}, "customer")));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void invalidateDropsDependentResults() throws Exception {
+        QueryCache cache = new QueryCache(10, 60_000);
+        cache.query(DATABASE, SQL, new Object[]{1}, "CUSTOMER");
+        cache.query(DATABASE, "SELECT * FROM ITEM", "item");
+        cache.invalidate("Customer");
+        assertEquals(1, cache.size());
+        assertEquals(3, value(cache.query(DATABASE, SQL, new Object[]{1}, "CUSTOMER")));
+    }
+
+    @Test
+    void resultIsNotCachedWhenItsTableIsInvalidatedDuringTheQuery() throws Exception {
+        QueryCache cache = new QueryCache(10, 60_000);
+        duringQuery = () -> cache.invalidate("customer");
+        assertEquals(1, value(cache.query(DATABASE, SQL, new Object[]{1}, "customer")));
+        assertEquals(0, cache.size());
+
+        duringQuery = () -> { };
+        assertEquals(2, value(cache.query(DATABASE, SQL, new Object[]{1}, "customer")));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void resultIsNotCachedWhenTheCacheIsClearedDuringTheQuery() throws Exception {
+        QueryCache cache = new QueryCache(10, 60_000);
+        duringQuery = cache::clear;
+        cache.query(DATABASE, SQL, new Object[]{1}, "customer");
+        duringQuery = () -> cache.invalidateDatabase(DATABASE);
+        cache.query(DATABASE, SQL, new Object[]{1}, "customer");
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void invalidatingAnotherTableDuringTheQueryKeepsTheResult() throws Exception {
+        QueryCache cache = new QueryCache(10, 60_000);
+        duringQuery = () -> cache.invalidate("item");
+        cache.query(DATABASE, SQL, new Object[]{1}, "customer");
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void leastRecentlyUsedResultIsEvicted() throws Exception {
+        QueryCache cache = new QueryCache(2, 60_000);
+        cache.query(DATABASE, SQL, new Object[]{1}, "customer");
+        cache.query(DATABASE, SQL, new Object[]{2}, "customer");
+        cache.query(DATABASE, SQL, new Object[]{1}, "customer");
+        cache.query(DATABASE, SQL, new Object[]{3}, "customer");
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        // 1 was used last, 2 was dropped
+        assertEquals(1, value(cache.query(DATABASE, SQL, new Object[]{1}, "customer")));
+        assertEquals(4, value(cache.query(DATABASE, SQL, new Object[]{2}, "customer")));
+    }
+
+    @Test
+    void expiredResultIsQueriedAgain() throws Exception {
+        QueryCache cache = new QueryCache(10, 1);
+        cache.query(DATABASE, SQL, new Object[]{1}, "customer");
+        Thread.sleep(10);
+        assertEquals(2, value(cache.query(DATABASE, SQL, new Object[]{1}, "customer")));
+    }
+}
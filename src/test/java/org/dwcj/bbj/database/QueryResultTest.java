@@ -0,0 +1,141 @@
+package org.dwcj.bbj.database;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Reads single row result sets whose columns hold the given values, and checks that the
+ * snapshot keeps no mutable or connection bound values.
+ */
+class QueryResultTest {
+
+    private final List<String> freed = new ArrayList<>();
+
+    private interface Answer {
+        Object answer(String method, Object[] args) throws Exception;
+    }
+
+    private static <T> T proxy(Class<T> type, Answer answer) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> answer.answer(method.getName(), args)));
+    }
+
+    private static ResultSet resultSet(Object... values) {
+        ResultSetMetaData meta = proxy(ResultSetMetaData.class, (name, args) ->
+                name.equals("getColumnCount") ? (Object) values.length : "C" + args[0]);
+        boolean[] read = {false};
+        return proxy(ResultSet.class, (name, args) -> {
+            switch (name) {
+                case "getMetaData":
+                    return meta;
+                case "next":
+                    boolean next = !read[0];
+                    read[0] = true;
+                    return next;
+                case "getObject":
+                    return values[(Integer) args[0] - 1];
+                default:
+                    return null;
+            }
+        });
+    }
+
+    @Test
+    void plainValuesAreKeptAsTheyAre() throws Exception {
+        QueryResult result = QueryResult.of(resultSet("text", 42, true, null));
+        assertEquals(4, result.getColumnCount());
+        assertEquals("text", result.getValue(0, "C1"));
+        assertEquals(42, result.getValue(0, 1));
+        assertEquals(true, result.getValue(0, 2));
+        assertNull(result.getValue(0, 3));
+    }
+
+    @Test
+    void byteArraysAreCopiedInAndOut() throws Exception {
+        byte[] bytes = {1, 2, 3};
+        QueryResult result = QueryResult.of(resultSet((Object) bytes));
+        bytes[0] = 9;
+
+        byte[] first = (byte[]) result.getValue(0, 0);
+        assertArrayEquals(new byte[]{1, 2, 3}, first);
+        first[1] = 9;
+        assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) result.getValue(0, 0));
+        assertNotSame(first, result.getValue(0, 0));
+    }
+
+    @Test
+    void datesAndTimesBecomeJavaTimeValues() throws Exception {
+        LocalDateTime time = LocalDateTime.of(2024, 2, 29, 13, 45, 10);
+        Instant instant = Instant.parse("2024-02-29T12:00:00Z");
+        QueryResult result = QueryResult.of(resultSet(Timestamp.valueOf(time), Date.valueOf(time.toLocalDate()),
+                Time.valueOf(time.toLocalTime()), java.util.Date.from(instant)));
+
+        assertEquals(time, result.getValue(0, 0));
+        assertEquals(LocalDate.of(2024, 2, 29), result.getValue(0, 1));
+        assertEquals(LocalTime.of(13, 45, 10), result.getValue(0, 2));
+        assertEquals(instant, result.getValue(0, 3));
+    }
+
+    @Test
+    void lobsAreReadAndFreed() throws Exception {
+        Blob blob = proxy(Blob.class, (name, args) -> {
+            switch (name) {
+                case "length":
+                    return 2L;
+                case "getBytes":
+                    return new byte[]{4, 5};
+                case "free":
+                    freed.add("blob");
+                    return null;
+                default:
+                    throw new SQLException("closed");
+            }
+        });
+        Clob clob = proxy(Clob.class, (name, args) -> {
+            switch (name) {
+                case "length":
+                    return 5L;
+                case "getSubString":
+                    return "hello";
+                case "free":
+                    freed.add("clob");
+                    return null;
+                default:
+                    throw new SQLException("closed");
+            }
+        });
+        QueryResult result = QueryResult.of(resultSet(blob, clob));
+
+        assertArrayEquals(new byte[]{4, 5}, (byte[]) result.getValue(0, 0));
+        assertEquals("hello", result.getValue(0, 1));
+        assertEquals(List.of("blob", "clob"), freed);
+    }
+
+    @Test
+    void connectionBoundValuesAreRejected() {
+        Array array = proxy(Array.class, (name, args) -> null);
+        assertThrows(SQLException.class, () -> QueryResult.of(resultSet("text", array)));
+    }
+}
@@ -0,0 +1,72 @@
+package org.dwcj.bbj.database;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A physical connection for pool tests, it keeps the state the pool reads and records rollbacks
+ */
+final class StubConnection {
+
+    final Connection connection;
+    volatile boolean valid = true;
+    volatile boolean closed = false;
+    volatile boolean autoCommit = true;
+    volatile int rollbacks = 0;
+
+    StubConnection() {
+        this.connection = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "isValid":
+                            return valid && !closed;
+                        case "isClosed":
+                            return closed;
+                        case "close":
+                            closed = true;
+                            return null;
+                        case "getAutoCommit":
+                            return autoCommit;
+                        case "setAutoCommit":
+                            autoCommit = (Boolean) args[0];
+                            return null;
+                        case "rollback":
+                            rollbacks++;
+                            return null;
+                        case "clearWarnings":
+                            return null;
+                        case "getCatalog":
+                            if (closed) {
+                                throw new SQLException("closed");
+                            }
+                            return "catalog";
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    /**
+     * A factory that opens stub connections and keeps them in the given list
+     */
+    static JDBCConnectionFactory factory(List<StubConnection> opened) {
+        return () -> {
+            StubConnection stub = new StubConnection();
+            synchronized (opened) {
+                opened.add(stub);
+            }
+            return stub.connection;
+        };
+    }
+
+    static List<StubConnection> list() {
+        return new ArrayList<>();
+    }
+}
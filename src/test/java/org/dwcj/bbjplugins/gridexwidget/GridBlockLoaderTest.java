@@ -0,0 +1,70 @@
+package org.dwcj.bbjplugins.gridexwidget;
+
+import com.basiscomponents.db.DataRow;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.dwcj.bbjplugins.gridexwidget.GridExWidgetTest.row;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GridBlockLoaderTest {
+
+    private static List<DataRow> rows(int count) throws Exception {
+        List<DataRow> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(row(i));
+        }
+        return rows;
+    }
+
+    @Test
+    void readsBlocksUntilTheSourceRunsDry() throws Exception {
+        int[] closed = new int[1];
+        GridRowSource rows = GridRowSource.of(rows(5).iterator());
+        GridBlockLoader loader = new GridBlockLoader(new GridRowSource() {
+            @Override
+            public List<DataRow> nextRows(int max) {
+                return rows.nextRows(max);
+            }
+
+            @Override
+            public void close() {
+                closed[0]++;
+            }
+        }, 2);
+
+        assertEquals(2, loader.next().size());
+        assertEquals(2, loader.next().size());
+        assertTrue(loader.hasMore());
+        assertEquals(1, loader.next().size());
+        assertFalse(loader.hasMore());
+        assertEquals(1, closed[0]);
+        assertEquals(3, loader.getBlockCount());
+        assertEquals(5, loader.getRowCount());
+
+        assertTrue(loader.next().isEmpty());
+        loader.close();
+        assertEquals(1, closed[0]);
+    }
+
+    @Test
+    void anEmptyBlockIsNotCounted() throws Exception {
+        GridBlockLoader loader = new GridBlockLoader(GridRowSource.of(rows(2).iterator()), 2);
+        loader.next();
+        assertTrue(loader.hasMore());
+        assertTrue(loader.next().isEmpty());
+        assertFalse(loader.hasMore());
+        assertEquals(1, loader.getBlockCount());
+    }
+
+    @Test
+    void blockSizeMustBePositive() {
+        GridRowSource source = max -> new ArrayList<>();
+        assertThrows(IllegalArgumentException.class, () -> new GridBlockLoader(source, 0));
+    }
+}
@@ -0,0 +1,168 @@
+package org.dwcj.bbjplugins.gridexwidget;
+
+import com.basis.bbj.proxies.BBjAPI;
+import com.basis.bbj.proxies.sysgui.BBjControl;
+import com.basiscomponents.db.DataRow;
+import org.dwcj.Environment;
+import org.dwcj.Stubs;
+import org.dwcj.bridge.IDwcjBBjBridge;
+import org.dwcj.controls.AbstractControl;
+import org.dwcj.controls.PropertyWriteQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the grid against a recording bridge instead of the plug-in. The widget is "created"
+ * by setting the control and the bridge, running catchUp() and sending the pending rows,
+ * as create() does after the plug-in was instantiated.
+ */
+class GridExWidgetTest {
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Environment.init(Stubs.of(BBjAPI.class), Stubs.of(IDwcjBBjBridge.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        Environment.cleanup();
+    }
+
+    static RecordingGridBridge create(GridExWidget grid) throws Exception {
+        RecordingGridBridge bridge = new RecordingGridBridge();
+        Field ctrl = AbstractControl.class.getDeclaredField("ctrl");
+        ctrl.setAccessible(true);
+        ctrl.set(grid, Stubs.of(BBjControl.class));
+        Field field = GridExWidget.class.getDeclaredField("bridge");
+        field.setAccessible(true);
+        field.set(grid, bridge);
+        Method catchUp = GridExWidget.class.getDeclaredMethod("catchUp");
+        catchUp.setAccessible(true);
+        catchUp.invoke(grid);
+        Method sendRowChanges = GridExWidget.class.getDeclaredMethod("sendRowChanges");
+        sendRowChanges.setAccessible(true);
+        sendRowChanges.invoke(grid);
+        return bridge;
+    }
+
+    static DataRow row(int id) throws Exception {
+        DataRow row = new DataRow();
+        row.setFieldValue("ID", id);
+        return row;
+    }
+
+    @Test
+    void callsBeforeCreationAreReplayed() throws Exception {
+        GridExWidget grid = new GridExWidget();
+        assertNull(grid.addColumn("ID", "Id", 4));
+        grid.setFitToGrid();
+        grid.deselectAll();
+        assertTrue(grid.getSelectedRows().isEmpty());
+        assertNull(grid.getSelectedRow());
+
+        RecordingGridBridge bridge = create(grid);
+        assertEquals(List.of("addColumn ID", "setFitToGrid"), bridge.calls);
+
+        grid.autoSizeColumns();
+        assertEquals("ID", grid.addColumn("ID", "Id", 4));
+        assertEquals(List.of("addColumn ID", "setFitToGrid", "autoSizeColumns", "addColumn ID"), bridge.calls);
+    }
+
+    @Test
+    void rowsBeforeCreationAreSentOnCreate() throws Exception {
+        GridExWidget grid = new GridExWidget();
+        grid.addRow(row(1));
+        grid.addRow(row(2));
+        grid.removeRow(row(3));
+
+        RecordingGridBridge bridge = create(grid);
+        assertEquals(List.of("applyTransaction +2 ~- -", "applyTransaction +- ~- -1"), bridge.calls);
+    }
+
+    @Test
+    void rowChangesKeepTheirOrder() throws Exception {
+        GridExWidget grid = new GridExWidget();
+        RecordingGridBridge bridge = create(grid);
+        PropertyWriteQueue queue = Environment.getInstance().getPropertyWriteQueue();
+        DataRow kept = row(4);
+
+        queue.begin();
+        grid.removeRow(row(1));
+        grid.updateRow(row(2));
+        grid.addRow(row(3));
+        // an update after an addition must not be applied before it
+        grid.updateRow(kept);
+        grid.removeRow(row(5));
+        grid.addRow(row(6));
+        queue.end();
+
+        assertEquals(List.of("applyTransaction +1 ~1 -1", "applyTransaction +- ~1 -", "applyTransaction +1 ~- -1"),
+                bridge.calls);
+    }
+
+    @Test
+    void removingAPendingRowDropsIt() throws Exception {
+        GridExWidget grid = new GridExWidget();
+        RecordingGridBridge bridge = create(grid);
+        PropertyWriteQueue queue = Environment.getInstance().getPropertyWriteQueue();
+        DataRow added = row(1);
+
+        queue.begin();
+        grid.addRow(added);
+        grid.updateRow(added);
+        grid.removeRow(added);
+        grid.addRow(row(2));
+        queue.end();
+
+        assertEquals(List.of("applyTransaction +1 ~- -"), bridge.calls);
+    }
+
+    @Test
+    void removingAPendingRowDropsAllItsChanges() throws Exception {
+        GridExWidget grid = new GridExWidget();
+        DataRow twice = row(1);
+        DataRow updated = row(2);
+        grid.addRow(twice);
+        grid.removeRow(row(3));
+        grid.addRow(twice);
+        grid.addRow(updated);
+        grid.applyTransaction(new GridTransaction().update(updated));
+        grid.removeRow(twice);
+        grid.removeRow(updated);
+
+        RecordingGridBridge bridge = create(grid);
+        assertEquals(List.of("applyTransaction +- ~- -1"), bridge.calls);
+    }
+
+    @Test
+    void rowSourceIsLoadedBlockByBlock() throws Exception {
+        GridExWidget grid = new GridExWidget();
+        List<DataRow> rows = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            rows.add(row(i));
+        }
+        grid.setRowSource(GridRowSource.of(rows.iterator()), 2);
+        assertEquals(0, grid.loadNextBlock());
+
+        RecordingGridBridge bridge = create(grid);
+        bridge.calls.clear();
+        Method sendFirstBlock = GridExWidget.class.getDeclaredMethod("sendFirstBlock");
+        sendFirstBlock.setAccessible(true);
+        sendFirstBlock.invoke(grid);
+        assertEquals(2, grid.loadNextBlock());
+        assertEquals(1, grid.loadNextBlock());
+        assertEquals(0, grid.loadNextBlock());
+        assertEquals(5, grid.getLoadedRowCount());
+        assertEquals(List.of("setData 2", "addRows 2", "addRows 1"), bridge.calls);
+    }
+}
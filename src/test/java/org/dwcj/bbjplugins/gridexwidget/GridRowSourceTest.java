@@ -0,0 +1,82 @@
+package org.dwcj.bbjplugins.gridexwidget;
+
+import com.basiscomponents.db.DataRow;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.dwcj.bbjplugins.gridexwidget.GridExWidgetTest.row;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GridRowSourceTest {
+
+    @Test
+    void iteratorSource() throws Exception {
+        List<DataRow> rows = List.of(row(1), row(2), row(3));
+        GridRowSource source = GridRowSource.of(rows.iterator());
+        assertEquals(rows.subList(0, 2), source.nextRows(2));
+        assertEquals(rows.subList(2, 3), source.nextRows(2));
+        assertTrue(source.nextRows(2).isEmpty());
+    }
+
+    @Test
+    void pagedSourceAsksForTheNextOffset() throws Exception {
+        List<String> requests = new ArrayList<>();
+        List<DataRow> rows = List.of(row(1), row(2), row(3));
+        GridRowSource source = GridRowSource.ofPages((offset, limit) -> {
+            requests.add(offset + "+" + limit);
+            return offset >= rows.size() ? null : rows.subList(offset, Math.min(offset + limit, rows.size()));
+        });
+        assertEquals(2, source.nextRows(2).size());
+        assertEquals(1, source.nextRows(2).size());
+        assertTrue(source.nextRows(2).isEmpty());
+        assertEquals(List.of("0+2", "2+2", "3+2"), requests);
+    }
+
+    @Test
+    void resultSetSourceNamesFieldsByLabelAndClosesTheResultSet() throws Exception {
+        ResultSetMetaData meta = (ResultSetMetaData) Proxy.newProxyInstance(ResultSetMetaData.class.getClassLoader(),
+                new Class<?>[]{ResultSetMetaData.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("getColumnCount")) {
+                        return 2;
+                    }
+                    if (method.getName().equals("getColumnLabel")) {
+                        return (Integer) args[0] == 1 ? "ID" : "NAME";
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        int[] position = new int[1];
+        boolean[] closed = new boolean[1];
+        ResultSet rs = (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getMetaData":
+                            return meta;
+                        case "next":
+                            return ++position[0] <= 3;
+                        case "getObject":
+                            return (Integer) args[0] == 1 ? position[0] : "row" + position[0];
+                        case "close":
+                            closed[0] = true;
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+
+        GridRowSource source = GridRowSource.of(rs);
+        List<DataRow> first = source.nextRows(2);
+        assertEquals(2, first.size());
+        assertEquals(2, first.get(1).getFieldValue("ID"));
+        assertEquals("row2", first.get(1).getFieldValue("NAME"));
+        assertEquals(1, source.nextRows(2).size());
+
+        source.close();
+        assertTrue(closed[0]);
+    }
+}
@@ -0,0 +1,68 @@
+package org.dwcj.bbjplugins.gridexwidget;
+
+import com.basiscomponents.db.DataRow;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.dwcj.bbjplugins.gridexwidget.GridExWidgetTest.row;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GridTransactionTest {
+
+    @Test
+    void collectsRowsByKind() throws Exception {
+        DataRow a = row(1);
+        DataRow b = row(2);
+        DataRow c = row(3);
+        GridTransaction transaction = new GridTransaction();
+        assertTrue(transaction.isEmpty());
+
+        transaction.add(a).update(List.of(b)).remove(c);
+        assertFalse(transaction.isEmpty());
+        assertEquals(List.of(a), transaction.getAdded());
+        assertEquals(List.of(b), transaction.getUpdated());
+        assertEquals(List.of(c), transaction.getRemoved());
+    }
+
+    @Test
+    void listsAreReadOnly() throws Exception {
+        GridTransaction transaction = new GridTransaction().add(row(1));
+        DataRow other = row(2);
+        assertThrows(UnsupportedOperationException.class, () -> transaction.getAdded().add(other));
+    }
+
+    @Test
+    void discardMatchesTheInstance() throws Exception {
+        DataRow a = row(1);
+        DataRow equal = row(1);
+        GridTransaction transaction = new GridTransaction().add(a).update(a, equal).remove(a);
+        assertTrue(transaction.isAdding(a));
+        assertFalse(transaction.isAdding(equal));
+
+        transaction.discard(a);
+        assertFalse(transaction.isAdding(a));
+        assertEquals(1, transaction.getUpdated().size());
+        assertTrue(transaction.getUpdated().get(0) == equal);
+        // a removal is kept, the row may be on the client already
+        assertEquals(List.of(a), transaction.getRemoved());
+    }
+
+    @Test
+    void discardedRowCanBeAddedAgain() throws Exception {
+        DataRow a = row(1);
+        DataRow b = row(2);
+        GridTransaction transaction = new GridTransaction().add(a, b).update(a);
+        transaction.discard(a);
+        transaction.discard(b);
+        assertTrue(transaction.isEmpty());
+
+        transaction.add(a);
+        assertTrue(transaction.isAdding(a));
+        assertEquals(List.of(a), transaction.getAdded());
+        assertEquals(List.of(), transaction.getUpdated());
+    }
+}
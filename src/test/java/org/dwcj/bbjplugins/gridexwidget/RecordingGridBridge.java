@@ -0,0 +1,99 @@
+package org.dwcj.bbjplugins.gridexwidget;
+
+import com.basis.startup.type.BBjVector;
+import com.basiscomponents.db.DataRow;
+import com.basiscomponents.db.ResultSet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * GridExWidgetBridge that records the calls made on it instead of calling the plug-in
+ */
+@SuppressWarnings("java:S3740")
+final class RecordingGridBridge implements GridExWidgetBridge {
+
+    final List<String> calls = new ArrayList<>();
+
+    private static String rows(ResultSet rs) {
+        return rs == null ? "-" : String.valueOf(rs.size());
+    }
+
+    @Override
+    public void bind(Object widget) {
+        calls.add("bind");
+    }
+
+    @Override
+    public void setData(ResultSet rs) {
+        calls.add("setData " + rows(rs));
+    }
+
+    @Override
+    public void setData(ResultSet rs, int render, Boolean addAll) {
+        calls.add("setData " + rows(rs) + " " + render + " " + addAll);
+    }
+
+    @Override
+    public void addRows(ResultSet rs) {
+        calls.add("addRows " + rows(rs));
+    }
+
+    @Override
+    public BBjVector getSelectedRows() {
+        calls.add("getSelectedRows");
+        return new BBjVector();
+    }
+
+    @Override
+    public DataRow asDataRow(Object row) {
+        return (DataRow) row;
+    }
+
+    @Override
+    public void deselectAll() {
+        calls.add("deselectAll");
+    }
+
+    @Override
+    public Object addColumn(String field, String label, int type) {
+        calls.add("addColumn " + field);
+        return field;
+    }
+
+    @Override
+    public Object addColumnGroup(String id, String label, BBjVector columns, Boolean marryChildren, String cssClass) {
+        calls.add("addColumnGroup " + id);
+        return id;
+    }
+
+    @Override
+    public void addRow(DataRow row) {
+        calls.add("addRow");
+    }
+
+    @Override
+    public void updateRow(DataRow row) {
+        calls.add("updateRow");
+    }
+
+    @Override
+    public void removeRow(DataRow row) {
+        calls.add("removeRow");
+    }
+
+    @Override
+    public void applyTransaction(ResultSet added, ResultSet updated, ResultSet removed) {
+        calls.add("applyTransaction +" + rows(added) + " ~" + rows(updated) + " -" + rows(removed));
+    }
+
+    @Override
+    public void setFitToGrid() {
+        calls.add("setFitToGrid");
+    }
+
+    @Override
+    public void autoSizeColumns() {
+        calls.add("autoSizeColumns");
+    }
+}
@@ -0,0 +1,72 @@
+package org.dwcj.bridge;
+
+import org.dwcj.exceptions.DwcRuntimeException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the callback resolution of BoundEventProxy, the event throughput is measured by
+ * BoundEventProxyBenchmark.
+ */
+class BoundEventProxyTest {
+
+    private static class Sink {
+        int events;
+        Object last;
+
+        @SuppressWarnings("unused")
+        private void onEvent(Object ev) {
+            events++;
+            last = ev;
+        }
+
+        @SuppressWarnings("unused")
+        private void onFailure(Object ev) {
+            throw new IllegalStateException("failed");
+        }
+    }
+
+    private static final class DerivedSink extends Sink {
+    }
+
+    @Test
+    void dispatchCallsPrivateCallback() {
+        Sink sink = new Sink();
+        BoundEventProxy proxy = new BoundEventProxy(sink, "onEvent");
+        Object payload = new Object();
+        proxy.dispatch(payload);
+        assertEquals(1, sink.events);
+        assertSame(payload, sink.last);
+    }
+
+    @Test
+    void callbackIsFoundInSuperclass() {
+        DerivedSink sink = new DerivedSink();
+        new BoundEventProxy(sink, "onEvent").dispatch("ev");
+        assertEquals(1, sink.events);
+    }
+
+    @Test
+    void proxiesOfOneClassAreBoundToTheirOwnTarget() {
+        Sink first = new Sink();
+        Sink second = new Sink();
+        new BoundEventProxy(first, "onEvent").dispatch("ev");
+        assertEquals(1, first.events);
+        assertEquals(0, second.events);
+    }
+
+    @Test
+    void missingCallbackIsReportedWhenTheProxyIsCreated() {
+        Sink sink = new Sink();
+        assertThrows(DwcRuntimeException.class, () -> new BoundEventProxy(sink, "onMissing"));
+    }
+
+    @Test
+    void callbackExceptionsArePropagated() {
+        BoundEventProxy proxy = new BoundEventProxy(new Sink(), "onFailure");
+        assertThrows(IllegalStateException.class, () -> proxy.dispatch("ev"));
+    }
+}
@@ -0,0 +1,30 @@
+package org.dwcj.bridge;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the friend verdict, the cost of the check is measured by FriendCallerCheckBenchmark
+ */
+class FriendCallerCheckTest {
+
+    @Test
+    void friendVerdict() {
+        assertTrue(FriendCallerCheck.isFriend(FriendCallerCheck.class));
+        assertTrue(FriendCallerCheck.isFriend(FriendCallerCheckTest.class));
+        assertFalse(FriendCallerCheck.isFriend(String.class));
+        assertFalse(FriendCallerCheck.isFriend(null));
+    }
+
+    @Test
+    void walkerReturnsImmediateCaller() {
+        assertEquals(FriendCallerCheckTest.class, callee());
+    }
+
+    private static Class<?> callee() {
+        return FriendCallerCheck.WALKER.getCallerClass();
+    }
+}
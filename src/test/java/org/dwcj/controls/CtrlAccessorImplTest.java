@@ -0,0 +1,44 @@
+package org.dwcj.controls;
+
+import org.dwcj.bridge.ControlAccessor;
+import org.dwcj.controls.panels.AbstractDwcjPanel;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the accessor dispatches create() to the override of the concrete control, the
+ * cost is measured by CtrlAccessorBenchmark. The panel is not needed by the test controls, so
+ * none is created.
+ */
+class CtrlAccessorImplTest {
+
+    private static class Cell extends AbstractControl {
+        int created;
+
+        @Override
+        protected void create(AbstractDwcjPanel p) {
+            created++;
+        }
+    }
+
+    private static final class Caption extends Cell {
+    }
+
+    private static final class Action extends Cell {
+        @Override
+        protected void create(AbstractDwcjPanel p) {
+            created += 2;
+        }
+    }
+
+    @Test
+    void createDispatchesToTheOverride() throws IllegalAccessException {
+        Caption caption = new Caption();
+        Action action = new Action();
+        ControlAccessor.getDefault().create(caption, null);
+        ControlAccessor.getDefault().create(action, null);
+        assertEquals(1, caption.created);
+        assertEquals(2, action.created);
+    }
+}
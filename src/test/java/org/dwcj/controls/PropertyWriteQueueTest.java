@@ -0,0 +1,96 @@
+package org.dwcj.controls;
+
+import com.basis.bbj.proxies.sysgui.BBjControl;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that writes are collected on the dispatch thread only, and that other threads
+ * writing through the same queue during a dispatch are applied directly and do not
+ * disturb the writes of the dispatch.
+ */
+class PropertyWriteQueueTest {
+
+    private static final int THREADS = 8;
+    private static final int WRITES = 10_000;
+
+    private static AbstractDwcControl control() {
+        AbstractDwcControl control = new AbstractDwcControl() {
+        };
+        control.ctrl = (BBjControl) Proxy.newProxyInstance(BBjControl.class.getClassLoader(),
+                new Class<?>[]{BBjControl.class}, (proxy, method, args) -> null);
+        return control;
+    }
+
+    @Test
+    void writesAreCoalescedUntilTheDispatchEnds() {
+        PropertyWriteQueue queue = new PropertyWriteQueue();
+        AbstractDwcControl control = control();
+        List<String> applied = new ArrayList<>();
+
+        queue.begin();
+        queue.enqueue(control, "text", c -> applied.add("text=a"));
+        queue.enqueue(control, "text", c -> applied.add("text=b"));
+        queue.enqueue(control, "enabled", c -> applied.add("enabled"));
+        assertTrue(queue.isPending(control, "text"));
+        assertTrue(applied.isEmpty());
+        queue.end();
+
+        assertEquals(List.of("text=b", "enabled"), applied);
+        assertFalse(queue.isBatching());
+    }
+
+    @Test
+    void otherThreadsWriteThroughDuringADispatch() throws Exception {
+        PropertyWriteQueue queue = new PropertyWriteQueue();
+        AbstractDwcControl dispatchControl = control();
+        AbstractDwcControl[] controls = new AbstractDwcControl[THREADS];
+        AtomicInteger direct = new AtomicInteger();
+        AtomicInteger collected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        queue.begin();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> writers = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                AbstractDwcControl control = controls[i] = control();
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < WRITES; j++) {
+                        queue.enqueue(control, "text" + (j % 16), c -> direct.incrementAndGet());
+                        assertFalse(queue.isBatching());
+                        assertFalse(queue.isPending(control, "text0"));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (int j = 0; j < WRITES; j++) {
+                queue.enqueue(dispatchControl, "text" + (j % 16), c -> collected.incrementAndGet());
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(THREADS * WRITES, direct.get());
+        assertEquals(0, collected.get());
+        queue.end();
+        assertEquals(16, collected.get());
+    }
+}
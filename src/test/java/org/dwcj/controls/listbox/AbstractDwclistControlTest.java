@@ -0,0 +1,193 @@
+package org.dwcj.controls.listbox;
+
+import com.basis.bbj.proxies.BBjAPI;
+import com.basis.bbj.proxies.sysgui.BBjControl;
+import com.basis.startup.type.BBjVector;
+import org.dwcj.Environment;
+import org.dwcj.Stubs;
+import org.dwcj.bridge.IDwcjBBjBridge;
+import org.dwcj.controls.PropertyWriteQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs a list control against a recording client. Item changes made during a dispatch are
+ * merged into the pending delta and reach the client when the dispatch ends or when the
+ * control flushes them before an index based call.
+ */
+class AbstractDwclistControlTest {
+
+    private PropertyWriteQueue queue;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Environment.init(Stubs.of(BBjAPI.class), Stubs.of(IDwcjBBjBridge.class));
+        queue = Environment.getInstance().getPropertyWriteQueue();
+    }
+
+    @AfterEach
+    void tearDown() {
+        Environment.cleanup();
+    }
+
+    private static final class RecordingList extends AbstractDwclistControl {
+        private final List<String> calls = new ArrayList<>();
+
+        private RecordingList() {
+            setCreated(true);
+        }
+
+        private void setCreated(boolean created) {
+            this.ctrl = created ? Stubs.of(BBjControl.class) : null;
+        }
+
+        @Override
+        protected void insertClientItems(int index, BBjVector items) {
+            calls.add("insert " + index + " " + new ArrayList<>(items));
+        }
+
+        @Override
+        protected void removeClientItemAt(int index) {
+            calls.add("remove " + index);
+        }
+
+        @Override
+        protected void removeAllClientItems() {
+            calls.add("removeAll");
+        }
+
+        @Override
+        protected void setClientTextAt(int index, String text) {
+            calls.add("setText " + index + " " + text);
+        }
+    }
+
+    private static Map<Object, String> items(Object... keysAndTexts) {
+        Map<Object, String> items = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndTexts.length; i += 2) {
+            items.put(keysAndTexts[i], (String) keysAndTexts[i + 1]);
+        }
+        return items;
+    }
+
+    @Test
+    void insertsWithinADispatchAreSentAsOneCall() {
+        RecordingList list = new RecordingList();
+
+        queue.begin();
+        list.appendItems(items("a", "A", "b", "B"));
+        list.appendItems(items("c", "C"));
+        list.insertItems(1, items("x", "X"));
+        assertTrue(list.calls.isEmpty());
+        queue.end();
+
+        assertEquals(List.of("insert 0 [A, X, B, C]"), list.calls);
+    }
+
+    @Test
+    void itemsRemovedBeforeTheyAreSentNeverReachTheClient() {
+        RecordingList list = new RecordingList();
+        list.appendItems(items("a", "A", "b", "B"));
+        list.calls.clear();
+
+        queue.begin();
+        list.appendItems(items("c", "C", "d", "D"));
+        list.removeItem(2);
+        list.removeItem(0);
+        queue.end();
+
+        assertEquals(List.of("insert 2 [D]", "remove 0"), list.calls);
+        assertEquals("b", list.getKeyAt(0));
+        assertEquals("d", list.getKeyAt(1));
+    }
+
+    @Test
+    void movingAKeyRemovesItFromItsOldPosition() {
+        RecordingList list = new RecordingList();
+        list.appendItems(items("a", "A", "b", "B", "c", "C"));
+        list.calls.clear();
+
+        queue.begin();
+        list.insertItems(0, items("c", "C2"));
+        queue.end();
+
+        assertEquals(List.of("remove 2", "insert 0 [C2]"), list.calls);
+        assertEquals(0, list.getIndexOf("c"));
+        assertEquals(3, list.itemCount());
+    }
+
+    @Test
+    void textChangesAreMergedIntoTheDelta() {
+        RecordingList list = new RecordingList();
+
+        queue.begin();
+        list.appendItems(items("a", "A", "b", "B"));
+        list.setItemTextAt(1, "B2");
+        queue.end();
+        assertEquals(List.of("insert 0 [A, B2]"), list.calls);
+        list.calls.clear();
+
+        queue.begin();
+        list.setItemTextAt(0, "x");
+        list.setItemTextAt(0, "y");
+        list.setItemTextAt(5, "z");
+        assertEquals("y", list.getItemTextAt(0));
+        assertNull(list.getItemTextAt(5));
+        queue.end();
+
+        assertEquals(List.of("setText 0 y"), list.calls);
+    }
+
+    @Test
+    void replacingTheItemsClearsThePendingChanges() {
+        RecordingList list = new RecordingList();
+        list.appendItems(items("a", "A"));
+        list.calls.clear();
+
+        queue.begin();
+        list.appendItems(items("b", "B"));
+        list.replaceItems(items("c", "C", "d", "D"));
+        list.appendItems(items("e", "E"));
+        queue.end();
+
+        assertEquals(List.of("removeAll", "insert 0 [C, D, E]"), list.calls);
+    }
+
+    @Test
+    void flushSendsThePendingChangesRightAway() {
+        RecordingList list = new RecordingList();
+
+        queue.begin();
+        list.appendItems(items("a", "A"));
+        list.flushItemChanges();
+        assertEquals(List.of("insert 0 [A]"), list.calls);
+        list.removeItem(0);
+        queue.end();
+
+        assertEquals(List.of("insert 0 [A]", "remove 0"), list.calls);
+    }
+
+    @Test
+    void changesBeforeCreationAreKeptInTheModelOnly() {
+        RecordingList list = new RecordingList();
+        list.setCreated(false);
+        list.appendItems(items("a", "A", "b", "B"));
+        list.setItemTextAt(0, "A2");
+        list.removeItem(1);
+        assertTrue(list.calls.isEmpty());
+
+        list.setCreated(true);
+        list.populate();
+        assertEquals(List.of("removeAll", "insert 0 [A2]"), list.calls);
+    }
+}
@@ -0,0 +1,143 @@
+package org.dwcj.controls.listbox;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ListItemModelTest {
+
+    private static Map<Object, String> items(Object... keysAndTexts) {
+        Map<Object, String> items = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndTexts.length; i += 2) {
+            items.put(keysAndTexts[i], (String) keysAndTexts[i + 1]);
+        }
+        return items;
+    }
+
+    @Test
+    void appendKeepsOrderAndIndexes() {
+        ListItemModel model = new ListItemModel();
+        List<?> texts = model.insert(0, items("a", "A", "b", "B"));
+        assertEquals(List.of("A", "B"), new ArrayList<>(texts));
+        model.insert(2, items("c", "C"));
+
+        assertEquals(3, model.size());
+        assertEquals(0, model.indexOf("a"));
+        assertEquals(2, model.indexOf("c"));
+        assertEquals("b", model.getKey(1));
+        assertEquals("C", model.getText("c"));
+        assertEquals(List.of("A", "B", "C"), new ArrayList<>(model.getTexts()));
+    }
+
+    @Test
+    void duplicateTextsAreResolvedByKey() {
+        ListItemModel model = new ListItemModel();
+        model.insert(0, items(1, "same", 2, "same", 3, "same"));
+        assertEquals(0, model.indexOf(1));
+        assertEquals(1, model.indexOf(2));
+        assertEquals(2, model.indexOf(3));
+    }
+
+    @Test
+    void positionalInsertShiftsTheTail() {
+        ListItemModel model = new ListItemModel();
+        model.insert(0, items("a", "A", "b", "B", "c", "C"));
+        model.insert(1, items("x", "X", "y", "Y"));
+
+        assertEquals(List.of("A", "X", "Y", "B", "C"), new ArrayList<>(model.getTexts()));
+        assertEquals(0, model.indexOf("a"));
+        assertEquals(1, model.indexOf("x"));
+        assertEquals(2, model.indexOf("y"));
+        assertEquals(3, model.indexOf("b"));
+        assertEquals(4, model.indexOf("c"));
+    }
+
+    @Test
+    void removeShiftsTheTail() {
+        ListItemModel model = new ListItemModel();
+        model.insert(0, items("a", "A", "b", "B", "c", "C", "d", "D"));
+        // look up the tail first, so the cached positions are stale after the remove
+        assertEquals(3, model.indexOf("d"));
+
+        assertEquals("b", model.remove(1));
+        assertFalse(model.containsKey("b"));
+        assertNull(model.getText("b"));
+        assertEquals(-1, model.indexOf("b"));
+        assertEquals(0, model.indexOf("a"));
+        assertEquals(1, model.indexOf("c"));
+        assertEquals(2, model.indexOf("d"));
+    }
+
+    @Test
+    void mixedEditsMatchAListReference() {
+        ListItemModel model = new ListItemModel();
+        List<Integer> reference = new ArrayList<>();
+        int next = 0;
+        for (int round = 0; round < 200; round++) {
+            int index = (round * 7) % (reference.size() + 1);
+            if (round % 3 == 2 && !reference.isEmpty()) {
+                index = Math.min(index, reference.size() - 1);
+                assertEquals(reference.remove(index), model.remove(index));
+            } else {
+                int key = next++;
+                reference.add(index, key);
+                model.insert(index, items(key, "item " + key));
+            }
+            int probe = reference.get((round * 13) % reference.size());
+            assertEquals(reference.indexOf(probe), model.indexOf(probe));
+        }
+        for (int i = 0; i < reference.size(); i++) {
+            assertEquals(reference.get(i), model.getKey(i));
+            assertEquals(i, model.indexOf(reference.get(i)));
+        }
+    }
+
+    @Test
+    void outOfRangeAndUnknownKeys() {
+        ListItemModel model = new ListItemModel();
+        model.insert(0, items("a", "A"));
+        assertNull(model.getKey(-1));
+        assertNull(model.getKey(1));
+        assertEquals(-1, model.indexOf("missing"));
+        assertThrows(IndexOutOfBoundsException.class, () -> model.remove(5));
+    }
+
+    @Test
+    void setTextKeepsTheKeyAndPosition() {
+        ListItemModel model = new ListItemModel();
+        model.insert(0, items("a", "A", "b", "B"));
+        assertTrue(model.setText(1, "B2"));
+        assertFalse(model.setText(2, "C"));
+
+        assertEquals(1, model.indexOf("b"));
+        assertEquals("B2", model.getText("b"));
+        assertEquals(List.of("A", "B2"), new ArrayList<>(model.getTexts()));
+    }
+
+    @Test
+    void asMapIsAnOrderedReadOnlyView() {
+        ListItemModel model = new ListItemModel();
+        model.insert(0, items("b", "B", "a", "A"));
+        Map<Object, String> view = model.asMap();
+
+        assertEquals(List.of("b", "a"), new ArrayList<>(view.keySet()));
+        assertEquals("A", view.get("a"));
+        assertThrows(UnsupportedOperationException.class, () -> view.put("c", "C"));
+        assertThrows(UnsupportedOperationException.class, () -> view.entrySet().iterator().next().setValue("X"));
+        assertThrows(UnsupportedOperationException.class, () -> view.keySet().remove("b"));
+
+        model.insert(1, items("c", "C"));
+        assertEquals(List.of("B", "C", "A"), new ArrayList<>(view.values()));
+        model.clear();
+        assertTrue(view.isEmpty());
+    }
+}
@@ -0,0 +1,116 @@
+package org.dwcj.controls.listbox;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ListPageCacheTest {
+
+    /**
+     * Provider over the numbers 0..count-1 that records the offsets it was asked for
+     */
+    private static final class CountingProvider implements ListDataProvider {
+        private final int count;
+        private final int available;
+        private final List<Integer> fetches = new ArrayList<>();
+        private int counts;
+
+        CountingProvider(int count, int available) {
+            this.count = count;
+            this.available = available;
+        }
+
+        @Override
+        public int getCount() {
+            counts++;
+            return count;
+        }
+
+        @Override
+        public Map<Object, String> fetch(int offset, int limit) {
+            fetches.add(offset);
+            Map<Object, String> items = new LinkedHashMap<>();
+            for (int i = offset; i < Math.min(offset + limit, available); i++) {
+                items.put(i, "item " + i);
+            }
+            return items;
+        }
+    }
+
+    @Test
+    void rangesAreServedFromPages() {
+        CountingProvider provider = new CountingProvider(100, 100);
+        ListPageCache cache = new ListPageCache(provider, 10, 4);
+
+        Map<Object, String> range = cache.getRange(5, 10);
+        assertEquals(List.of(5, 6, 7, 8, 9, 10, 11, 12, 13, 14), new ArrayList<>(range.keySet()));
+        assertEquals("item 7", range.get(7));
+        assertEquals(List.of(0, 10), provider.fetches);
+
+        cache.getRange(0, 20);
+        assertEquals(List.of(0, 10), provider.fetches);
+    }
+
+    @Test
+    void rangesAreClippedToTheCount() {
+        CountingProvider provider = new CountingProvider(25, 25);
+        ListPageCache cache = new ListPageCache(provider, 10, 4);
+
+        assertEquals(5, cache.getRange(20, 10).size());
+        assertTrue(cache.getRange(30, 10).isEmpty());
+        assertEquals(3, cache.getRange(-5, 8).size());
+    }
+
+    @Test
+    void shortPagesEndTheRange() {
+        // the provider announces more items than it returns
+        CountingProvider provider = new CountingProvider(50, 15);
+        ListPageCache cache = new ListPageCache(provider, 10, 4);
+
+        assertEquals(5, cache.getRange(10, 20).size());
+    }
+
+    @Test
+    void leastRecentlyUsedPageIsEvicted() {
+        CountingProvider provider = new CountingProvider(100, 100);
+        ListPageCache cache = new ListPageCache(provider, 10, 2);
+
+        cache.getRange(0, 1);
+        cache.getRange(10, 1);
+        cache.getRange(0, 1);
+        cache.getRange(20, 1);
+        // page 1 was the least recently used one
+        cache.getRange(0, 1);
+        cache.getRange(10, 1);
+        assertEquals(List.of(0, 10, 20, 10), provider.fetches);
+    }
+
+    @Test
+    void invalidateDropsPagesAndCount() {
+        CountingProvider provider = new CountingProvider(100, 100);
+        ListPageCache cache = new ListPageCache(provider, 10, 2);
+
+        cache.getRange(0, 5);
+        assertEquals(100, cache.getCount());
+        assertEquals(1, provider.counts);
+
+        cache.invalidate();
+        cache.getRange(0, 5);
+        assertEquals(2, provider.counts);
+        assertEquals(List.of(0, 0), provider.fetches);
+    }
+
+    @Test
+    void invalidSizesAreRejected() {
+        CountingProvider provider = new CountingProvider(1, 1);
+        assertThrows(IllegalArgumentException.class, () -> new ListPageCache(provider, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ListPageCache(provider, 1, 0));
+    }
+}
@@ -0,0 +1,126 @@
+package org.dwcj.controls.treeview;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TreeStructureTest {
+
+    private TreeStructure structure;
+
+    @BeforeEach
+    void setUp() {
+        //      0
+        //    / | \
+        //   1  2  3
+        //  / \     \
+        // 4   5     6
+        structure = new TreeStructure();
+        structure.setRoot(0);
+        structure.add(1, 0, -1, false);
+        structure.add(2, 0, -1, false);
+        structure.add(3, 0, -1, true);
+        structure.add(4, 1, -1, false);
+        structure.add(5, 1, -1, false);
+        structure.add(6, 3, -1, false);
+    }
+
+    @Test
+    void navigation() {
+        assertEquals(0, structure.getRoot());
+        assertEquals(List.of(1, 2, 3), structure.getChildren(0));
+        assertEquals(3, structure.getChildCount(0));
+        assertEquals(5, structure.getChild(1, 1));
+        assertEquals(TreeStructure.NO_NODE, structure.getChild(1, 2));
+        assertEquals(1, structure.getParent(5));
+        assertEquals(2, structure.getIndexInParent(3));
+        assertEquals(List.of(1, 4, 5, 2, 3, 6), structure.getDescendants(0));
+        assertEquals(List.of(6, 3, 0), structure.getPathToRoot(6));
+    }
+
+    @Test
+    void insertAtIndex() {
+        structure.add(7, 0, 1, false);
+        structure.add(8, 0, 99, false);
+        assertEquals(List.of(1, 7, 2, 3, 8), structure.getChildren(0));
+        assertEquals(1, structure.getIndexInParent(7));
+    }
+
+    @Test
+    void unknownParentsAndDuplicatesAreIgnored() {
+        structure.add(9, 42, -1, false);
+        structure.add(4, 2, -1, false);
+        assertFalse(structure.contains(9));
+        assertEquals(1, structure.getParent(4));
+        assertEquals(0, structure.getChildCount(2));
+    }
+
+    @Test
+    void removeDropsTheSubtree() {
+        structure.remove(1);
+        assertFalse(structure.contains(1));
+        assertFalse(structure.contains(4));
+        assertFalse(structure.contains(5));
+        assertEquals(List.of(2, 3), structure.getChildren(0));
+        assertEquals(0, structure.getIndexInParent(2));
+    }
+
+    @Test
+    void expandableNodesAreNoLeaves() {
+        structure.add(7, 2, -1, true);
+        // expandable without loaded children
+        assertFalse(structure.isLeaf(7));
+        assertTrue(structure.isLeaf(4));
+        assertFalse(structure.isLeaf(1));
+
+        // children of an expandable node evicted again
+        structure.removeDescendants(3);
+        assertEquals(0, structure.getChildCount(3));
+        assertFalse(structure.isLeaf(3));
+
+        // a plain node becomes a leaf again once its children are gone
+        structure.removeDescendants(1);
+        assertTrue(structure.isLeaf(1));
+        assertFalse(structure.isLeaf(42));
+    }
+
+    @Test
+    void expandedState() {
+        structure.setExpanded(1, true);
+        structure.setExpanded(3, true);
+        assertEquals(List.of(1, 3), structure.getExpandedNodes());
+
+        structure.setSubtreeExpanded(0, true);
+        assertEquals(List.of(0, 1, 4, 5, 2, 3, 6), structure.getExpandedNodes());
+
+        structure.setSubtreeExpanded(1, false);
+        assertFalse(structure.isExpanded(4));
+        assertTrue(structure.isExpanded(3));
+    }
+
+    @Test
+    void deepHierarchiesDoNotOverflowTheStack() {
+        TreeStructure deep = new TreeStructure();
+        deep.setRoot(0);
+        for (int i = 1; i <= 100_000; i++) {
+            deep.add(i, i - 1, -1, false);
+        }
+        assertEquals(100_000, deep.getDescendants(0).size());
+        deep.removeDescendants(0);
+        assertTrue(deep.isLeaf(0));
+        assertFalse(deep.contains(100_000));
+    }
+
+    @Test
+    void setRootResetsTheStructure() {
+        structure.setRoot(10);
+        assertEquals(10, structure.getRoot());
+        assertFalse(structure.contains(1));
+        assertTrue(structure.isLeaf(10));
+    }
+}
@@ -0,0 +1,146 @@
+package org.dwcj.environment;
+
+import org.dwcj.environment.namespace.InMemoryNamespace;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheTest {
+
+    @Test
+    void loadsOnceAndCountsHits() {
+        Cache<String, Integer> cache = Cache.local("test", 10, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+        assertEquals(Integer.valueOf(3), cache.get("abc", k -> { loads.incrementAndGet(); return k.length(); }));
+        assertEquals(Integer.valueOf(3), cache.get("abc", k -> { loads.incrementAndGet(); return -1; }));
+        assertEquals(1, loads.get());
+
+        CacheStats stats = cache.getStats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(1, stats.getLoadCount());
+    }
+
+    @Test
+    void nullIsReturnedButNotCached() {
+        Cache<String, String> cache = Cache.local("test", 10, 60_000);
+        assertNull(cache.get("a", k -> null));
+        assertEquals(0, cache.size());
+        cache.put("a", "1");
+        cache.put("a", null);
+        assertNull(cache.getIfPresent("a"));
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        Cache<String, String> cache = Cache.local("test", 2, 60_000);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.getIfPresent("a");
+        cache.put("c", "3");
+        assertEquals(2, cache.size());
+        assertNull(cache.getIfPresent("b"));
+        assertEquals("1", cache.getIfPresent("a"));
+        assertEquals(1, cache.getStats().getEvictionCount());
+    }
+
+    @Test
+    void expiredEntryIsLoadedAgain() throws Exception {
+        Cache<String, String> cache = Cache.local("test", 10, 60_000);
+        cache.put("a", "1", 1);
+        cache.put("b", "2");
+        Thread.sleep(10);
+        assertNull(cache.getIfPresent("a"));
+        assertEquals("2", cache.getIfPresent("b"));
+        assertEquals(1, cache.getStats().getExpirationCount());
+        assertEquals("3", cache.get("a", k -> "3"));
+    }
+
+    @Test
+    void failedLoadIsRethrownAndCounted() {
+        Cache<String, String> cache = Cache.local("test", 10, 60_000);
+        assertThrows(IllegalStateException.class, () -> cache.get("a", k -> {
+            throw new IllegalStateException("down");
+        }));
+        assertEquals(1, cache.getStats().getLoadFailureCount());
+        assertEquals("1", cache.get("a", k -> "1"));
+    }
+
+    @Test
+    void concurrentMissesRunTheLoaderOnce() throws Exception {
+        Cache<String, String> cache = Cache.local("test", 10, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<String> first = executor.submit(() -> cache.get("a", k -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return "1";
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            List<Future<String>> waiting = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                waiting.add(executor.submit(() -> cache.get("a", k -> {
+                    loads.incrementAndGet();
+                    return "2";
+                })));
+            }
+            release.countDown();
+            assertEquals("1", first.get(5, TimeUnit.SECONDS));
+            for (Future<String> result : waiting) {
+                assertEquals("1", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void sizesMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> Cache.local("test", 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> Cache.local("test", 1, 0));
+    }
+
+    @Test
+    void sharedCacheIsKeptPerClassLoaderAndReleased() {
+        InMemoryNamespace namespace = new InMemoryNamespace();
+        // a cache of an earlier deployment under the name without class loader
+        namespace.values.put("dwcj.cache.customers", new Object());
+
+        Cache<String, String> cache = Cache.shared(namespace, "customers", 10, 60_000);
+        assertSame(cache, Cache.shared(namespace, "customers", 99, 1));
+        assertEquals(10, cache.getMaxEntries());
+        assertEquals(2, namespace.values.size());
+
+        Cache.releaseShared();
+        assertEquals(1, namespace.values.size());
+        assertNotSame(cache, Cache.shared(namespace, "customers", 10, 60_000));
+        Cache.releaseShared();
+    }
+}
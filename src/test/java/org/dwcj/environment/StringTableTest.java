@@ -0,0 +1,61 @@
+package org.dwcj.environment;
+
+import com.basis.bbj.proxies.BBjAPI;
+import org.dwcj.Environment;
+import org.dwcj.Stubs;
+import org.dwcj.bridge.IDwcjBBjBridge;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StringTableTest {
+
+    private final AtomicInteger reads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        BBjAPI api = (BBjAPI) Proxy.newProxyInstance(BBjAPI.class.getClassLoader(), new Class<?>[]{BBjAPI.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getStbl")) {
+                        reads.incrementAndGet();
+                        return "value of " + args[0];
+                    }
+                    return null;
+                });
+        Environment.init(api, Stubs.of(IDwcjBBjBridge.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        Environment.cleanup();
+    }
+
+    @Test
+    void lookupsAreCachedInTheSession() {
+        assertEquals("value of COMPANY", StringTable.getString("COMPANY"));
+        assertEquals("value of COMPANY", StringTable.getString("COMPANY"));
+        assertEquals(1, reads.get());
+
+        StringTable.setString("COMPANY", "Acme");
+        assertEquals("Acme", StringTable.getString("COMPANY"));
+        assertEquals(1, reads.get());
+
+        StringTable.invalidateCache();
+        assertEquals("value of COMPANY", StringTable.getString("COMPANY"));
+        assertEquals(2, reads.get());
+    }
+
+    @Test
+    void cleanupDropsTheCache() {
+        StringTable.getString("COMPANY");
+        Environment env = Environment.getInstance();
+        assertEquals(1, env.getStringTableCache().size());
+        Environment.cleanup();
+        assertEquals(0, env.getStringTableCache().size());
+    }
+}
@@ -0,0 +1,88 @@
+package org.dwcj.environment.namespace;
+
+import com.basis.bbj.proxies.BBjNamespace;
+import com.basis.startup.type.BBjException;
+import com.basis.startup.type.BBjVector;
+import org.dwcj.Stubs;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * StandardNamespace over a stub BBjNamespace that keeps its variables in memory. Each thread
+ * stands for a session, a variable lock is held by the thread that set it. Like BBj, reading
+ * an absent variable and a lock that is not acquired within the timeout throw BBjException.
+ * The stub counts the calls that would cross into BBj and the lock attempts.
+ */
+public final class InMemoryNamespace extends StandardNamespace {
+
+    public final Map<String, Object> values = new ConcurrentHashMap<>();
+    public final AtomicLong bridgeCalls = new AtomicLong();
+    public final AtomicInteger lockAttempts = new AtomicInteger();
+    private final AtomicInteger lockTimeouts = new AtomicInteger();
+    private final Map<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    public InMemoryNamespace() {
+        this.ns = (BBjNamespace) Proxy.newProxyInstance(BBjNamespace.class.getClassLoader(),
+                new Class<?>[]{BBjNamespace.class}, (proxy, method, args) -> {
+                    bridgeCalls.incrementAndGet();
+                    switch (method.getName()) {
+                        case "getValue":
+                            Object value = values.get((String) args[0]);
+                            if (value == null) {
+                                throw Stubs.exception("Variable " + args[0] + " does not exist");
+                            }
+                            return value;
+                        case "setValue":
+                            values.put((String) args[0], args[1]);
+                            return null;
+                        case "removeValue":
+                            values.remove((String) args[0]);
+                            return null;
+                        case "getKeys":
+                            BBjVector keys = new BBjVector();
+                            keys.addAll(values.keySet());
+                            return keys;
+                        case "setLock":
+                            lock((String) args[0], (Long) args[1]);
+                            return null;
+                        case "removeLock":
+                            ReentrantLock lock = locks.get((String) args[0]);
+                            if (lock != null && lock.isHeldByCurrentThread()) {
+                                lock.unlock();
+                            }
+                            return null;
+                        case "clear":
+                            values.clear();
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    /**
+     * Lets the next setLock calls time out, as if another session held the lock
+     *
+     * @param count the number of setLock calls that time out
+     */
+    public void timeOutLocks(int count) {
+        lockTimeouts.set(count);
+    }
+
+    private void lock(String key, long timeout) throws BBjException, InterruptedException {
+        lockAttempts.incrementAndGet();
+        if (lockTimeouts.getAndUpdate(n -> Math.max(n - 1, 0)) > 0) {
+            throw Stubs.exception("Lock on " + key + " timed out");
+        }
+        ReentrantLock lock = locks.computeIfAbsent(key, k -> new ReentrantLock());
+        if (!lock.tryLock(timeout, TimeUnit.MILLISECONDS)) {
+            throw Stubs.exception("Lock on " + key + " timed out");
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.dwcj.environment.namespace;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeyViewTest {
+
+    @Test
+    void namesAreConvertedWhileIterating() {
+        List<Object> names = new ArrayList<>(List.of("a", 2, new StringBuilder("c")));
+        KeyView view = new KeyView(names);
+        assertEquals(3, view.size());
+        assertEquals(List.of("a", "2", "c"), new ArrayList<>(view));
+
+        // a view, not a copy
+        names.add("d");
+        assertEquals(4, view.size());
+        assertEquals("d", new ArrayList<>(view).get(3));
+    }
+
+    @Test
+    void viewIsReadOnly() {
+        KeyView view = new KeyView(new ArrayList<>(List.of("a")));
+        assertThrows(UnsupportedOperationException.class, () -> view.add("b"));
+        Iterator<String> it = view.iterator();
+        it.next();
+        assertThrows(UnsupportedOperationException.class, it::remove);
+    }
+}
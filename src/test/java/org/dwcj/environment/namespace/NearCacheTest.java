@@ -0,0 +1,68 @@
+package org.dwcj.environment.namespace;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NearCacheTest {
+
+    @Test
+    void countsHitsAndMisses() {
+        NearCache cache = new NearCache(4);
+        assertNull(cache.get("a"));
+        cache.put("a", "1");
+        assertEquals("1", cache.get("a"));
+        assertEquals("1", cache.get("a"));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void nullValueRemovesTheKey() {
+        NearCache cache = new NearCache(4);
+        cache.put("a", "1");
+        cache.put("a", null);
+        assertEquals(0, cache.size());
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.getInvalidationCount());
+    }
+
+    @Test
+    void leastRecentlyUsedValueIsEvicted() {
+        NearCache cache = new NearCache(2);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+        cache.put("c", "3");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.get("b"));
+        assertEquals("1", cache.get("a"));
+        assertEquals("3", cache.get("c"));
+    }
+
+    @Test
+    void invalidationCountsDroppedValuesOnly() {
+        NearCache cache = new NearCache(4);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.put("c", "3");
+        cache.invalidate("a");
+        cache.invalidate("missing");
+        assertEquals(1, cache.getInvalidationCount());
+
+        cache.invalidateAll();
+        assertEquals(3, cache.getInvalidationCount());
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    void sizeMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new NearCache(0));
+        assertEquals(1, new NearCache(1).getMaxEntries());
+    }
+}
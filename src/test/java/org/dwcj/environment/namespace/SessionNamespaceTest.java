@@ -0,0 +1,90 @@
+package org.dwcj.environment.namespace;
+
+import com.basis.bbj.proxies.BBjAPI;
+import com.basis.bbj.proxies.BBjObjectTable;
+import com.basis.startup.type.BBjVector;
+import org.dwcj.Environment;
+import org.dwcj.Stubs;
+import org.dwcj.bridge.IDwcjBBjBridge;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs the session namespace against a BBjAPI stub with an object table kept in memory
+ */
+class SessionNamespaceTest {
+
+    private final Map<String, Object> table = new LinkedHashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        BBjObjectTable otable = (BBjObjectTable) Proxy.newProxyInstance(BBjObjectTable.class.getClassLoader(),
+                new Class<?>[]{BBjObjectTable.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "put":
+                            table.put(String.valueOf(args[0]), args[1]);
+                            return null;
+                        case "get":
+                            if (!table.containsKey(String.valueOf(args[0]))) {
+                                throw Stubs.exception("Object " + args[0] + " does not exist");
+                            }
+                            return table.get(String.valueOf(args[0]));
+                        case "remove":
+                            table.remove(String.valueOf(args[0]));
+                            return null;
+                        case "getKeys":
+                            BBjVector keys = new BBjVector();
+                            keys.addAll(table.keySet());
+                            return keys;
+                        case "size":
+                            return table.size();
+                        case "clear":
+                            table.clear();
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        BBjAPI api = (BBjAPI) Proxy.newProxyInstance(BBjAPI.class.getClassLoader(), new Class<?>[]{BBjAPI.class},
+                (proxy, method, args) -> method.getName().equals("getObjectTable") ? otable : null);
+        Environment.init(api, Stubs.of(IDwcjBBjBridge.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        Environment.cleanup();
+    }
+
+    @Test
+    void bulkOperations() {
+        SessionNamespace namespace = new SessionNamespace();
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("b", 2);
+        values.put("a", 1);
+        namespace.putAll(values);
+        assertEquals(2, namespace.size());
+        assertEquals(List.of("b", "a"), new ArrayList<>(namespace.keys()));
+
+        Map<String, Object> some = namespace.getAll(List.of("a", "missing"));
+        assertEquals(Map.of("a", 1), some);
+        assertThrows(NoSuchElementException.class, () -> namespace.get("missing"));
+
+        assertEquals(values, namespace.snapshot());
+
+        namespace.removeAll(List.of("b", "missing"));
+        assertEquals(Map.of("a", 1), namespace.snapshot());
+        namespace.clear();
+        assertEquals(0, namespace.keys().size());
+    }
+}
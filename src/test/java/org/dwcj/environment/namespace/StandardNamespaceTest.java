@@ -0,0 +1,154 @@
+package org.dwcj.environment.namespace;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StandardNamespaceTest {
+
+    @Test
+    void atomicOperations() throws Exception {
+        InMemoryNamespace namespace = new InMemoryNamespace();
+        assertEquals(1, namespace.incrementAndGet("seq"));
+        assertEquals(11, namespace.addAndGet("seq", 10));
+
+        assertTrue(namespace.compareAndSet("seat", null, "a"));
+        assertFalse(namespace.compareAndSet("seat", null, "b"));
+        assertEquals("a", namespace.get("seat"));
+
+        assertEquals("x", namespace.computeIfAbsent("name", k -> "x"));
+        assertEquals("x", namespace.computeIfAbsent("name", k -> "y"));
+
+        assertEquals("a", namespace.merge("list", "a", (old, value) -> old + "," + value));
+        assertEquals("a,b", namespace.merge("list", "b", (old, value) -> old + "," + value));
+        assertNull(namespace.merge("list", "c", (old, value) -> null));
+        assertFalse(namespace.values.containsKey("list"));
+
+        assertEquals(11L, namespace.getAndUpdate("seq", old -> 0L));
+        assertEquals(0L, namespace.get("seq"));
+    }
+
+    @Test
+    void readingAnAbsentVariableFails() {
+        InMemoryNamespace namespace = new InMemoryNamespace();
+        assertThrows(NoSuchElementException.class, () -> namespace.get("missing"));
+    }
+
+    @Test
+    void atomicOperationsRetryALockedVariable() throws Exception {
+        InMemoryNamespace namespace = new InMemoryNamespace();
+        namespace.setAtomicLocking(1, 3);
+        namespace.timeOutLocks(2);
+        assertEquals(1, namespace.incrementAndGet("seq"));
+        assertEquals(3, namespace.lockAttempts.get());
+    }
+
+    @Test
+    void atomicOperationsGiveUpAfterMaxAttempts() throws Exception {
+        InMemoryNamespace namespace = new InMemoryNamespace();
+        namespace.setAtomicLocking(1, 3);
+        namespace.timeOutLocks(3);
+        assertThrows(NamespaceVarableLockedException.class, () -> namespace.incrementAndGet("seq"));
+        assertEquals(3, namespace.lockAttempts.get());
+        assertFalse(namespace.values.containsKey("seq"));
+
+        // nothing is left locked
+        assertEquals(1, namespace.incrementAndGet("seq"));
+    }
+
+    @Test
+    void lockHeldByAnotherSessionTimesOut() throws Exception {
+        InMemoryNamespace namespace = new InMemoryNamespace();
+        namespace.setAtomicLocking(5, 2);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread other = new Thread(() -> {
+            try {
+                namespace.setLock("seat", 0);
+                locked.countDown();
+                release.await();
+                namespace.removeLock("seat");
+            } catch (Exception e) {
+                locked.countDown();
+            }
+        });
+        other.start();
+        try {
+            locked.await();
+            assertThrows(NamespaceVarableLockedException.class, () -> namespace.compareAndSet("seat", null, "a"));
+            assertEquals(3, namespace.lockAttempts.get());
+        } finally {
+            release.countDown();
+            other.join();
+        }
+        assertTrue(namespace.compareAndSet("seat", null, "a"));
+    }
+
+    @Test
+    void bulkOperations() throws Exception {
+        InMemoryNamespace namespace = new InMemoryNamespace();
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("b", 2L);
+        values.put("a", 1L);
+        values.put("c", "three");
+        namespace.putAll(values);
+        assertEquals(3, namespace.size());
+        assertEquals(Set.of("a", "b", "c"), new HashSet<>(namespace.keys()));
+
+        Map<String, Object> some = namespace.getAll(List.of("c", "missing", "a"));
+        assertEquals(List.of("c", "a"), new ArrayList<>(some.keySet()));
+        assertEquals("three", some.get("c"));
+
+        Map<String, Object> snapshot = namespace.snapshot();
+        assertEquals(List.of("a", "b", "c"), new ArrayList<>(snapshot.keySet()));
+        assertEquals(values, snapshot);
+        // every variable was locked and released again
+        assertEquals(3, namespace.lockAttempts.get());
+        assertTrue(namespace.compareAndSet("a", 1L, 10L));
+
+        namespace.removeAll(List.of("a", "missing", "c"));
+        assertEquals(Map.of("b", 2L), namespace.snapshot());
+    }
+
+    @Test
+    void snapshotFailsOnAVariableLockedByAnotherSession() throws Exception {
+        InMemoryNamespace namespace = new InMemoryNamespace();
+        namespace.putAll(Map.of("a", 1L, "b", 2L));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread other = new Thread(() -> {
+            try {
+                namespace.setLock("b", 0);
+                locked.countDown();
+                release.await();
+                namespace.removeLock("b");
+            } catch (Exception e) {
+                locked.countDown();
+            }
+        });
+        other.start();
+        try {
+            locked.await();
+            // waits for the lock on b with the snapshot timeout
+            assertThrows(NamespaceVarableLockedException.class, namespace::snapshot);
+        } finally {
+            release.countDown();
+            other.join();
+        }
+        // the lock on a was released again
+        assertTrue(namespace.compareAndSet("a", 1L, 10L));
+    }
+}
@@ -0,0 +1,133 @@
+package org.dwcj.environment.namespace.sinks;
+
+import com.basis.bbj.proxies.BBjAPI;
+import com.basis.bbj.proxies.BBjNamespace;
+import com.basis.bbj.proxies.event.BBjNamespaceEvent;
+import org.dwcj.Environment;
+import org.dwcj.Stubs;
+import org.dwcj.bridge.IDwcjBBjBridge;
+import org.dwcj.environment.namespace.NamespaceListenerRegistration;
+import org.dwcj.environment.namespace.events.NamespaceEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the registry against a BBjNamespace stub that records the callbacks set and removed
+ * on it. The helper stub records the sinks the event proxies are created for, so events
+ * can be delivered to them as BBj would.
+ */
+class NamespaceListenerRegistryTest {
+
+    private final List<String> callbacks = new ArrayList<>();
+    private final List<Object> sinks = new ArrayList<>();
+    private BBjNamespace ns;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        IDwcjBBjBridge helper = (IDwcjBBjBridge) Proxy.newProxyInstance(IDwcjBBjBridge.class.getClassLoader(),
+                new Class<?>[]{IDwcjBBjBridge.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("getEventProxy")) {
+                        sinks.add(args[0]);
+                    }
+                    return null;
+                });
+        Environment.init(Stubs.of(BBjAPI.class), helper);
+        ns = (BBjNamespace) Proxy.newProxyInstance(BBjNamespace.class.getClassLoader(),
+                new Class<?>[]{BBjNamespace.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("getName")) {
+                        return "orders";
+                    }
+                    if (method.getName().startsWith("setCallback") || method.getName().startsWith("removeCallback")) {
+                        callbacks.add(method.getName() + (args != null && args[0] instanceof String ? " " + args[0] : ""));
+                    }
+                    return null;
+                });
+    }
+
+    @AfterEach
+    void tearDown() {
+        Environment.cleanup();
+    }
+
+    private static void deliver(Object sink) throws Exception {
+        Method onEvent = NamespaceEventSink.class.getDeclaredMethod("onEvent", BBjNamespaceEvent.class);
+        onEvent.setAccessible(true);
+        onEvent.invoke(sink, Stubs.of(BBjNamespaceEvent.class));
+    }
+
+    @Test
+    void oneCallbackPerNamespaceVariableAndKind() throws Exception {
+        NamespaceListenerRegistry registry = new NamespaceListenerRegistry();
+        List<NamespaceEvent> first = new ArrayList<>();
+        List<NamespaceEvent> second = new ArrayList<>();
+        registry.add(ns, null, true, first::add);
+        registry.add(ns, null, true, second::add);
+        registry.add(ns, "total", true, e -> { });
+        registry.add(ns, "total", true, e -> { });
+        registry.add(ns, "total", false, e -> { });
+
+        assertEquals(List.of("setCallbackForNamespaceChange", "setCallbackForVariableChange total",
+                "setCallbackForVariable total"), callbacks);
+        assertEquals(3, sinks.size());
+
+        deliver(sinks.get(0));
+        assertEquals(1, first.size());
+        assertEquals(1, second.size());
+    }
+
+    @Test
+    void callbackIsRemovedWithTheLastListener() throws Exception {
+        NamespaceListenerRegistry registry = new NamespaceListenerRegistry();
+        List<NamespaceEvent> events = new ArrayList<>();
+        Consumer<NamespaceEvent> kept = events::add;
+        NamespaceListenerRegistration first = registry.add(ns, "total", false, kept);
+        NamespaceListenerRegistration second = registry.add(ns, "total", false, e -> { });
+
+        second.remove();
+        second.remove();
+        assertEquals(List.of("setCallbackForVariable total"), callbacks);
+        deliver(sinks.get(0));
+        assertEquals(1, events.size());
+
+        first.remove();
+        assertEquals(List.of("setCallbackForVariable total", "removeCallbackForVariable total"), callbacks);
+
+        // a new listener registers a new callback
+        registry.add(ns, "total", false, e -> { });
+        assertEquals(3, callbacks.size());
+        assertEquals(2, sinks.size());
+    }
+
+    @Test
+    void sessionCleanupRemovesAllCallbacks() {
+        NamespaceListenerRegistry registry = Environment.getInstance().getNamespaceListenerRegistry();
+        registry.add(ns, null, false, e -> { });
+        registry.add(ns, null, true, e -> { });
+        registry.add(ns, "total", true, e -> { });
+
+        Environment.cleanup();
+        assertEquals(List.of("removeCallbackForNamespace", "removeCallbackForNamespaceChange",
+                "removeCallbackForVariableChange total"),
+                callbacks.subList(3, callbacks.size()).stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void deprecatedSinkConstructorsUseTheRegistry() {
+        List<NamespaceEvent> events = new ArrayList<>();
+        new NamespaceEventSink(ns, true, events::add);
+        new NamespaceEventSink(ns, true, events::add);
+        new NamespaceEventSink(ns, "total", false, events::add);
+        assertEquals(List.of("setCallbackForNamespaceChange", "setCallbackForVariable total"), callbacks);
+    }
+}
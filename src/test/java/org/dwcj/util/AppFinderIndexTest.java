@@ -0,0 +1,135 @@
+package org.dwcj.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AppFinderIndexTest {
+
+    private Path directory;
+    private Path indexFile;
+    private File jar;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("appfinder");
+        indexFile = directory.resolve("index.idx");
+        jar = directory.resolve("app.jar").toFile();
+        Files.write(jar.toPath(), new byte[]{1, 2, 3});
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private static Map<String, String> classes() {
+        Map<String, String> classes = new HashMap<>();
+        classes.put("com.acme.Shop", "org.dwcj.App");
+        classes.put("com.acme.Base", null);
+        return classes;
+    }
+
+    @Test
+    void savedIndexIsLoadedAgain() {
+        AppFinderIndex index = new AppFinderIndex(indexFile);
+        index.load();
+        assertNull(index.get(jar));
+        index.put(jar, jar.length(), jar.lastModified(), classes());
+        index.save();
+
+        AppFinderIndex reloaded = new AppFinderIndex(indexFile);
+        reloaded.load();
+        assertEquals(classes(), reloaded.get(jar));
+        try (Stream<Path> files = Files.list(directory)) {
+            // the jar and the index, no temporary file is left behind
+            assertEquals(2, files.count());
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    @Test
+    void changedJarIsNotServed() throws IOException {
+        AppFinderIndex index = new AppFinderIndex(indexFile);
+        index.put(jar, jar.length(), jar.lastModified(), classes());
+        Files.write(jar.toPath(), new byte[]{1, 2, 3, 4});
+        assertNull(index.get(jar));
+
+        index.put(jar, jar.length(), jar.lastModified() - 1000, classes());
+        assertNull(index.get(jar));
+    }
+
+    @Test
+    void unchangedIndexIsNotWritten() {
+        AppFinderIndex index = new AppFinderIndex(indexFile);
+        index.load();
+        index.save();
+        assertFalse(Files.exists(indexFile));
+    }
+
+    @Test
+    void corruptIndexIsIgnored() throws IOException {
+        Files.write(indexFile, ("J\t" + jar.getAbsolutePath() + "\tnot-a-size\t0\nC\ta\tb\n").getBytes(StandardCharsets.UTF_8));
+        AppFinderIndex index = new AppFinderIndex(indexFile);
+        index.load();
+        assertNull(index.get(jar));
+    }
+
+    @Test
+    void jarsOfEarlierScansAreDropped() throws IOException {
+        File other = directory.resolve("other.jar").toFile();
+        Files.write(other.toPath(), new byte[]{4, 5});
+        AppFinderIndex index = new AppFinderIndex(indexFile);
+        index.load();
+        index.put(jar, jar.length(), jar.lastModified(), classes());
+        index.put(other, other.length(), other.lastModified(), classes());
+        index.save();
+
+        AppFinderIndex rescan = new AppFinderIndex(indexFile);
+        rescan.load();
+        assertEquals(classes(), rescan.get(other));
+        rescan.save();
+
+        AppFinderIndex reloaded = new AppFinderIndex(indexFile);
+        reloaded.load();
+        assertNull(reloaded.get(jar));
+        assertEquals(classes(), reloaded.get(other));
+    }
+
+    @Test
+    void missingDirectoryIsCreated() {
+        Path nested = directory.resolve("home").resolve(".dwcj").resolve("index.idx");
+        AppFinderIndex index = new AppFinderIndex(nested);
+        index.load();
+        index.put(jar, jar.length(), jar.lastModified(), classes());
+        index.save();
+        assertTrue(Files.exists(nested));
+    }
+
+    @Test
+    void withoutFileNothingIsStored() {
+        AppFinderIndex index = new AppFinderIndex(null);
+        index.load();
+        index.put(jar, jar.length(), jar.lastModified(), classes());
+        index.save();
+        assertEquals(classes(), index.get(jar));
+    }
+}
@@ -0,0 +1,120 @@
+package org.dwcj.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Scans jars and a class directory built from class file headers, the classes are never
+ * loaded, so they need no bodies.
+ */
+class AppFinderTest {
+
+    private Path directory;
+    private Path indexFile;
+    private List<String> classpath;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("appfinder");
+        indexFile = directory.resolve("index.idx");
+
+        File framework = jar("dwcj.jar",
+                "org.dwcj.App", "java.lang.Object",
+                "org.dwcj.util.WelcomeApp", "org.dwcj.App");
+        File base = jar("shop-base.jar",
+                "com.acme.BaseApp", "org.dwcj.App",
+                "com.acme.Util", "java.lang.Object");
+        File ui = jar("shop-ui.jar",
+                "com.acme.ui.Shop", "com.acme.BaseApp",
+                "com.acme.ui.Dialog", "com.acme.Util");
+        // a skipped jar is never read, even if it holds an app
+        File skipped = jar("commons-shop.jar", "org.apache.Hidden", "org.dwcj.App");
+        Path classes = Files.createDirectories(directory.resolve("classes"));
+        write(classes.resolve("com/acme/admin/Admin.class"), classFile("com.acme.admin.Admin", "com.acme.ui.Shop"));
+
+        classpath = Arrays.asList(framework.getPath(), base.getPath(), ui.getPath(), skipped.getPath(),
+                classes.toString(), directory.resolve("missing.jar").toString());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    void findsAppsAcrossJarsAndDirectories() throws Exception {
+        Set<String> expected = new TreeSet<>(Arrays.asList("com.acme.BaseApp", "com.acme.ui.Shop", "com.acme.admin.Admin"));
+        assertEquals(expected, new AppFinder(classpath, indexFile).getAppImplmentations());
+        assertTrue(Files.exists(indexFile));
+
+        // a scan that reads the saved index, and one without an index
+        assertEquals(expected, new AppFinder(classpath, indexFile).getAppImplmentations());
+        assertEquals(expected, new AppFinder(classpath, null).getAppImplmentations());
+    }
+
+    private File jar(String name, String... classesAndSuperclasses) throws IOException {
+        File jar = directory.resolve(name).toFile();
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(jar.toPath()))) {
+            for (int i = 0; i < classesAndSuperclasses.length; i += 2) {
+                out.putNextEntry(new ZipEntry(classesAndSuperclasses[i].replace('.', '/') + ".class"));
+                out.write(classFile(classesAndSuperclasses[i], classesAndSuperclasses[i + 1]));
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    private static void write(Path file, byte[] content) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(content);
+        }
+    }
+
+    /*
+     * The header of a class file, up to the interfaces, as far as the scanner reads it
+     */
+    private static byte[] classFile(String name, String superclass) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(55);
+        out.writeShort(5);
+        out.writeByte(1);
+        out.writeUTF(name.replace('.', '/'));
+        out.writeByte(7);
+        out.writeShort(1);
+        out.writeByte(1);
+        out.writeUTF(superclass.replace('.', '/'));
+        out.writeByte(7);
+        out.writeShort(3);
+        out.writeShort(0x21);
+        out.writeShort(2);
+        out.writeShort(4);
+        out.writeShort(0);
+        return bytes.toByteArray();
+    }
+}
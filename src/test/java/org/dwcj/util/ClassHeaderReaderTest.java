@@ -0,0 +1,130 @@
+package org.dwcj.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.AbstractList;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ClassHeaderReaderTest {
+
+    // constant pool entries that take two slots
+    static class Constants extends AbstractList<Object> {
+        static final double RATIO = 2.718281828;
+        long large = 0x1234_5678_9ABC_DEF0L;
+        double precise = 1.0e-300;
+
+        @Override
+        public Object get(int index) {
+            return large + precise * index;
+        }
+
+        @Override
+        public int size() {
+            return 0;
+        }
+    }
+
+    // MethodHandle, MethodType and InvokeDynamic entries
+    static class Lambdas {
+        Supplier<String> supplier = () -> "lambda" + this;
+        Runnable reference = System::gc;
+    }
+
+    private static String[] read(Class<?> type) throws IOException {
+        try (InputStream in = type.getResourceAsStream(type.getName().substring(type.getName().lastIndexOf('.') + 1) + ".class")) {
+            return ClassHeaderReader.read(in);
+        }
+    }
+
+    private static String[] read(byte[] classFile) throws IOException {
+        return ClassHeaderReader.read(new ByteArrayInputStream(classFile));
+    }
+
+    @Test
+    void readsLongAndDoubleConstants() throws IOException {
+        assertArrayEquals(new String[]{Constants.class.getName(), "java.util.AbstractList"}, read(Constants.class));
+    }
+
+    @Test
+    void readsInvokeDynamicConstants() throws IOException {
+        assertArrayEquals(new String[]{Lambdas.class.getName(), "java.lang.Object"}, read(Lambdas.class));
+        assertArrayEquals(new String[]{getClass().getName(), "java.lang.Object"}, read(getClass()));
+    }
+
+    @Test
+    void objectHasNoSuperclass() throws IOException {
+        assertArrayEquals(new String[]{"java.lang.Object", null}, read(Object.class));
+    }
+
+    @Test
+    void readsModuleAndPackageConstants() throws IOException {
+        try (InputStream in = Object.class.getModule().getResourceAsStream("module-info.class")) {
+            assertArrayEquals(new String[]{"module-info", null}, ClassHeaderReader.read(in));
+        }
+    }
+
+    @Test
+    void readsDynamicConstants() throws IOException {
+        // javac does not emit CONSTANT_Dynamic for release 11, the class file is built by hand
+        assertArrayEquals(new String[]{"a.B", "java.lang.Object"}, read(classFile(out -> {
+            out.writeByte(17);
+            out.writeShort(0);
+            out.writeShort(0);
+        }, 1)));
+    }
+
+    @Test
+    void longTakesTwoSlots() throws IOException {
+        // Long at 1, its second slot 2 is unused, the class entries follow at 3 to 6
+        assertArrayEquals(new String[]{"a.B", "java.lang.Object"}, read(classFile(out -> {
+            out.writeByte(5);
+            out.writeLong(Long.MAX_VALUE);
+        }, 2)));
+    }
+
+    @Test
+    void rejectsOtherData() throws IOException {
+        assertNull(read(new byte[]{'P', 'K', 3, 4, 0, 0, 0, 0}));
+        assertNull(read(classFile(out -> out.writeByte(99), 1)));
+    }
+
+    private interface PoolWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /*
+     * A class file of class a.B extending java.lang.Object, whose constant pool starts
+     * with the given entries taking the given number of slots
+     */
+    private static byte[] classFile(PoolWriter leading, int leadingSlots) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        int first = 1 + leadingSlots;
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(55);
+        out.writeShort(first + 4);
+        leading.write(out);
+        out.writeByte(1);
+        out.writeUTF("a/B");
+        out.writeByte(7);
+        out.writeShort(first);
+        out.writeByte(1);
+        out.writeUTF("java/lang/Object");
+        out.writeByte(7);
+        out.writeShort(first + 2);
+        out.writeShort(0x21);
+        out.writeShort(first + 1);
+        out.writeShort(first + 3);
+        out.writeShort(0);
+        return bytes.toByteArray();
+    }
+}